@@ -0,0 +1,84 @@
+package ruslan.shastkiv.bookstore.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/*
+Orders accepted by the async checkout are assembled on a fixed pool with a bounded queue.
+When the queue is full the accepting request thread does the work itself, which slows
+checkout down instead of dropping accepted orders.
+With spring.threads.virtual.enabled on Java 21 every order gets a virtual thread instead;
+order.placement.pool-size still caps how many are assembled at once, and a request that
+finds the cap reached waits for a free slot, so the connection pool isn't drained.
+The lookups LookupFanOut forks run on a second executor of the same shape, sized by
+dto.fan-out.pool-size; on a full queue the request thread runs the lookup itself.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    public static final String ORDER_PLACEMENT_EXECUTOR = "orderPlacementExecutor";
+    public static final String LOOKUP_EXECUTOR = "lookupExecutor";
+    private static final String THREAD_NAME_PREFIX = "order-placement-";
+    private static final String LOOKUP_THREAD_NAME_PREFIX = "lookup-";
+    private static final int AWAIT_TERMINATION_SECONDS = 30;
+
+    @Bean(name = ORDER_PLACEMENT_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor orderPlacementExecutor(
+            @Value("${order.placement.pool-size:4}") int poolSize,
+            @Value("${order.placement.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(AWAIT_TERMINATION_SECONDS);
+        return executor;
+    }
+
+    @Bean(name = ORDER_PLACEMENT_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualOrderPlacementExecutor(
+            @Value("${order.placement.pool-size:4}") int poolSize) {
+        return virtualExecutor(THREAD_NAME_PREFIX, poolSize);
+    }
+
+    @Bean(name = LOOKUP_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor lookupExecutor(
+            @Value("${dto.fan-out.pool-size:6}") int poolSize,
+            @Value("${dto.fan-out.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(LOOKUP_THREAD_NAME_PREFIX);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Bean(name = LOOKUP_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualLookupExecutor(
+            @Value("${dto.fan-out.pool-size:6}") int poolSize) {
+        return virtualExecutor(LOOKUP_THREAD_NAME_PREFIX, poolSize);
+    }
+
+    private AsyncTaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(AWAIT_TERMINATION_SECONDS * 1000L);
+        return executor;
+    }
+}
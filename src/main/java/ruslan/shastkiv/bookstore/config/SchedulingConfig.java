@@ -0,0 +1,14 @@
+package ruslan.shastkiv.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+Runs the periodic flushes of the write-behind cart store (CartWriteBehindStore) and of
+the stock counters (StockServiceImpl). The scheduler is Spring Boot's own, which runs
+the tasks on virtual threads when spring.threads.virtual.enabled is set on Java 21.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
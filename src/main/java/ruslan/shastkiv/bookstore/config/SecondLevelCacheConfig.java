@@ -0,0 +1,41 @@
+package ruslan.shastkiv.bookstore.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+Hibernate second-level cache regions live in an in-process Caffeine JCache manager.
+Region sizes come from application.conf; statistics are switched on for every region
+Hibernate created so hits, misses, puts and evictions show up under cache.* metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(
+            CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return meterRegistry -> {
+            for (String cacheName : hibernateCacheManager.getCacheNames()) {
+                hibernateCacheManager.enableStatistics(cacheName, true);
+                JCacheMetrics.monitor(meterRegistry, hibernateCacheManager.getCache(cacheName));
+            }
+        };
+    }
+}
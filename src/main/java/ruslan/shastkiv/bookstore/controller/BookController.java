@@ -3,12 +3,19 @@ package ruslan.shastkiv.bookstore.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,20 +23,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.book.BookImportReportDto;
 import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
+import ruslan.shastkiv.bookstore.dto.stock.BookStockDto;
+import ruslan.shastkiv.bookstore.dto.stock.UpdateBookStockRequestDto;
+import ruslan.shastkiv.bookstore.service.book.BookExportService;
+import ruslan.shastkiv.bookstore.service.book.BookImportService;
 import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.stock.StockService;
 
 @Tag(name = "Books", description = "Manage books in the bookstore")
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(value = "/books")
 public class BookController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String GZIP = "gzip";
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final StockService stockService;
 
     @Operation(
             summary = "Get all books",
@@ -41,6 +64,20 @@ public class BookController {
         return bookService.getAll(pageable);
     }
 
+    @Operation(
+            summary = "Get all books by cursor",
+            description = "Retrieve books one page at a time without counting them. "
+                    + "Pass the returned nextCursor as `after` to get the next page; "
+                    + "it is null on the last page."
+    )
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/cursor")
+    public CursorPageDto<BookDto> getAllByCursor(
+            @ParameterObject CursorRequestDto cursorRequest,
+            @ParameterObject @SortDefault(sort = "id") Sort sort) {
+        return bookService.getAll(cursorRequest, sort);
+    }
+
     @Operation(
             summary = "Get book by ID",
             description = "Retrieve a specific book by its ID. "
@@ -58,7 +95,9 @@ public class BookController {
                     + "If only one price is provided, it will be treated as the minimum price, "
                     + "and results will be returned starting from that price. "
                     + "If two prices are provided, they will be treated as "
-                    + "the minimum and maximum price range."
+                    + "the minimum and maximum price range. "
+                    + "If a text query is provided, books are matched by words and word "
+                    + "prefixes in title, author and description and ordered by relevance."
     )
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/search")
@@ -67,6 +106,21 @@ public class BookController {
         return bookService.search(searchParametersDto, pageable);
     }
 
+    @Operation(
+            summary = "Search for books by cursor",
+            description = "Same filters as book search, paged by cursor without counting "
+                    + "matches. Pass the returned nextCursor as `after` to get the next page. "
+                    + "Text queries are not supported."
+    )
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/search/cursor")
+    public CursorPageDto<BookDto> searchByCursor(
+            BookSearchParametersDto searchParametersDto,
+            @ParameterObject CursorRequestDto cursorRequest,
+            @ParameterObject @SortDefault(sort = "id") Sort sort) {
+        return bookService.search(searchParametersDto, cursorRequest, sort);
+    }
+
     @Operation(
             summary = "Create a new book",
             description = "Add a new book to the bookstore. "
@@ -79,6 +133,55 @@ public class BookController {
         return bookService.createBook(bookDto);
     }
 
+    @Operation(
+            summary = "Import books from CSV",
+            description = "Create or update books in bulk, matched by ISBN. The CSV must start "
+                    + "with a header row naming the columns title, author, isbn, price, "
+                    + "description, coverImage and categoryIds, with category ids separated "
+                    + "by ';'. Invalid rows are skipped and listed in the returned report."
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public BookImportReportDto importCsv(InputStream csv) {
+        return bookImportService.importCsv(csv);
+    }
+
+    @Operation(
+            summary = "Import books from JSON lines",
+            description = "Create or update books in bulk, matched by ISBN. Each line holds one "
+                    + "book in the same form as the create book request. Invalid lines are "
+                    + "skipped and listed in the returned report."
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BookImportReportDto importJsonLines(InputStream jsonLines) {
+        return bookImportService.importJsonLines(jsonLines);
+    }
+
+    @Operation(
+            summary = "Export all books as JSON lines",
+            description = "Stream every book that is not deleted, one per line, with its "
+                    + "category ids. The body is gzip-compressed when the client accepts gzip. "
+                    + "Lines can be imported back as they are."
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportJsonLines(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "")
+            String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptEncoding.contains(GZIP)) {
+            return response.body(bookExportService::exportJsonLines);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                .body(jsonLines -> {
+                    GZIPOutputStream gzipJsonLines = new GZIPOutputStream(jsonLines);
+                    bookExportService.exportJsonLines(gzipJsonLines);
+                    gzipJsonLines.finish();
+                });
+    }
+
     @Operation(
             summary = "Update book",
             description = "Update an existing book. "
@@ -91,6 +194,30 @@ public class BookController {
         return bookService.updateBook(id, requestDto);
     }
 
+    @Operation(
+            summary = "Get book stock",
+            description = "Retrieve the units of a book left for sale. "
+                    + "The quantity is null for a book whose stock is not tracked."
+    )
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/{id}/stock")
+    public BookStockDto getStock(@PathVariable Long id) {
+        return stockService.getStock(id);
+    }
+
+    @Operation(
+            summary = "Update book stock",
+            description = "Set the units of a book left for sale and start tracking its "
+                    + "stock. Orders are refused once a tracked book is sold out; cancelled "
+                    + "and expired orders give their units back."
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/stock")
+    public BookStockDto updateStock(
+            @PathVariable Long id, @RequestBody @Valid UpdateBookStockRequestDto requestDto) {
+        return stockService.updateStock(id, requestDto);
+    }
+
     @Operation(
             summary = "Delete a book",
             description = "Remove a book from the bookstore by its ID. "
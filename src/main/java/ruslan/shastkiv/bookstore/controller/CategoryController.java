@@ -7,7 +7,9 @@ import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +24,8 @@ import org.springframework.web.bind.annotation.RestController;
 import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.dto.category.CategoryDto;
 import ruslan.shastkiv.bookstore.dto.category.CategoryRequestDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.service.book.BookService;
 import ruslan.shastkiv.bookstore.service.category.CategoryService;
 
@@ -69,6 +73,19 @@ public class CategoryController {
         return bookService.getAllBooksByCategoryId(id, pageable);
     }
 
+    @GetMapping("/{id}/books/cursor")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get all books by category ID by cursor",
+            description = "This endpoint allows users to fetch books for a specific category "
+                    + "page by page without counting them. Pass the returned nextCursor "
+                    + "as `after` to get the next page.")
+    public CursorPageDto<BookDtoWithoutCategoryIds> getAllBooksByCategoryIdByCursor(
+            @PathVariable Long id,
+            @ParameterObject CursorRequestDto cursorRequest,
+            @ParameterObject @SortDefault(sort = "id") Sort sort) {
+        return bookService.getAllBooksByCategoryId(id, cursorRequest, sort);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update category by ID",
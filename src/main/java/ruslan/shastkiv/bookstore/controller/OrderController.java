@@ -4,8 +4,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -14,11 +17,15 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
 import ruslan.shastkiv.bookstore.dto.order.PlaceOrderRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.UpdateOrderStatusRequestDto;
 import ruslan.shastkiv.bookstore.service.order.OrderService;
@@ -30,6 +37,8 @@ import ruslan.shastkiv.bookstore.service.user.UserService;
 @Tag(name = "Order Management",
         description = "Operations related to orders and order items")
 public class OrderController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
     private final UserService userService;
 
@@ -43,6 +52,32 @@ public class OrderController {
         return orderService.placeOrderByUserId(authentication, requestDto);
     }
 
+    @PostMapping("/async")
+    @PreAuthorize("hasRole('USER')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Place an order asynchronously",
+            description = "Accepts an order for the authenticated user and returns its ID "
+                    + "with PENDING status right away. Retries with the same Idempotency-Key "
+                    + "return the same order. Poll /orders/{orderId}/status for progress. "
+                    + "The order is filled from the cart as it is while the order is "
+                    + "PENDING, so cart changes made before it leaves PENDING are included.")
+    public OrderStatusDto placeOrderAsync(
+            @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+            @RequestBody @Valid PlaceOrderRequestDto requestDto,
+            Authentication authentication) {
+        return orderService.placeOrderAsync(
+                userService.getUserId(authentication), idempotencyKey, requestDto);
+    }
+
+    @GetMapping("/{orderId}/status")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get order status",
+            description = "Retrieves the status of one of the authenticated user's orders.")
+    public OrderStatusDto getOrderStatus(@PathVariable Long orderId,
+                                         Authentication authentication) {
+        return orderService.getOrderStatus(userService.getUserId(authentication), orderId);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get all orders",
@@ -52,10 +87,27 @@ public class OrderController {
         return orderService.getAllOrdersByUserId(userService.getUserId(authentication), pageable);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get all orders by cursor",
+            description = "Retrieves the authenticated user's orders page by page without "
+                    + "counting them, newest first by default. Pass the returned nextCursor "
+                    + "as `after` to get the next page.")
+    public CursorPageDto<OrderDto> getOrdersByCursor(
+            Authentication authentication,
+            @ParameterObject CursorRequestDto cursorRequest,
+            @ParameterObject @SortDefault(sort = "orderDate", direction = Sort.Direction.DESC)
+            Sort sort) {
+        return orderService.getAllOrdersByUserId(
+                userService.getUserId(authentication), cursorRequest, sort);
+    }
+
     @PatchMapping("/{orderId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update order status",
-            description = "Allows an admin to update the status of an order.")
+            description = "Allows an admin to update the status of an order. Moving it to "
+                    + "CANCELLED, EXPIRED or FAILED gives its reserved stock back; an order "
+                    + "in one of these statuses can't be moved out of them.")
     public OrderDto updateOrderStatus(
             @PathVariable Long orderId,
             @Valid @RequestBody UpdateOrderStatusRequestDto statusRequestDto) {
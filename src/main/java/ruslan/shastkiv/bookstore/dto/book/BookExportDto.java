@@ -0,0 +1,14 @@
+package ruslan.shastkiv.bookstore.dto.book;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BookExportDto(Long id,
+                            String title,
+                            String author,
+                            String isbn,
+                            BigDecimal price,
+                            String description,
+                            String coverImage,
+                            List<Long> categoryIds) {
+}
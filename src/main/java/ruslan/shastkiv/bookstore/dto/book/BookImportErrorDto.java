@@ -0,0 +1,4 @@
+package ruslan.shastkiv.bookstore.dto.book;
+
+public record BookImportErrorDto(long row, String isbn, String error) {
+}
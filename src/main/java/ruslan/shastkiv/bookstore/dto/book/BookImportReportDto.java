@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.dto.book;
+
+import java.util.List;
+
+public record BookImportReportDto(long imported, long rejected, List<BookImportErrorDto> errors) {
+}
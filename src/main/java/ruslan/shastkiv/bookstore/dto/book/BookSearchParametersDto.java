@@ -4,5 +4,6 @@ public record BookSearchParametersDto(
         String[] authors,
         String[] titles,
         String[] prices,
-        String[] categories) {
+        String[] categories,
+        String query) {
 }
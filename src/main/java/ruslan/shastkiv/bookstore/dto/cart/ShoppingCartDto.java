@@ -1,8 +1,11 @@
 package ruslan.shastkiv.bookstore.dto.cart;
 
+import java.math.BigDecimal;
 import java.util.Set;
 import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
 
 public record ShoppingCartDto(Long userId,
-                              Set<CartItemDto> cartItems) {
+                              Set<CartItemDto> cartItems,
+                              BigDecimal subtotal,
+                              int itemCount) {
 }
@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.dto.cursor;
+
+import java.util.List;
+
+public record CursorPageDto<T>(List<T> content,
+                               String nextCursor) {
+}
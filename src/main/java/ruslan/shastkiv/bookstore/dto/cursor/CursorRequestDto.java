@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.dto.cursor;
+
+public record CursorRequestDto(
+        String after,
+        Integer size) {
+}
@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.dto.order;
+
+import ruslan.shastkiv.bookstore.model.Order;
+
+public record OrderStatusDto(Long id, Order.Status status) {
+}
@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.dto.stock;
+
+/*
+quantity is null for a book that is not stock-tracked.
+ */
+public record BookStockDto(Long bookId, Integer quantity) {
+}
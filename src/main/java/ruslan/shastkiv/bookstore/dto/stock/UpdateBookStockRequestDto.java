@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.dto.stock;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record UpdateBookStockRequestDto(@PositiveOrZero(message = "Quantity cannot be negative")
+                                        int quantity) {
+}
@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.exception;
+
+public class LookupTimeoutException extends RuntimeException {
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.exception;
+
+public class TextSearchDisabledException extends RuntimeException {
+    public TextSearchDisabledException(String message) {
+        super(message);
+    }
+}
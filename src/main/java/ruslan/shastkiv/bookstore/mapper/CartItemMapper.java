@@ -14,6 +14,7 @@ public interface CartItemMapper {
     CartItemDto toDto(CartItem cartItem);
 
     @Mapping(source = "bookId", target = "book", qualifiedByName = "bookFromId")
+    @Mapping(target = "version", ignore = true)
     CartItem toModel(CartItemRequestDto requestDto);
 
 }
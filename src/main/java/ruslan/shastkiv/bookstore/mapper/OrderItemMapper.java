@@ -6,15 +6,20 @@ import ruslan.shastkiv.bookstore.config.MapperConfig;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
 import ruslan.shastkiv.bookstore.model.CartItem;
 import ruslan.shastkiv.bookstore.model.OrderItem;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemLine;
 
 @Mapper(config = MapperConfig.class)
 public interface OrderItemMapper {
     @Mapping(target = "bookId", source = "book.id")
     OrderItemDto toDto(OrderItem orderItem);
 
+    OrderItemDto toDto(OrderItemLine orderItemLine);
+
+    @Mapping(target = "stockReserved", ignore = true)
     OrderItem toModel(OrderItemDto orderItemDto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "price", source = "book.price")
+    @Mapping(target = "stockReserved", ignore = true)
     OrderItem toOrderItem(CartItem cartItem);
 }
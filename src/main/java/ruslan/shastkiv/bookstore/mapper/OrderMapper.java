@@ -1,9 +1,12 @@
 package ruslan.shastkiv.bookstore.mapper;
 
+import java.util.List;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ruslan.shastkiv.bookstore.config.MapperConfig;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
 import ruslan.shastkiv.bookstore.model.Order;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
 
@@ -12,8 +15,16 @@ public interface OrderMapper {
     @Mapping(target = "userId", source = "user.id")
     OrderDto toDto(Order order);
 
+    @Mapping(target = "userId", source = "order.user.id")
+    @Mapping(target = "orderItems", source = "items")
+    OrderDto toDto(Order order, List<OrderItemDto> items);
+
+    OrderStatusDto toStatusDto(Order order);
+
+    @Mapping(target = "idempotencyKey", ignore = true)
     Order toModel(OrderDto orderDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
     Order toOrder(ShoppingCart userShoppingCart);
 }
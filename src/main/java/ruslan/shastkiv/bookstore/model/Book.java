@@ -1,5 +1,6 @@
 package ruslan.shastkiv.bookstore.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,6 +17,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
@@ -26,7 +29,12 @@ import org.hibernate.annotations.SQLRestriction;
 @EqualsAndHashCode
 @SQLDelete(sql = "UPDATE books SET is_deleted = TRUE WHERE id = ?")
 @SQLRestriction("is_deleted = FALSE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
 public class Book {
+    public static final String CACHE_REGION = "books";
+    public static final String CATEGORIES_CACHE_REGION = "books_categories";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +59,7 @@ public class Book {
     private String coverImage;
 
     @ManyToMany()
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CATEGORIES_CACHE_REGION)
     @JoinTable(name = "books_categories",
             joinColumns = @JoinColumn(name = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
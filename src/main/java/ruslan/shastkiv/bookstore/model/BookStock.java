@@ -0,0 +1,29 @@
+package ruslan.shastkiv.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/*
+Units of a book left for sale. A book without a row is not stock-tracked and never
+sells out. The quantity is what no instance has claimed yet; allocated is what the
+instances have claimed and not yet sold or given back, and trails their sales by up to
+one flush.
+ */
+@Entity
+@Table(name = "book_stocks")
+@Getter
+@Setter
+public class BookStock {
+    @Id
+    private Long bookId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private int allocated;
+}
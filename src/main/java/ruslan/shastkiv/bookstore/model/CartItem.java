@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -17,6 +18,10 @@ import lombok.Setter;
 @Getter
 @Setter
 public class CartItem {
+    /*
+    Lines are inserted by CartItemBatchRepository.addQuantity, which takes the id
+    from the column's auto increment.
+     */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,4 +36,7 @@ public class CartItem {
 
     @Column(nullable = false)
     private int quantity;
+
+    @Version
+    private long version;
 }
@@ -0,0 +1,126 @@
+package ruslan.shastkiv.bookstore.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+An amount of the store currency held as a whole number of minor units (cents),
+so sums and products are plain long arithmetic. Amounts are rounded half up to
+SCALE digits on the way in and become BigDecimal again only at the entity and DTO
+boundary; overflow throws ArithmeticException instead of wrapping around.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final int RADIX = 10;
+    private static final int HALF_UP_DIGIT = 5;
+
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.movePointRight(SCALE)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact());
+    }
+
+    /*
+    Reads a plain decimal such as "12", "-3.5" or "0.125" without going through BigDecimal.
+     */
+    public static Money parse(String amount) {
+        return parse(amount, RoundingMode.HALF_UP);
+    }
+
+    private static Money parse(String amount, RoundingMode rounding) {
+        int length = amount.length();
+        int position = 0;
+        boolean negative = false;
+        if (length > 0 && (amount.charAt(0) == '-' || amount.charAt(0) == '+')) {
+            negative = amount.charAt(0) == '-';
+            position++;
+        }
+        long units = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean halfOrMore = false;
+        boolean inexact = false;
+        for (; position < length; position++) {
+            char symbol = amount.charAt(position);
+            if (symbol == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = Character.digit(symbol, RADIX);
+            if (digit < 0) {
+                throw invalidAmount(amount);
+            }
+            digits++;
+            if (fractionDigits >= SCALE) {
+                halfOrMore |= fractionDigits == SCALE && digit >= HALF_UP_DIGIT;
+                inexact |= digit != 0;
+                fractionDigits++;
+                continue;
+            }
+            units = Math.addExact(Math.multiplyExact(units, RADIX), digit);
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0) {
+            throw invalidAmount(amount);
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+            units = Math.multiplyExact(units, RADIX);
+        }
+        boolean awayFromZero = switch (rounding) {
+            case HALF_UP -> halfOrMore;
+            case CEILING -> inexact && !negative;
+            case FLOOR -> inexact && negative;
+            default -> throw new IllegalArgumentException("Unsupported rounding: " + rounding);
+        };
+        if (awayFromZero) {
+            units = Math.incrementExact(units);
+        }
+        return new Money(negative ? -units : units);
+    }
+
+    /*
+    Bounds of a price range: the lower one is rounded up and the upper one down, so a
+    bound never takes in an amount the exact decimal excludes. A bound past the range of
+    minor units is clamped to it instead of failing.
+     */
+    public static Money lowerBound(String amount) {
+        return bound(amount, RoundingMode.CEILING);
+    }
+
+    public static Money upperBound(String amount) {
+        return bound(amount, RoundingMode.FLOOR);
+    }
+
+    private static Money bound(String amount, RoundingMode rounding) {
+        try {
+            return parse(amount, rounding);
+        } catch (ArithmeticException e) {
+            return new Money(amount.startsWith("-") ? Long.MIN_VALUE : Long.MAX_VALUE);
+        }
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private static NumberFormatException invalidAmount(String amount) {
+        return new NumberFormatException("Invalid money amount: [" + amount + "]");
+    }
+}
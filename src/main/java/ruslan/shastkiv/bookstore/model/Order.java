@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -30,7 +31,7 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -47,6 +48,8 @@ public class Order {
     @Column(nullable = false)
     private String shippingAddress;
 
+    private String idempotencyKey;
+
     @OneToMany(mappedBy = "order",
             cascade = CascadeType.ALL,
             orphanRemoval = true)
@@ -57,7 +60,10 @@ public class Order {
         PROCESSING,
         SHIPPED,
         DELIVERED,
-        ARCHIVED
+        ARCHIVED,
+        FAILED,
+        CANCELLED,
+        EXPIRED
     }
 
 }
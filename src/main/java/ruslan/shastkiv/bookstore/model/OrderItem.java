@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import java.math.BigDecimal;
 import lombok.Getter;
 import lombok.Setter;
@@ -20,8 +21,15 @@ Each order can contain multiple items, each item represents a unique book and qu
 @Getter
 @Setter
 public class OrderItem {
+    /*
+    The pooled-lo optimizer (hibernate.id.optimizer.pooled.preferred) hands out the block
+    starting at next_val, so a row seeded with MAX(id) + 1 never reissues an existing id.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(name = "order_items_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -37,4 +45,11 @@ public class OrderItem {
 
     @Column(nullable = false)
     private BigDecimal price;
+
+    /*
+    Set when the quantity was taken from the stock of the book; only such lines give
+    their quantity back when the order is cancelled.
+     */
+    @Column(nullable = false)
+    private boolean isStockReserved = false;
 }
@@ -10,6 +10,8 @@ import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
@@ -35,6 +37,27 @@ public class ShoppingCart {
     @OneToMany(mappedBy = "shoppingCart", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<CartItem> cartItems = new HashSet<>();
 
+    /*
+    Running total of the cart lines at the current book prices, kept up to date
+    by ShoppingCartServiceImpl. isPriced is cleared when the price of a book
+    in the cart changes; the totals are then aggregated again on the next write.
+     */
+    @Column(nullable = false)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private boolean isPriced = false;
+
     @Column(nullable = false)
     private boolean isDeleted = false;
+
+    /*
+    Also raised by the bulk updates of the totals, so a write based on totals read
+    earlier fails instead of overwriting them.
+     */
+    @Version
+    private long version;
 }
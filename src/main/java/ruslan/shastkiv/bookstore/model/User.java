@@ -18,6 +18,7 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import ruslan.shastkiv.bookstore.security.AuthenticatedUser;
 
 @Getter
 @Setter
@@ -25,7 +26,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 @SQLDelete(sql = "UPDATE users SET is_deleted = true WHERE id = ?")
 @SQLRestriction(value = "is_deleted = FALSE")
 @Table(name = "users")
-public class User implements UserDetails {
+public class User implements UserDetails, AuthenticatedUser {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
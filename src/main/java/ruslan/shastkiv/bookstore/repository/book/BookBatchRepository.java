@@ -0,0 +1,13 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import java.util.Collection;
+import ruslan.shastkiv.bookstore.model.Book;
+
+/*
+Writes books and their category links with plain JDBC batches instead of one
+persist per book, for bulk imports. Books are matched by ISBN: a known ISBN updates
+the book and replaces its categories. Ids of the written books are set on the given ones.
+ */
+public interface BookBatchRepository {
+    void upsertAllByIsbn(Collection<Book> books);
+}
@@ -0,0 +1,61 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ruslan.shastkiv.bookstore.model.Book;
+
+@RequiredArgsConstructor
+public class BookBatchRepositoryImpl implements BookBatchRepository {
+    private static final String UPSERT_BOOK = "INSERT INTO books "
+            + "(is_deleted, title, author, isbn, price, description, cover_image) "
+            + "VALUES (0, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE is_deleted = 0, title = VALUES(title), "
+            + "author = VALUES(author), price = VALUES(price), "
+            + "description = VALUES(description), cover_image = VALUES(cover_image)";
+    private static final String SELECT_IDS_BY_ISBN =
+            "SELECT id, isbn FROM books WHERE isbn IN (:isbns)";
+    private static final String DELETE_CATEGORIES =
+            "DELETE FROM books_categories WHERE book_id IN (:bookIds)";
+    private static final String INSERT_CATEGORY =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAllByIsbn(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_BOOK, books, books.size(),
+                (statement, book) -> {
+                    statement.setString(1, book.getTitle());
+                    statement.setString(2, book.getAuthor());
+                    statement.setString(3, book.getIsbn());
+                    statement.setBigDecimal(4, book.getPrice());
+                    statement.setString(5, book.getDescription());
+                    statement.setString(6, book.getCoverImage());
+                });
+        Map<String, Long> idsByIsbn = findIdsByIsbn(books);
+        books.forEach(book -> book.setId(idsByIsbn.get(book.getIsbn())));
+        jdbcTemplate.update(DELETE_CATEGORIES, Map.of("bookIds", idsByIsbn.values()));
+        List<Object[]> categoryLinks = books.stream()
+                .flatMap(book -> book.getCategories().stream()
+                        .map(category -> new Object[]{book.getId(), category.getId()}))
+                .toList();
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CATEGORY, categoryLinks);
+    }
+
+    private Map<String, Long> findIdsByIsbn(Collection<Book> books) {
+        Map<String, Long> idsByIsbn = new HashMap<>();
+        jdbcTemplate.query(SELECT_IDS_BY_ISBN,
+                Map.of("isbns", books.stream().map(Book::getIsbn).toList()),
+                resultSet -> {
+                    idsByIsbn.put(resultSet.getString("isbn"), resultSet.getLong("id"));
+                });
+        return idsByIsbn;
+    }
+}
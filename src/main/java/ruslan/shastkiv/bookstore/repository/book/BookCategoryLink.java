@@ -0,0 +1,4 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+public record BookCategoryLink(Long categoryId, Long bookId) {
+}
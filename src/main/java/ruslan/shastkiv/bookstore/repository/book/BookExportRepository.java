@@ -0,0 +1,13 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import java.util.function.Consumer;
+import ruslan.shastkiv.bookstore.dto.book.BookExportDto;
+
+/*
+Walks every live book with its category ids over one forward-only result set,
+handing each book over as soon as its rows are read. Nothing is collected and
+no entities are managed, so memory stays flat whatever the size of the catalog.
+ */
+public interface BookExportRepository {
+    void forEachWithCategoryIds(Consumer<BookExportDto> consumer);
+}
@@ -0,0 +1,71 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ruslan.shastkiv.bookstore.dto.book.BookExportDto;
+
+@RequiredArgsConstructor
+public class BookExportRepositoryImpl implements BookExportRepository {
+    /*
+    Ordered by the primary key, so MySQL reads books in index order and the first
+    rows are sent without sorting the table; the rows of one book stay adjacent.
+    Links to soft-deleted categories stay in books_categories, so only live categories
+    are joined: the export must pass the category check of the import.
+     */
+    private static final String SELECT_BOOKS_WITH_CATEGORY_IDS = "SELECT b.id, b.title, "
+            + "b.author, b.isbn, b.price, b.description, b.cover_image, c.id AS category_id "
+            + "FROM books b LEFT JOIN books_categories bc ON bc.book_id = b.id "
+            + "LEFT JOIN categories c ON c.id = bc.category_id AND c.is_deleted = FALSE "
+            + "WHERE b.is_deleted = FALSE ORDER BY b.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /*
+    Integer.MIN_VALUE makes Connector/J stream rows one by one instead of
+    reading the whole result set into memory.
+     */
+    @Value("${book.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Override
+    public void forEachWithCategoryIds(Consumer<BookExportDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SELECT_BOOKS_WITH_CATEGORY_IDS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            BookExportDto book = null;
+            while (resultSet.next()) {
+                long id = resultSet.getLong("id");
+                if (book == null || book.id() != id) {
+                    if (book != null) {
+                        consumer.accept(book);
+                    }
+                    book = new BookExportDto(id,
+                            resultSet.getString("title"),
+                            resultSet.getString("author"),
+                            resultSet.getString("isbn"),
+                            resultSet.getBigDecimal("price"),
+                            resultSet.getString("description"),
+                            resultSet.getString("cover_image"),
+                            new ArrayList<>());
+                }
+                long categoryId = resultSet.getLong("category_id");
+                if (!resultSet.wasNull()) {
+                    book.categoryIds().add(categoryId);
+                }
+            }
+            if (book != null) {
+                consumer.accept(book);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ruslan.shastkiv.bookstore.model.Book;
+
+/*
+Pages over book ids only, so LIMIT/OFFSET and COUNT run in the database
+and the matching books can be fetched afterwards with their categories in one query.
+ */
+public interface BookIdRepository {
+    Page<Long> findIds(Specification<Book> specification, Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package ruslan.shastkiv.bookstore.repository.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import ruslan.shastkiv.bookstore.model.Book;
+
+public class BookIdRepositoryImpl implements BookIdRepository {
+    private static final String ID_COLUMN = "id";
+    private static final int ID_POSITION = 0;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIds(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        /*
+        Sort columns are selected next to the id so DISTINCT (needed when a specification
+        joins a collection and repeats a book) stays valid for ORDER BY; they are functionally
+        dependent on the id.
+         */
+        List<Order> orders = QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(ID_COLUMN));
+        orders.forEach(order -> selections.add(order.getExpression()));
+        query.multiselect(selections).distinct(true).orderBy(orders);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = typedQuery.getResultList().stream()
+                .map(tuple -> tuple.get(ID_POSITION, Long.class))
+                .toList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.countDistinct(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -1,18 +1,53 @@
 package ruslan.shastkiv.bookstore.repository.book;
 
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.model.Book;
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
-    @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.id = :categoryId "
-            + "AND b.isDeleted = FALSE")
-    Page<Book> findBooksByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookIdRepository, BookBatchRepository, BookExportRepository {
+    @Query(value = "SELECT new ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds("
+            + "b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage) "
+            + "FROM Book b JOIN b.categories c WHERE c.id = :categoryId AND b.isDeleted = FALSE",
+            countQuery = "SELECT COUNT(b) FROM Book b JOIN b.categories c "
+                    + "WHERE c.id = :categoryId AND b.isDeleted = FALSE")
+    Page<BookDtoWithoutCategoryIds> findBooksByCategoryId(@Param("categoryId") Long categoryId,
+                                                          Pageable pageable);
 
-    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.isDeleted = FALSE")
-    Page<Book> findAllWithCategories(Pageable pageable);
+    Window<Book> findByCategoriesId(Long categoryId, ScrollPosition position,
+                                    Sort sort, Limit limit);
+
+    @Query(value = "SELECT b.id FROM Book b WHERE b.isDeleted = FALSE",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.isDeleted = FALSE")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.isDeleted = FALSE")
+    List<Book> findAllWithCategories();
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.id IN :ids")
+    List<Book> findAllWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds("
+            + "b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage) "
+            + "FROM Book b WHERE b.id IN :ids")
+    List<BookDtoWithoutCategoryIds> findAllWithoutCategoryIdsByIdIn(
+            @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.repository.book.BookCategoryLink(c.id, b.id) "
+            + "FROM Book b JOIN b.categories c WHERE b.isDeleted = FALSE")
+    List<BookCategoryLink> findAllCategoryLinks();
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
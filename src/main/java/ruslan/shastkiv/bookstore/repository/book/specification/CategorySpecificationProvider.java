@@ -1,6 +1,8 @@
 package ruslan.shastkiv.bookstore.repository.book.specification;
 
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.util.Arrays;
 import java.util.List;
 import org.springframework.data.jpa.domain.Specification;
@@ -9,6 +11,11 @@ import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.model.Category;
 import ruslan.shastkiv.bookstore.repository.SpecificationProvider;
 
+/*
+Matches the categories in an EXISTS subquery instead of a join of the book query, so a book
+in several of the searched categories stays one row: a repeated row would take a place of
+the row limit, and a cursor window would end early without a next cursor.
+ */
 @Component
 public class CategorySpecificationProvider implements SpecificationProvider<Book> {
     private static final String CATEGORIES_COLUMN = "categories";
@@ -23,8 +30,12 @@ public class CategorySpecificationProvider implements SpecificationProvider<Book
     public Specification<Book> getSpecification(String[] params) {
         List<Long> categoryIds = Arrays.stream(params).map(Long::valueOf).toList();
         return (root, query, criteriaBuilder) -> {
-            Join<Book, Category> categoriesJoin = root.join(CATEGORIES_COLUMN);
-            return criteriaBuilder.in(categoriesJoin.get(ID_COLUMN)).value(categoryIds);
+            Subquery<Long> categoriesQuery = query.subquery(Long.class);
+            Root<Book> book = categoriesQuery.correlate(root);
+            Join<Book, Category> categoriesJoin = book.join(CATEGORIES_COLUMN);
+            categoriesQuery.select(categoriesJoin.get(ID_COLUMN))
+                    .where(categoriesJoin.get(ID_COLUMN).in(categoryIds));
+            return criteriaBuilder.exists(categoriesQuery);
         };
     }
 }
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Money;
 import ruslan.shastkiv.bookstore.repository.SpecificationProvider;
 
 @Component
@@ -21,22 +22,26 @@ public class PriceSpecificationProvider implements SpecificationProvider<Book> {
         return PRICE_COLUMN;
     }
 
+    /*
+    The bounds are parsed once here rather than inside the predicate,
+    which runs again for the count query of every page.
+     */
     @Override
     public Specification<Book> getSpecification(String[] params) {
-        return (root, query, criteriaBuilder) -> {
-            if (params.length == ONLY_MIN_PRICE) {
-                return criteriaBuilder.greaterThanOrEqualTo(root.get(PRICE_COLUMN),
-                        new BigDecimal(params[MIN_PRICE]));
-            } else if (params.length == MIN_AND_MAX_PRICE) {
-                return criteriaBuilder.between(root.get(PRICE_COLUMN),
-                        new BigDecimal(params[MIN_PRICE]),
-                        new BigDecimal(params[MAX_PRICE]));
-            } else {
-                throw new IllegalArgumentException(
-                        "Expected 1 or 2 parameters for price filtering, but got: "
-                        + params.length
-                );
-            }
-        };
+        if (params.length == ONLY_MIN_PRICE) {
+            BigDecimal minPrice = Money.lowerBound(params[MIN_PRICE]).toBigDecimal();
+            return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(
+                    root.get(PRICE_COLUMN), minPrice);
+        } else if (params.length == MIN_AND_MAX_PRICE) {
+            BigDecimal minPrice = Money.lowerBound(params[MIN_PRICE]).toBigDecimal();
+            BigDecimal maxPrice = Money.upperBound(params[MAX_PRICE]).toBigDecimal();
+            return (root, query, criteriaBuilder) -> criteriaBuilder.between(
+                    root.get(PRICE_COLUMN), minPrice, maxPrice);
+        } else {
+            throw new IllegalArgumentException(
+                    "Expected 1 or 2 parameters for price filtering, but got: "
+                    + params.length
+            );
+        }
     }
 }
@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.repository.cart;
+
+import java.math.BigDecimal;
+
+public record CartSummary(BigDecimal subtotal, int itemCount, boolean priced) {
+}
@@ -1,7 +1,46 @@
 package ruslan.shastkiv.bookstore.repository.cart;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
+    @Query("SELECT new ruslan.shastkiv.bookstore.repository.cart.CartSummary("
+            + "sc.subtotal, sc.itemCount, sc.isPriced) FROM ShoppingCart sc WHERE sc.id = :id")
+    Optional<CartSummary> findSummaryById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ShoppingCart sc SET sc.isPriced = FALSE, sc.version = sc.version + 1 "
+            + "WHERE sc.id IN (SELECT ci.shoppingCart.id FROM CartItem ci "
+            + "WHERE ci.book.id = :bookId)")
+    int markUnpricedByBookId(@Param("bookId") Long bookId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ShoppingCart sc SET sc.isPriced = FALSE, sc.version = sc.version + 1 "
+            + "WHERE sc.id IN (SELECT ci.shoppingCart.id FROM CartItem ci "
+            + "WHERE ci.book.isbn IN :isbns)")
+    int markUnpricedByBookIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ShoppingCart sc SET sc.subtotal = sc.subtotal + :amount, "
+            + "sc.itemCount = sc.itemCount + :quantity, sc.version = sc.version + 1 "
+            + "WHERE sc.id = :id AND sc.isDeleted = FALSE")
+    int addToTotals(@Param("id") Long id,
+                    @Param("amount") BigDecimal amount,
+                    @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ShoppingCart sc SET sc.isPriced = FALSE, sc.version = sc.version + 1 "
+            + "WHERE sc.id = :id AND sc.isDeleted = FALSE")
+    int markUnpricedById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package ruslan.shastkiv.bookstore.repository.item;
+
+import java.util.Map;
+
+/*
+Writes cart lines with plain JDBC. addQuantity is a single upsert on the unique
+(shopping_cart_id, book_id) pair, so concurrent additions of the same book neither lose
+quantity nor race to insert the line twice. updateQuantities writes the lines of the
+write-behind cart store in one batch; lines that no longer exist are skipped.
+Both raise the version of the lines they change.
+ */
+public interface CartItemBatchRepository {
+    void addQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    void updateQuantities(Map<Long, Integer> quantitiesById);
+}
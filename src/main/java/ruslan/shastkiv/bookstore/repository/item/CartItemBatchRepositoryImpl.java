@@ -0,0 +1,34 @@
+package ruslan.shastkiv.bookstore.repository.item;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class CartItemBatchRepositoryImpl implements CartItemBatchRepository {
+    private static final String ADD_QUANTITY = "INSERT INTO cart_items "
+            + "(shopping_cart_id, book_id, quantity, version) VALUES (?, ?, ?, 0) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), "
+            + "version = version + 1";
+    private static final String UPDATE_QUANTITY =
+            "UPDATE cart_items SET quantity = ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addQuantity(Long shoppingCartId, Long bookId, int quantity) {
+        jdbcTemplate.update(ADD_QUANTITY, shoppingCartId, bookId, quantity);
+    }
+
+    @Override
+    public void updateQuantities(Map<Long, Integer> quantitiesById) {
+        if (quantitiesById.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_QUANTITY, quantitiesById.entrySet(),
+                quantitiesById.size(), (statement, line) -> {
+                    statement.setInt(1, line.getValue());
+                    statement.setLong(2, line.getKey());
+                });
+    }
+}
@@ -1,11 +1,31 @@
 package ruslan.shastkiv.bookstore.repository.item;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
 import ruslan.shastkiv.bookstore.model.CartItem;
 
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>,
+        CartItemBatchRepository {
     Optional<CartItem> findByBookIdAndShoppingCartId(Long bookId, Long shoppingCartId);
 
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long cartId);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.dto.item.CartItemDto("
+            + "ci.id, ci.book.id, b.title, ci.quantity) "
+            + "FROM CartItem ci LEFT JOIN ci.book b WHERE ci.shoppingCart.id = :cartId")
+    List<CartItemDto> findAllByShoppingCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.repository.item.CartTotals("
+            + "SUM(ci.quantity * b.price), SUM(ci.quantity)) "
+            + "FROM CartItem ci LEFT JOIN ci.book b WHERE ci.shoppingCart.id = :cartId")
+    CartTotals sumTotalsByShoppingCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.repository.item.CartLine("
+            + "ci.id, ci.book.id, b.title, b.price, ci.quantity) "
+            + "FROM CartItem ci LEFT JOIN ci.book b WHERE ci.shoppingCart.id = :cartId")
+    List<CartLine> findAllLinesByShoppingCartId(@Param("cartId") Long cartId);
 }
@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.repository.item;
+
+import java.math.BigDecimal;
+
+public record CartLine(Long id, Long bookId, String title, BigDecimal price, int quantity) {
+}
@@ -0,0 +1,6 @@
+package ruslan.shastkiv.bookstore.repository.item;
+
+import java.math.BigDecimal;
+
+public record CartTotals(BigDecimal subtotal, Long itemCount) {
+}
@@ -0,0 +1,4 @@
+package ruslan.shastkiv.bookstore.repository.order;
+
+public record OrderItemLine(Long orderId, Long id, Long bookId, int quantity) {
+}
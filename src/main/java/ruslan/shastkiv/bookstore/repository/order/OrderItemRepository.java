@@ -1,13 +1,30 @@
 package ruslan.shastkiv.bookstore.repository.order;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
 import ruslan.shastkiv.bookstore.model.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    Page<OrderItem> findAllByOrderId(Long orderId, Pageable pageable);
+    @Query(value = "SELECT new ruslan.shastkiv.bookstore.dto.order.OrderItemDto("
+            + "oi.id, oi.book.id, oi.quantity) FROM OrderItem oi WHERE oi.order.id = :orderId",
+            countQuery = "SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order.id = :orderId")
+    Page<OrderItemDto> findAllByOrderId(@Param("orderId") Long orderId, Pageable pageable);
 
-    Optional<OrderItem> findByIdAndOrderId(Long cartItemId, Long orderId);
+    @Query("SELECT new ruslan.shastkiv.bookstore.dto.order.OrderItemDto("
+            + "oi.id, oi.book.id, oi.quantity) FROM OrderItem oi "
+            + "WHERE oi.id = :id AND oi.order.id = :orderId")
+    Optional<OrderItemDto> findByIdAndOrderId(@Param("id") Long id,
+                                              @Param("orderId") Long orderId);
+
+    @Query("SELECT new ruslan.shastkiv.bookstore.repository.order.OrderItemLine("
+            + "oi.order.id, oi.id, oi.book.id, oi.quantity) FROM OrderItem oi "
+            + "WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemLine> findAllByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
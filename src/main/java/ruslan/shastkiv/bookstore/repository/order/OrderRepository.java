@@ -1,11 +1,39 @@
 package ruslan.shastkiv.bookstore.repository.order;
 
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ruslan.shastkiv.bookstore.model.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Page<Order> findAllByUserId(Long userId, Pageable pageable);
+
+    Window<Order> findAllByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    List<Order> findByUserId(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    Optional<Order> findByIdAndUserId(Long id, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    Optional<Order> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Query("SELECT o.id FROM Order o "
+            + "WHERE o.status = :status AND o.idempotencyKey IS NOT NULL")
+    List<Long> findAcceptedOrderIds(@Param("status") Order.Status status);
 }
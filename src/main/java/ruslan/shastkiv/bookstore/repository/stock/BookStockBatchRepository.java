@@ -0,0 +1,11 @@
+package ruslan.shastkiv.bookstore.repository.stock;
+
+import java.util.Map;
+
+/*
+Adds the stock changes collected since the last flush in one JDBC batch. The changes are
+added to the stored quantities instead of overwriting them with the in-memory ones.
+ */
+public interface BookStockBatchRepository {
+    void addQuantities(Map<Long, BookStockChange> changesByBookId);
+}
@@ -0,0 +1,26 @@
+package ruslan.shastkiv.bookstore.repository.stock;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class BookStockBatchRepositoryImpl implements BookStockBatchRepository {
+    private static final String ADD_QUANTITY = "UPDATE book_stocks "
+            + "SET quantity = quantity + ?, allocated = allocated + ? WHERE book_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addQuantities(Map<Long, BookStockChange> changesByBookId) {
+        if (changesByBookId.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_QUANTITY, changesByBookId.entrySet(),
+                changesByBookId.size(), (statement, stock) -> {
+                    statement.setInt(1, stock.getValue().quantity());
+                    statement.setInt(2, stock.getValue().allocated());
+                    statement.setLong(3, stock.getKey());
+                });
+    }
+}
@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.repository.stock;
+
+/*
+Units added to the quantity left for sale and to the units allocated to instances.
+ */
+public record BookStockChange(int quantity, int allocated) {
+}
@@ -0,0 +1,16 @@
+package ruslan.shastkiv.bookstore.repository.stock;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ruslan.shastkiv.bookstore.model.BookStock;
+
+public interface BookStockRepository extends JpaRepository<BookStock, Long>,
+        BookStockBatchRepository {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookStock s WHERE s.bookId = :bookId")
+    Optional<BookStock> findByIdForUpdate(@Param("bookId") Long bookId);
+}
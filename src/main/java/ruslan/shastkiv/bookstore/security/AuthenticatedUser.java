@@ -0,0 +1,9 @@
+package ruslan.shastkiv.bookstore.security;
+
+/*
+Principal of an authenticated request: either the User loaded from the database
+or a TokenPrincipal built from the claims of a stateless token.
+ */
+public interface AuthenticatedUser {
+    Long getId();
+}
@@ -3,6 +3,7 @@ package ruslan.shastkiv.bookstore.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import ruslan.shastkiv.bookstore.dto.user.UserLoginRequestDto;
 import ruslan.shastkiv.bookstore.dto.user.UserLoginResponseDto;
@@ -14,10 +15,10 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
 
     public UserLoginResponseDto authenticate(UserLoginRequestDto requestDto) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(requestDto.email(), requestDto.password())
         );
-        String token = jwtUtil.generateToken(requestDto.email());
+        String token = jwtUtil.generateToken(authentication);
         return new UserLoginResponseDto(token);
     }
 }
@@ -5,11 +5,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,6 +27,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -31,17 +38,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities()
-            );
+        if (token != null) {
+            JwtClaims claims = jwtUtil.parse(token);
+            Authentication authentication = isTrustedClaims(claims)
+                    ? getAuthenticationFromClaims(claims)
+                    : getAuthenticationFromUser(claims);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
     }
 
+    private boolean isTrustedClaims(JwtClaims claims) {
+        return stateless
+                && claims.userId() != null
+                && !tokenRevocationList.isRevoked(claims.userId(), claims.issuedAt());
+    }
+
+    private Authentication getAuthenticationFromClaims(JwtClaims claims) {
+        List<SimpleGrantedAuthority> authorities = claims.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UsernamePasswordAuthenticationToken(
+                new TokenPrincipal(claims.userId(), claims.subject()), null, authorities
+        );
+    }
+
+    private Authentication getAuthenticationFromUser(JwtClaims claims) {
+        UserDetails userDetails = principalCache.get(claims.subject(), claims.issuedAt(),
+                userDetailsService::loadUserByUsername);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities()
+        );
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_AUTHORIZATION)) {
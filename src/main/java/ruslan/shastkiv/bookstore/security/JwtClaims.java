@@ -0,0 +1,14 @@
+package ruslan.shastkiv.bookstore.security;
+
+import java.util.Date;
+import java.util.List;
+
+public record JwtClaims(String subject,
+                        Long userId,
+                        Date issuedAt,
+                        Date expiration,
+                        List<String> roles) {
+    public JwtClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
@@ -1,59 +1,78 @@
 package ruslan.shastkiv.bookstore.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
+    private final Long expiration;
     private final SecretKey secret;
+    private final JwtParser parser;
 
-    public JwtUtil(@Value("${jwt.secret}") String secretString) {
+    public JwtUtil(@Value("${jwt.secret}") String secretString,
+                   @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
         secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(secret)
+                .build();
     }
 
-    public String generateToken(String username) {
-        return Jwts.builder()
-                .subject(username)
+    public String generateToken(Authentication authentication) {
+        JwtBuilder builder = Jwts.builder()
+                .subject(authentication.getName())
+                .claim(ROLES_CLAIM, authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(secret)
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            builder.claim(USER_ID_CLAIM, user.getId());
+        }
+        return builder.signWith(secret).compact();
     }
 
-    public boolean isValidToken(String token) {
+    /*
+    Verifies the signature and expiry once and returns everything the request needs,
+    so callers never parse the same token twice.
+     */
+    public JwtClaims parse(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secret)
-                    .build()
-                    .parseSignedClaims(token);
-            return !claimsJws.getPayload().getExpiration().before(new Date());
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return new JwtClaims(
+                    claims.getSubject(),
+                    claims.get(USER_ID_CLAIM, Long.class),
+                    claims.getIssuedAt(),
+                    claims.getExpiration(),
+                    getRoles(claims)
+            );
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException("Expired or invalid JWT token");
         }
     }
 
-    public String getUsername(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-
-    }
-
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
+    private List<String> getRoles(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(String::valueOf)
+                .toList();
     }
 }
@@ -0,0 +1,70 @@
+package ruslan.shastkiv.bookstore.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import ruslan.shastkiv.bookstore.model.User;
+
+/*
+Keeps the principals of recently seen tokens so an authenticated request doesn't
+reload the user and its roles on every call. Entries are keyed by token subject and
+issue time, expire no later than the token itself, and are dropped as soon as the user
+changes (see PrincipalCacheEvictionListener). Hit rate is exported as cache.* metrics.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+    public static final String CACHE_NAME = "principals";
+
+    private final Cache<PrincipalKey, UserDetails> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl,
+                          @Value("${jwt.expiration}") Long expiration) {
+        Duration tokenLifetime = Duration.ofMillis(expiration);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl.compareTo(tokenLifetime) < 0 ? ttl : tokenLifetime)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String username, Date issuedAt,
+                           Function<String, UserDetails> loader) {
+        return cache.get(new PrincipalKey(username, issuedAt.getTime()),
+                key -> loader.apply(key.username()));
+    }
+
+    public void evict(User user) {
+        cache.asMap().entrySet().removeIf(entry ->
+                entry.getKey().username().equals(user.getEmail())
+                        || entry.getValue() instanceof User cachedUser
+                        && cachedUser.getId() != null
+                        && cachedUser.getId().equals(user.getId()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    private record PrincipalKey(String username, long issuedAt) {
+    }
+}
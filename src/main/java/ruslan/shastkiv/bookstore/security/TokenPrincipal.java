@@ -0,0 +1,16 @@
+package ruslan.shastkiv.bookstore.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record TokenPrincipal(Long id, String email)
+        implements AuthenticatedUser, AuthenticatedPrincipal {
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
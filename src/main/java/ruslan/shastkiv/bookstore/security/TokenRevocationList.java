@@ -0,0 +1,34 @@
+package ruslan.shastkiv.bookstore.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Date;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+Users whose tokens can no longer be trusted on their claims alone: soft-deleted users
+and users whose roles changed. A token issued before the revocation is sent back to
+the database path. Entries outlive every token issued before them and are then dropped.
+The list is in-process, so each instance learns only of changes it wrote itself.
+ */
+@Component
+public class TokenRevocationList {
+    private final Cache<Long, Long> revokedAt;
+
+    public TokenRevocationList(@Value("${jwt.expiration}") Long expiration) {
+        revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expiration))
+                .build();
+    }
+
+    public void revoke(Long userId) {
+        revokedAt.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long revokedAtMillis = revokedAt.getIfPresent(userId);
+        return revokedAtMillis != null && issuedAt.getTime() <= revokedAtMillis;
+    }
+}
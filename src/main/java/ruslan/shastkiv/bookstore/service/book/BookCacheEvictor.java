@@ -0,0 +1,35 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import ruslan.shastkiv.bookstore.model.Book;
+
+/*
+Soft-deleting a category leaves its books_categories rows in place, so cached
+Book.categories collections would keep pointing at it. Dropping the collection region
+makes the next load go through @SQLRestriction again.
+Bulk imports write books with plain JDBC, so both the written books and their categories
+are dropped once their batch is committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCacheEvictor {
+    private static final String CATEGORIES_ROLE = Book.class.getName() + ".categories";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictCategories() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictCollectionData(CATEGORIES_ROLE);
+    }
+
+    public void evictBooks(Collection<Long> bookIds) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        for (Long bookId : bookIds) {
+            cache.evictEntityData(Book.class, bookId);
+            cache.evictCollectionData(CATEGORIES_ROLE, bookId);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.dto.category.CategoryDto;
+import ruslan.shastkiv.bookstore.mapper.CategoryMapper;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Category;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+
+/*
+In-process copy of the live catalog that answers the same author/title/price/category
+filters as BookSpecificationBuilder without a database round trip.
+String keys are compared case-insensitively to match the default MySQL collation.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCatalogIndex {
+    private static final int MIN_PRICE = 0;
+    private static final int MAX_PRICE = 1;
+
+    private static final int ONLY_MIN_PRICE = 1;
+    private static final int MIN_AND_MAX_PRICE = 2;
+
+    private final BookRepository bookRepository;
+    private final CategoryMapper categoryMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+    private final Map<Long, CategoryDto> categories = new HashMap<>();
+    private final Map<String, Set<Long>> booksByAuthor = new HashMap<>();
+    private final Map<String, Set<Long>> booksByTitle = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByCategory = new HashMap<>();
+    private final NavigableMap<Money, Set<Long>> booksByPrice = new TreeMap<>();
+
+    @Value("${catalog.index.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        List<Book> allBooks = bookRepository.findAllWithCategories();
+        lock.writeLock().lock();
+        try {
+            books.clear();
+            categories.clear();
+            booksByAuthor.clear();
+            booksByTitle.clear();
+            booksByCategory.clear();
+            booksByPrice.clear();
+            allBooks.forEach(this::indexBook);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Book book) {
+        putAll(List.of(book));
+    }
+
+    public void putAll(Collection<Book> changedBooks) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Book book : changedBooks) {
+                unindexBook(books.get(book.getId()));
+                indexBook(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindexBook(books.get(bookId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putCategory(CategoryDto categoryDto) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            categories.computeIfPresent(categoryDto.id(), (id, oldCategory) -> categoryDto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            categories.remove(categoryId);
+            Set<Long> bookIds = booksByCategory.remove(categoryId);
+            if (bookIds != null) {
+                bookIds.forEach(bookId -> books.computeIfPresent(bookId,
+                        (id, book) -> book.withoutCategory(categoryId)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<BookDto> search(BookSearchParametersDto searchParameters, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            List<IndexedBook> matches = findMatches(searchParameters)
+                    .sorted(toComparator(pageable.getSort()))
+                    .toList();
+            List<BookDto> content = slice(matches, pageable).stream()
+                    .map(this::toDto)
+                    .toList();
+            return new PageImpl<>(content, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Stream<IndexedBook> findMatches(BookSearchParametersDto searchParameters) {
+        Set<Long> candidates = null;
+        if (isPresent(searchParameters.authors())) {
+            candidates = retain(candidates, union(booksByAuthor,
+                    Arrays.stream(searchParameters.authors()).map(this::normalize)));
+        }
+        if (isPresent(searchParameters.titles())) {
+            candidates = retain(candidates, union(booksByTitle,
+                    Arrays.stream(searchParameters.titles()).map(this::normalize)));
+        }
+        if (isPresent(searchParameters.prices())) {
+            candidates = retain(candidates, findByPrice(searchParameters.prices()));
+        }
+        if (isPresent(searchParameters.categories())) {
+            candidates = retain(candidates, union(booksByCategory,
+                    Arrays.stream(searchParameters.categories()).map(Long::valueOf)));
+        }
+        return candidates == null
+                ? books.values().stream()
+                : candidates.stream().map(books::get);
+    }
+
+    private Set<Long> findByPrice(String[] prices) {
+        NavigableMap<Money, Set<Long>> range;
+        if (prices.length == ONLY_MIN_PRICE) {
+            range = booksByPrice.tailMap(Money.lowerBound(prices[MIN_PRICE]), true);
+        } else if (prices.length == MIN_AND_MAX_PRICE) {
+            Money minPrice = Money.lowerBound(prices[MIN_PRICE]);
+            Money maxPrice = Money.upperBound(prices[MAX_PRICE]);
+            range = minPrice.compareTo(maxPrice) > 0
+                    ? Collections.emptyNavigableMap()
+                    : booksByPrice.subMap(minPrice, true, maxPrice, true);
+        } else {
+            throw new IllegalArgumentException(
+                    "Expected 1 or 2 parameters for price filtering, but got: "
+                    + prices.length
+            );
+        }
+        return range.values().stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private void indexBook(Book book) {
+        Set<Long> categoryIds = new HashSet<>();
+        for (Category category : book.getCategories()) {
+            categoryIds.add(category.getId());
+            categories.put(category.getId(), categoryMapper.toDto(category));
+            index(booksByCategory, category.getId(), book.getId());
+        }
+        IndexedBook indexedBook = new IndexedBook(book.getId(), book.getTitle(),
+                book.getAuthor(), book.getIsbn(), book.getPrice(), book.getDescription(),
+                book.getCoverImage(), Set.copyOf(categoryIds));
+        books.put(indexedBook.id(), indexedBook);
+        index(booksByAuthor, normalize(indexedBook.author()), indexedBook.id());
+        index(booksByTitle, normalize(indexedBook.title()), indexedBook.id());
+        index(booksByPrice, Money.of(indexedBook.price()), indexedBook.id());
+    }
+
+    private void unindexBook(IndexedBook book) {
+        if (book == null) {
+            return;
+        }
+        books.remove(book.id());
+        unindex(booksByAuthor, normalize(book.author()), book.id());
+        unindex(booksByTitle, normalize(book.title()), book.id());
+        unindex(booksByPrice, Money.of(book.price()), book.id());
+        book.categoryIds().forEach(categoryId
+                -> unindex(booksByCategory, categoryId, book.id()));
+    }
+
+    private BookDto toDto(IndexedBook book) {
+        BookDto bookDto = new BookDto();
+        bookDto.setId(book.id());
+        bookDto.setTitle(book.title());
+        bookDto.setAuthor(book.author());
+        bookDto.setIsbn(book.isbn());
+        bookDto.setPrice(book.price());
+        bookDto.setDescription(book.description());
+        bookDto.setCoverImage(book.coverImage());
+        bookDto.setCategories(book.categoryIds().stream()
+                .map(categories::get)
+                .collect(Collectors.toSet()));
+        return bookDto;
+    }
+
+    private Comparator<IndexedBook> toComparator(Sort sort) {
+        Comparator<IndexedBook> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedBook> byProperty = toComparator(order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending()
+                    ? byProperty
+                    : byProperty.reversed());
+        }
+        return comparator.thenComparing(IndexedBook::id);
+    }
+
+    private Comparator<IndexedBook> toComparator(String property) {
+        return switch (property) {
+            case "id" -> Comparator.comparing(IndexedBook::id);
+            case "title" -> byText(IndexedBook::title);
+            case "author" -> byText(IndexedBook::author);
+            case "isbn" -> byText(IndexedBook::isbn);
+            case "description" -> byText(IndexedBook::description);
+            case "coverImage" -> byText(IndexedBook::coverImage);
+            case "price" -> Comparator.comparing(IndexedBook::price);
+            default -> throw new IllegalArgumentException(
+                    "Can`t sort catalog index by property: " + property);
+        };
+    }
+
+    private Comparator<IndexedBook> byText(Function<IndexedBook, String> property) {
+        return Comparator.comparing(property,
+                Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    private <T> List<T> slice(List<T> items, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return items;
+        }
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return items.subList(from, to);
+    }
+
+    private <K> Set<Long> union(Map<K, Set<Long>> index, Stream<K> keys) {
+        return keys.map(index::get)
+                .filter(ids -> ids != null)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Long> retain(Set<Long> candidates, Set<Long> matches) {
+        if (candidates == null) {
+            return matches;
+        }
+        candidates.retainAll(matches);
+        return candidates;
+    }
+
+    private <K> void index(Map<K, Set<Long>> index, K key, Long bookId) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(bookId);
+    }
+
+    private <K> void unindex(Map<K, Set<Long>> index, K key, Long bookId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(bookId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private boolean isPresent(String[] params) {
+        return params != null && params.length > 0;
+    }
+
+    private String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedBook(Long id,
+                               String title,
+                               String author,
+                               String isbn,
+                               BigDecimal price,
+                               String description,
+                               String coverImage,
+                               Set<Long> categoryIds) {
+        private IndexedBook withoutCategory(Long categoryId) {
+            return new IndexedBook(id, title, author, isbn, price, description, coverImage,
+                    categoryIds.stream()
+                            .filter(existingId -> !existingId.equals(categoryId))
+                            .collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+}
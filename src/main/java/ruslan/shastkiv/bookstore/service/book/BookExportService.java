@@ -0,0 +1,7 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import java.io.OutputStream;
+
+public interface BookExportService {
+    void exportJsonLines(OutputStream jsonLines);
+}
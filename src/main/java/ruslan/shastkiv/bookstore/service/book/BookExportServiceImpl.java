@@ -0,0 +1,39 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ruslan.shastkiv.bookstore.dto.book.BookExportDto;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+
+/*
+Writes each book as soon as the database hands it over; the response buffer decides
+when bytes go out, so the first line leaves after a few rows whatever the catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookExportServiceImpl implements BookExportService {
+    private static final int LINE_SEPARATOR = '\n';
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportJsonLines(OutputStream jsonLines) {
+        ObjectWriter lineWriter = objectMapper.writerFor(BookExportDto.class);
+        bookRepository.forEachWithCategoryIds(book -> writeLine(jsonLines, lineWriter, book));
+    }
+
+    private void writeLine(OutputStream jsonLines, ObjectWriter lineWriter, BookExportDto book) {
+        try {
+            jsonLines.write(lineWriter.writeValueAsBytes(book));
+            jsonLines.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t export book by id: [" + book.id() + "]", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import java.io.InputStream;
+import ruslan.shastkiv.bookstore.dto.book.BookImportReportDto;
+
+public interface BookImportService {
+    BookImportReportDto importCsv(InputStream csv);
+
+    BookImportReportDto importJsonLines(InputStream jsonLines);
+}
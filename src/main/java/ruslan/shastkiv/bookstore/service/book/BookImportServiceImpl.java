@@ -0,0 +1,230 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.book.BookImportErrorDto;
+import ruslan.shastkiv.bookstore.dto.book.BookImportReportDto;
+import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
+import ruslan.shastkiv.bookstore.mapper.BookMapper;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Category;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
+import ruslan.shastkiv.bookstore.repository.category.CategoryRepository;
+import ruslan.shastkiv.bookstore.service.cart.CartWriteBehindStore;
+
+/*
+Reads the import body row by row and never holds more than one batch of books.
+Valid rows are upserted by ISBN in JDBC batches, each batch in its own transaction;
+when a batch is refused by the database its rows are retried one by one,
+so a single bad row is reported instead of failing its neighbours.
+An ISBN of a deleted book brings it back. The cached books and the catalog indexes are
+updated with the books of each committed batch, so a failed read leaves none of them stale.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+    private static final String CATEGORY_IDS_SEPARATOR = ";";
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(CreateBookRequestDto.class)
+            .with(CsvSchema.builder()
+                    .addColumn("title")
+                    .addColumn("author")
+                    .addColumn("isbn")
+                    .addColumn("price")
+                    .addColumn("description")
+                    .addColumn("coverImage")
+                    .addArrayColumn("categoryIds", CATEGORY_IDS_SEPARATOR)
+                    .build()
+                    .withHeader()
+                    .withColumnReordering(true))
+            .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartWriteBehindStore cartStore;
+    private final BookMapper bookMapper;
+    private final BookCacheEvictor bookCacheEvictor;
+    private final BookCatalogIndex bookCatalogIndex;
+    private final CategoryBookIndex categoryBookIndex;
+    private final BookTextIndex bookTextIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${book.import.batch-size:1000}")
+    private int batchSize;
+    @Value("${book.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Override
+    public BookImportReportDto importCsv(InputStream csv) {
+        BookImport bookImport = new BookImport();
+        try (MappingIterator<CreateBookRequestDto> rows = CSV_READER.readValues(reader(csv))) {
+            long row = 0;
+            while (rows.hasNextValue()) {
+                row++;
+                try {
+                    bookImport.add(row, rows.nextValue());
+                } catch (JsonProcessingException e) {
+                    bookImport.reject(row, null, e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t read books to import", e);
+        }
+        return bookImport.finish();
+    }
+
+    @Override
+    public BookImportReportDto importJsonLines(InputStream jsonLines) {
+        BookImport bookImport = new BookImport();
+        ObjectReader lineReader = objectMapper.readerFor(CreateBookRequestDto.class);
+        try (BufferedReader lines = new BufferedReader(reader(jsonLines))) {
+            long row = 0;
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    bookImport.add(row, lineReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    bookImport.reject(row, null, e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t read books to import", e);
+        }
+        return bookImport.finish();
+    }
+
+    private Reader reader(InputStream inputStream) {
+        return new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+    }
+
+    private record PendingBook(long row, Book book) {
+    }
+
+    private class BookImport {
+        private final Map<Long, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        private final Map<String, PendingBook> batch = new LinkedHashMap<>();
+        private final List<BookImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void add(long row, CreateBookRequestDto requestDto) {
+            Optional<String> error = validate(requestDto);
+            if (error.isPresent()) {
+                reject(row, requestDto.getIsbn(), error.get());
+                return;
+            }
+            Book book = bookMapper.toModel(requestDto);
+            book.setCategories(requestDto.getCategoryIds().stream()
+                    .map(categories::get)
+                    .collect(Collectors.toSet()));
+            if (batch.put(book.getIsbn(), new PendingBook(row, book)) != null) {
+                imported++;
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String isbn, String error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BookImportErrorDto(row, isbn, error));
+            }
+        }
+
+        BookImportReportDto finish() {
+            flush();
+            return new BookImportReportDto(imported, rejected, List.copyOf(errors));
+        }
+
+        private Optional<String> validate(CreateBookRequestDto requestDto) {
+            Set<ConstraintViolation<CreateBookRequestDto>> violations =
+                    validator.validate(requestDto);
+            if (!violations.isEmpty()) {
+                return Optional.of(violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": "
+                                + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            return requestDto.getCategoryIds().stream()
+                    .filter(categoryId -> !categories.containsKey(categoryId))
+                    .findFirst()
+                    .map(categoryId -> "Can`t find category by id: [" + categoryId + "]");
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingBook> pendingBooks = List.copyOf(batch.values());
+            batch.clear();
+            try {
+                upsert(pendingBooks);
+                imported += pendingBooks.size();
+            } catch (DataAccessException e) {
+                pendingBooks.forEach(this::upsertOne);
+            }
+        }
+
+        private void upsertOne(PendingBook pendingBook) {
+            try {
+                upsert(List.of(pendingBook));
+                imported++;
+            } catch (DataAccessException e) {
+                reject(pendingBook.row(), pendingBook.book().getIsbn(),
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        private void upsert(List<PendingBook> pendingBooks) {
+            List<Book> books = pendingBooks.stream().map(PendingBook::book).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepository.upsertAllByIsbn(books);
+                shoppingCartRepository.markUnpricedByBookIsbnIn(
+                        books.stream().map(Book::getIsbn).toList());
+            });
+            List<Long> bookIds = books.stream().map(Book::getId).toList();
+            bookCacheEvictor.evictBooks(bookIds);
+            cartStore.releaseCartsWithBooks(bookIds);
+            bookCatalogIndex.putAll(books);
+            categoryBookIndex.putAll(books);
+            bookTextIndex.putAll(books);
+        }
+    }
+}
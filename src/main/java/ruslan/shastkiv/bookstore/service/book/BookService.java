@@ -2,10 +2,13 @@ package ruslan.shastkiv.bookstore.service.book;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
 import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.model.Book;
 
 public interface BookService {
@@ -13,6 +16,8 @@ public interface BookService {
 
     Page<BookDto> getAll(Pageable pageable);
 
+    CursorPageDto<BookDto> getAll(CursorRequestDto cursorRequest, Sort sort);
+
     BookDto getBookById(Long id);
 
     BookDto updateBook(Long id, CreateBookRequestDto bookDto);
@@ -21,7 +26,13 @@ public interface BookService {
 
     Page<BookDto> search(BookSearchParametersDto searchParametersDto, Pageable pageable);
 
+    CursorPageDto<BookDto> search(BookSearchParametersDto searchParametersDto,
+                                  CursorRequestDto cursorRequest, Sort sort);
+
     Page<BookDtoWithoutCategoryIds> getAllBooksByCategoryId(Long id, Pageable pageable);
 
+    CursorPageDto<BookDtoWithoutCategoryIds> getAllBooksByCategoryId(
+            Long id, CursorRequestDto cursorRequest, Sort sort);
+
     Book findBookById(Long id);
 }
@@ -1,47 +1,84 @@
 package ruslan.shastkiv.bookstore.service.book;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
 import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.exception.InvalidCursorException;
+import ruslan.shastkiv.bookstore.exception.TextSearchDisabledException;
 import ruslan.shastkiv.bookstore.mapper.BookMapper;
 import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.model.Category;
 import ruslan.shastkiv.bookstore.repository.book.BookRepository;
 import ruslan.shastkiv.bookstore.repository.book.BookSpecificationBuilder;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
 import ruslan.shastkiv.bookstore.repository.category.CategoryRepository;
+import ruslan.shastkiv.bookstore.service.cart.CartWriteBehindStore;
+import ruslan.shastkiv.bookstore.service.cursor.CursorCodec;
 
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
+    private static final Set<String> CURSOR_SORT_PROPERTIES =
+            Set.of("id", "title", "author", "isbn", "price");
+
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartWriteBehindStore cartStore;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
+    private final BookCatalogIndex bookCatalogIndex;
+    private final CategoryBookIndex categoryBookIndex;
+    private final BookTextIndex bookTextIndex;
+    private final CursorCodec cursorCodec;
 
     @Override
     public BookDto createBook(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
         book.setCategories(initCategories(requestDto.getCategoryIds()));
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        bookCatalogIndex.put(savedBook);
+        categoryBookIndex.put(savedBook);
+        bookTextIndex.put(savedBook);
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookDto> getAll(Pageable pageable) {
-        return bookRepository.findAllWithCategories(pageable)
-                .map(bookMapper::toDto);
+        return findBooksByIds(bookRepository.findAllIds(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookDto> getAll(CursorRequestDto cursorRequest, Sort sort) {
+        return scrollBooks(Specification.where(null), cursorRequest, sort);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookDto getBookById(Long id) {
         Book book = findBookById(id);
         return bookMapper.toDto(book);
@@ -50,25 +87,78 @@ public class BookServiceImpl implements BookService {
     @Override
     public BookDto updateBook(Long id, CreateBookRequestDto requestDto) {
         Book book = findBookById(id);
+        BigDecimal oldPrice = book.getPrice();
         bookMapper.updateBookFromDto(requestDto, book);
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        if (oldPrice.compareTo(book.getPrice()) != 0) {
+            cartStore.releaseCartsWithBooks(List.of(id));
+            shoppingCartRepository.markUnpricedByBookId(id);
+        }
+        bookCatalogIndex.put(savedBook);
+        categoryBookIndex.put(savedBook);
+        bookTextIndex.put(savedBook);
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
     public void deleteBook(Long id) {
         bookRepository.deleteById(id);
+        cartStore.releaseCartsWithBooks(List.of(id));
+        shoppingCartRepository.markUnpricedByBookId(id);
+        bookCatalogIndex.remove(id);
+        categoryBookIndex.remove(id);
+        bookTextIndex.remove(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookDto> search(BookSearchParametersDto searchParametersDto, Pageable pageable) {
-        return bookRepository.findAll(bookSpecificationBuilder.build(searchParametersDto), pageable)
-                .map(bookMapper::toDto);
+        if (StringUtils.hasText(searchParametersDto.query())) {
+            if (!bookTextIndex.isEnabled()) {
+                throw new TextSearchDisabledException(
+                        "Text search is disabled, search by title, author, price or category");
+            }
+            return findBooksByIds(bookTextIndex.search(searchParametersDto, pageable));
+        }
+        if (bookCatalogIndex.isEnabled()) {
+            return bookCatalogIndex.search(searchParametersDto, pageable);
+        }
+        return findBooksByIds(bookRepository.findIds(
+                bookSpecificationBuilder.build(searchParametersDto), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookDto> search(BookSearchParametersDto searchParametersDto,
+                                         CursorRequestDto cursorRequest, Sort sort) {
+        if (StringUtils.hasText(searchParametersDto.query())) {
+            throw new InvalidCursorException(
+                    "Text search results are ranked by relevance and can`t be paged by cursor");
+        }
+        return scrollBooks(bookSpecificationBuilder.build(searchParametersDto),
+                cursorRequest, sort);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookDtoWithoutCategoryIds> getAllBooksByCategoryId(Long id, Pageable pageable) {
-        return bookRepository.findBooksByCategoryId(id, pageable)
-                .map(bookMapper::toDtoWithoutCategoryIds);
+        if (categoryBookIndex.supports(pageable)) {
+            return findBooksWithoutCategoryIdsByIds(categoryBookIndex.findBookIds(id, pageable));
+        }
+        return bookRepository.findBooksByCategoryId(id, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookDtoWithoutCategoryIds> getAllBooksByCategoryId(
+            Long id, CursorRequestDto cursorRequest, Sort sort) {
+        Sort keysetSort = cursorCodec.toKeysetSort(sort, CURSOR_SORT_PROPERTIES);
+        Window<Book> books = bookRepository.findByCategoriesId(id,
+                cursorCodec.toPosition(cursorRequest, Book.class, keysetSort),
+                keysetSort, cursorCodec.toLimit(cursorRequest));
+        return cursorCodec.toCursorPage(books, books.stream()
+                .map(bookMapper::toDtoWithoutCategoryIds)
+                .toList());
     }
 
     @Override
@@ -77,6 +167,49 @@ public class BookServiceImpl implements BookService {
                 -> new EntityNotFoundException("Can t find book by id: [" + id + "]"));
     }
 
+    private CursorPageDto<BookDto> scrollBooks(Specification<Book> specification,
+                                               CursorRequestDto cursorRequest, Sort sort) {
+        Sort keysetSort = cursorCodec.toKeysetSort(sort, CURSOR_SORT_PROPERTIES);
+        Window<Book> books = bookRepository.findBy(specification, query -> query
+                .sortBy(keysetSort)
+                .limit(cursorCodec.toLimit(cursorRequest).max())
+                .scroll(cursorCodec.toPosition(cursorRequest, Book.class, keysetSort)));
+        return cursorCodec.toCursorPage(books, findBookDtosByIds(books.stream()
+                .map(Book::getId)
+                .toList()));
+    }
+
+    private Page<BookDto> findBooksByIds(Page<Long> bookIds) {
+        return new PageImpl<>(findBookDtosByIds(bookIds.getContent()),
+                bookIds.getPageable(), bookIds.getTotalElements());
+    }
+
+    private List<BookDto> findBookDtosByIds(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> booksById = bookRepository.findAllWithCategoriesByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return bookIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDto)
+                .toList();
+    }
+
+    private Page<BookDtoWithoutCategoryIds> findBooksWithoutCategoryIdsByIds(Page<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return new PageImpl<>(List.of(), bookIds.getPageable(), bookIds.getTotalElements());
+        }
+        Map<Long, BookDtoWithoutCategoryIds> booksById = bookRepository
+                .findAllWithoutCategoryIdsByIdIn(bookIds.getContent()).stream()
+                .collect(Collectors.toMap(BookDtoWithoutCategoryIds::id, Function.identity()));
+        return new PageImpl<>(bookIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList(), bookIds.getPageable(), bookIds.getTotalElements());
+    }
+
     private Set<Category> initCategories(Set<Long> categoryIds) {
         List<Category> categoriesByIds = categoryRepository.findAllById(categoryIds);
 
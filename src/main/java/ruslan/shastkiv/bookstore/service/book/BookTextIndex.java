@@ -0,0 +1,430 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Category;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+
+/*
+Inverted index over title, author and description used by the text mode of /books/search.
+Every query token must match one of the fields either exactly or as a prefix;
+exact matches and title/author hits rank higher. The index lives in memory unless
+catalog.text-index.path points to a directory on local disk; it is off unless
+catalog.text-index.enabled is set.
+Writes are searchable as soon as the searcher is refreshed; they are committed to the
+directory every catalog.text-index.commit-interval and on shutdown. Only the shutdown
+commit marks the index clean, so an index left by a crash is rebuilt on the next start.
+ */
+@Component
+public class BookTextIndex {
+    private static final String ID_FIELD = "id";
+    private static final String TITLE_FIELD = "title";
+    private static final String AUTHOR_FIELD = "author";
+    private static final String DESCRIPTION_FIELD = "description";
+    private static final String TITLE_KEY_FIELD = "title_key";
+    private static final String AUTHOR_KEY_FIELD = "author_key";
+    private static final String PRICE_FIELD = "price";
+    private static final String CATEGORY_FIELD = "category";
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float AUTHOR_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final float PREFIX_BOOST = 0.5f;
+
+    private static final int MIN_PRICE = 0;
+    private static final int MAX_PRICE = 1;
+
+    private static final int ONLY_MIN_PRICE = 1;
+    private static final int MIN_AND_MAX_PRICE = 2;
+
+    private static final long BEFORE_FIRST_BOOK_ID = 0L;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final String CLEAN_SHUTDOWN_KEY = "clean_shutdown";
+
+    private final BookRepository bookRepository;
+    private final boolean enabled;
+    private final boolean rebuildOnStartup;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    public BookTextIndex(BookRepository bookRepository,
+                         @Value("${catalog.text-index.enabled:false}") boolean enabled,
+                         @Value("${catalog.text-index.path:}") String path,
+                         @Value("${catalog.text-index.rebuild-on-startup:false}")
+                         boolean rebuildOnStartup) throws IOException {
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+        if (!enabled) {
+            this.rebuildOnStartup = false;
+            this.directory = null;
+            this.indexWriter = null;
+            this.searcherManager = null;
+            return;
+        }
+        this.directory = path.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(path));
+        this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.rebuildOnStartup = rebuildOnStartup || path.isBlank() || !isShutDownCleanly();
+        markShutdown(false);
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled && (rebuildOnStartup || indexWriter.getDocStats().numDocs == 0)) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            indexWriter.deleteAll();
+            List<Long> ids = bookRepository.findIdsAfter(BEFORE_FIRST_BOOK_ID,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE));
+            while (!ids.isEmpty()) {
+                for (Book book : bookRepository.findAllWithCategoriesByIdIn(ids)) {
+                    indexWriter.updateDocument(idTerm(book.getId()), toDocument(book));
+                }
+                ids = bookRepository.findIdsAfter(ids.get(ids.size() - 1),
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+            }
+            commit();
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t rebuild book text index", e);
+        }
+    }
+
+    public void put(Book book) {
+        putAll(List.of(book));
+    }
+
+    public void putAll(Collection<Book> books) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (Book book : books) {
+                indexWriter.updateDocument(idTerm(book.getId()), toDocument(book));
+            }
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t index books by ids: " + books.stream()
+                    .map(Book::getId)
+                    .toList(), e);
+        }
+    }
+
+    public void remove(Long bookId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            indexWriter.deleteDocuments(idTerm(bookId));
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t remove book by id: [" + bookId + "]", e);
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        if (!enabled) {
+            return;
+        }
+        Query byCategory = new TermQuery(new Term(CATEGORY_FIELD, String.valueOf(categoryId)));
+        try {
+            List<Long> bookIds = findIds(byCategory);
+            if (bookIds.isEmpty()) {
+                return;
+            }
+            for (Book book : bookRepository.findAllWithCategoriesByIdIn(bookIds)) {
+                indexWriter.updateDocument(idTerm(book.getId()), toDocument(book));
+            }
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Can`t reindex books of category by id: [" + categoryId + "]", e);
+        }
+    }
+
+    public Page<Long> search(BookSearchParametersDto searchParameters, Pageable pageable) {
+        Query query = buildQuery(searchParameters);
+        IndexSearcher searcher = acquire();
+        try {
+            int total = searcher.count(query);
+            if (total == 0) {
+                return Page.empty(pageable);
+            }
+            int limit = pageable.isUnpaged()
+                    ? total
+                    : (int) Math.min(pageable.getOffset() + pageable.getPageSize(), total);
+            List<Long> ids = new ArrayList<>();
+            TopDocs topDocs = searcher.search(query, Math.max(limit, 1));
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            int offset = pageable.isUnpaged() ? 0 : (int) pageable.getOffset();
+            for (int i = offset; i < scoreDocs.length; i++) {
+                ids.add(Long.valueOf(storedFields.document(scoreDocs[i].doc).get(ID_FIELD)));
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t search book text index", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.text-index.commit-interval:PT1M}")
+    public void commit() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t commit book text index", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        markShutdown(true);
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private List<Long> findIds(Query query) throws IOException {
+        IndexSearcher searcher = acquire();
+        try {
+            List<Long> ids = new ArrayList<>();
+            int total = searcher.count(query);
+            if (total == 0) {
+                return ids;
+            }
+            StoredFields storedFields = searcher.storedFields();
+            for (ScoreDoc scoreDoc : searcher.search(query, total).scoreDocs) {
+                ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID_FIELD)));
+            }
+            return ids;
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private Query buildQuery(BookSearchParametersDto searchParameters) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String token : analyze(searchParameters.query())) {
+            builder.add(matchToken(token), BooleanClause.Occur.MUST);
+        }
+        if (isPresent(searchParameters.authors())) {
+            builder.add(anyOf(AUTHOR_KEY_FIELD, searchParameters.authors()),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (isPresent(searchParameters.titles())) {
+            builder.add(anyOf(TITLE_KEY_FIELD, searchParameters.titles()),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (isPresent(searchParameters.prices())) {
+            builder.add(priceRange(searchParameters.prices()), BooleanClause.Occur.FILTER);
+        }
+        if (isPresent(searchParameters.categories())) {
+            builder.add(anyOf(CATEGORY_FIELD, searchParameters.categories()),
+                    BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Query matchToken(String token) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        addFieldMatch(builder, TITLE_FIELD, token, TITLE_BOOST);
+        addFieldMatch(builder, AUTHOR_FIELD, token, AUTHOR_BOOST);
+        addFieldMatch(builder, DESCRIPTION_FIELD, token, DESCRIPTION_BOOST);
+        return builder.build();
+    }
+
+    private void addFieldMatch(BooleanQuery.Builder builder, String field,
+                               String token, float boost) {
+        Term term = new Term(field, token);
+        builder.add(new BoostQuery(new TermQuery(term), boost), BooleanClause.Occur.SHOULD);
+        builder.add(new BoostQuery(new PrefixQuery(term), boost * PREFIX_BOOST),
+                BooleanClause.Occur.SHOULD);
+    }
+
+    private Query anyOf(String field, String[] values) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String value : values) {
+            builder.add(new TermQuery(new Term(field, normalize(value))),
+                    BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    private Query priceRange(String[] prices) {
+        if (prices.length == ONLY_MIN_PRICE) {
+            return DoublePoint.newRangeQuery(PRICE_FIELD,
+                    Double.parseDouble(prices[MIN_PRICE]), Double.POSITIVE_INFINITY);
+        } else if (prices.length == MIN_AND_MAX_PRICE) {
+            return DoublePoint.newRangeQuery(PRICE_FIELD,
+                    Double.parseDouble(prices[MIN_PRICE]), Double.parseDouble(prices[MAX_PRICE]));
+        } else {
+            throw new IllegalArgumentException(
+                    "Expected 1 or 2 parameters for price filtering, but got: "
+                    + prices.length
+            );
+        }
+    }
+
+    private Document toDocument(Book book) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, String.valueOf(book.getId()), Field.Store.YES));
+        document.add(new TextField(TITLE_FIELD, book.getTitle(), Field.Store.NO));
+        document.add(new TextField(AUTHOR_FIELD, book.getAuthor(), Field.Store.NO));
+        if (book.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION_FIELD, book.getDescription(), Field.Store.NO));
+        }
+        document.add(new StringField(TITLE_KEY_FIELD, normalize(book.getTitle()), Field.Store.NO));
+        document.add(new StringField(AUTHOR_KEY_FIELD, normalize(book.getAuthor()),
+                Field.Store.NO));
+        document.add(new DoublePoint(PRICE_FIELD, toDouble(book.getPrice())));
+        for (Category category : book.getCategories()) {
+            document.add(new StringField(CATEGORY_FIELD, String.valueOf(category.getId()),
+                    Field.Store.NO));
+        }
+        return document;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        try (TokenStream tokenStream = analyzer.tokenStream(TITLE_FIELD, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t analyze search query: [" + text + "]", e);
+        }
+        return tokens;
+    }
+
+    private boolean isShutDownCleanly() {
+        Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData == null) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (entry.getKey().equals(CLEAN_SHUTDOWN_KEY)) {
+                return Boolean.parseBoolean(entry.getValue());
+            }
+        }
+        return false;
+    }
+
+    private void markShutdown(boolean clean) throws IOException {
+        indexWriter.setLiveCommitData(
+                Map.of(CLEAN_SHUTDOWN_KEY, String.valueOf(clean)).entrySet());
+        indexWriter.commit();
+    }
+
+    private void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t acquire book text index searcher", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t release book text index searcher", e);
+        }
+    }
+
+    private Term idTerm(Long bookId) {
+        return new Term(ID_FIELD, String.valueOf(bookId));
+    }
+
+    private double toDouble(BigDecimal price) {
+        return price == null ? 0 : price.doubleValue();
+    }
+
+    private boolean isPresent(String[] params) {
+        return params != null && params.length > 0;
+    }
+
+    private String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
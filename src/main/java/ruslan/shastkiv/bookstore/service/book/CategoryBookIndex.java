@@ -0,0 +1,216 @@
+package ruslan.shastkiv.bookstore.service.book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Category;
+import ruslan.shastkiv.bookstore.repository.book.BookCategoryLink;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+
+/*
+In-process list of live book ids per category, kept sorted by id, so a category page
+is a slice of an array and its total is the array length.
+Only ids are held; the books of a page are loaded by id afterwards.
+Pages sorted by anything other than id are left to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryBookIndex {
+    private static final long[] NO_BOOKS = new long[0];
+    private static final String ID_PROPERTY = "id";
+
+    private final BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, long[]> booksByCategory = new HashMap<>();
+    private final Map<Long, Set<Long>> categoriesByBook = new HashMap<>();
+
+    @Value("${catalog.category-index.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean supports(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return enabled && (sort.isUnsorted() || sort.stream()
+                .allMatch(order -> order.getProperty().equals(ID_PROPERTY)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        List<BookCategoryLink> links = bookRepository.findAllCategoryLinks();
+        Map<Long, List<Long>> bookIdsByCategory = links.stream()
+                .collect(Collectors.groupingBy(BookCategoryLink::categoryId,
+                        Collectors.mapping(BookCategoryLink::bookId, Collectors.toList())));
+        lock.writeLock().lock();
+        try {
+            booksByCategory.clear();
+            categoriesByBook.clear();
+            bookIdsByCategory.forEach((categoryId, bookIds) -> booksByCategory.put(categoryId,
+                    bookIds.stream().mapToLong(Long::longValue).sorted().toArray()));
+            links.forEach(link -> categoriesByBook
+                    .computeIfAbsent(link.bookId(), bookId -> new HashSet<>())
+                    .add(link.categoryId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Book book) {
+        putAll(List.of(book));
+    }
+
+    /*
+    Every category the books leave or join is rewritten once for the whole batch,
+    not once per book.
+     */
+    public void putAll(Collection<Book> books) {
+        if (!enabled || books.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<Long>> categoryIdsByBook = new HashMap<>();
+        books.forEach(book -> categoryIdsByBook.put(book.getId(), book.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toUnmodifiableSet())));
+        lock.writeLock().lock();
+        try {
+            Map<Long, List<Long>> addedBooksByCategory = new HashMap<>();
+            Set<Long> changedCategoryIds = new HashSet<>();
+            categoryIdsByBook.forEach((bookId, categoryIds) -> {
+                Set<Long> oldCategoryIds = categoryIds.isEmpty()
+                        ? categoriesByBook.remove(bookId)
+                        : categoriesByBook.put(bookId, categoryIds);
+                if (oldCategoryIds != null) {
+                    changedCategoryIds.addAll(oldCategoryIds);
+                }
+                categoryIds.forEach(categoryId -> addedBooksByCategory
+                        .computeIfAbsent(categoryId, id -> new ArrayList<>())
+                        .add(bookId));
+            });
+            changedCategoryIds.addAll(addedBooksByCategory.keySet());
+            changedCategoryIds.forEach(categoryId -> {
+                long[] bookIds = LongStream.concat(
+                        Arrays.stream(booksByCategory.getOrDefault(categoryId, NO_BOOKS))
+                                .filter(bookId -> !categoryIdsByBook.containsKey(bookId)),
+                        addedBooksByCategory.getOrDefault(categoryId, List.of()).stream()
+                                .mapToLong(Long::longValue))
+                        .sorted()
+                        .toArray();
+                if (bookIds.length == 0) {
+                    booksByCategory.remove(categoryId);
+                } else {
+                    booksByCategory.put(categoryId, bookIds);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unindexBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long[] bookIds = booksByCategory.remove(categoryId);
+            if (bookIds != null) {
+                Arrays.stream(bookIds).forEach(bookId -> categoriesByBook.computeIfPresent(
+                        bookId, (id, categoryIds) -> without(categoryIds, categoryId)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<Long> findBookIds(Long categoryId, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            long[] bookIds = booksByCategory.getOrDefault(categoryId, NO_BOOKS);
+            Sort.Order idOrder = pageable.getSort().getOrderFor(ID_PROPERTY);
+            boolean descending = idOrder != null && idOrder.isDescending();
+            int from = pageable.isPaged()
+                    ? (int) Math.min(pageable.getOffset(), bookIds.length)
+                    : 0;
+            int to = pageable.isPaged()
+                    ? Math.min(from + pageable.getPageSize(), bookIds.length)
+                    : bookIds.length;
+            List<Long> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(descending ? bookIds[bookIds.length - 1 - i] : bookIds[i]);
+            }
+            return new PageImpl<>(content, pageable, bookIds.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unindexBook(Long bookId) {
+        Set<Long> categoryIds = categoriesByBook.remove(bookId);
+        if (categoryIds == null) {
+            return;
+        }
+        categoryIds.forEach(categoryId -> booksByCategory.computeIfPresent(categoryId,
+                (id, bookIds) -> {
+                    long[] remaining = delete(bookIds, bookId);
+                    return remaining.length == 0 ? null : remaining;
+                }));
+    }
+
+    private long[] delete(long[] bookIds, long bookId) {
+        int position = Arrays.binarySearch(bookIds, bookId);
+        if (position < 0) {
+            return bookIds;
+        }
+        long[] result = new long[bookIds.length - 1];
+        System.arraycopy(bookIds, 0, result, 0, position);
+        System.arraycopy(bookIds, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    private Set<Long> without(Set<Long> categoryIds, Long categoryId) {
+        Set<Long> remaining = categoryIds.stream()
+                .filter(existingId -> !existingId.equals(categoryId))
+                .collect(Collectors.toUnmodifiableSet());
+        return remaining.isEmpty() ? null : remaining;
+    }
+}
@@ -0,0 +1,399 @@
+package ruslan.shastkiv.bookstore.service.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
+import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
+import ruslan.shastkiv.bookstore.repository.item.CartItemRepository;
+import ruslan.shastkiv.bookstore.repository.item.CartLine;
+
+/*
+Optional write-behind copy of the carts in use (cart.write-behind.enabled). Reading a cart
+and changing the quantity of its lines only touch memory; the changed lines of all carts are
+written in one batch every cart.write-behind.flush-interval, when a cart leaves the store
+(cart.write-behind.max-carts, cart.write-behind.idle-timeout), before checkout reads it and
+on shutdown. A book the cart doesn't hold yet is inserted right away, because the client
+addresses lines by their id.
+A cart is marked as not priced when it is loaded, so the database paths aggregate its totals
+from the lines instead of trusting a subtotal this store no longer keeps up to date.
+Loads and writes run in their own transactions, whatever transaction the caller is in.
+Carts are loaded and evicted inside Caffeine's compute, which holds a ConcurrentHashMap bin
+monitor during the JDBC call: on virtual threads those calls pin their carrier thread.
+ */
+@Slf4j
+@Component
+public class CartWriteBehindStore {
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Cache<Long, CachedCart> carts;
+    /*
+    Held by the scheduled flush and by release(), so a released cart waits for a batch
+    that may carry its changes instead of being reloaded without them.
+     */
+    private final Lock writeLock = new ReentrantLock();
+
+    public CartWriteBehindStore(
+            ShoppingCartRepository shoppingCartRepository,
+            CartItemRepository cartItemRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${cart.write-behind.enabled:false}") boolean enabled,
+            @Value("${cart.write-behind.max-carts:10000}") long maxCarts,
+            @Value("${cart.write-behind.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(idleTimeout)
+                .evictionListener(this::onEviction)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ShoppingCartDto getShoppingCart(Long userId) {
+        return update(userId, CachedCart::toDto);
+    }
+
+    public ShoppingCartDto addBook(Long userId, Long bookId, int quantity,
+                                   Supplier<CartItem> newCartItem) {
+        return update(userId, cart -> {
+            Optional<Line> line = cart.findLineByBookId(bookId);
+            if (line.isPresent()) {
+                cart.setQuantity(line.get(), line.get().quantity + quantity);
+            } else {
+                cart.addLine(newCartItem.get());
+            }
+            return cart.toDto();
+        });
+    }
+
+    public Optional<ShoppingCartDto> updateItemQuantity(Long userId, Long cartItemId,
+                                                        int quantity) {
+        return update(userId, cart -> Optional.ofNullable(cart.lines.get(cartItemId))
+                .map(line -> {
+                    cart.setQuantity(line, quantity);
+                    return cart.toDto();
+                }));
+    }
+
+    public boolean removeCartItem(Long userId, Long cartItemId) {
+        return update(userId, cart -> cart.removeLine(cartItemId));
+    }
+
+    /*
+    Writes the pending changes of the cart and drops it, so the next access reloads it
+    from the database.
+     */
+    public void release(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            CachedCart cart = carts.getIfPresent(userId);
+            if (cart == null) {
+                return;
+            }
+            cart.lock.lock();
+            try {
+                write(List.of(cart));
+                cart.detached = true;
+            } finally {
+                cart.lock.unlock();
+            }
+            carts.asMap().remove(userId, cart);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+    Drops the cart without writing it, for a cart that was just emptied by checkout.
+     */
+    public void discard(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        CachedCart cart = carts.asMap().remove(userId);
+        if (cart != null) {
+            cart.lock.lock();
+            try {
+                cart.detached = true;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    /*
+    Releases the carts holding any of the books, so they are priced again on their next load.
+     */
+    public void releaseCartsWithBooks(Collection<Long> bookIds) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> changedBookIds = new HashSet<>(bookIds);
+        carts.asMap().values().stream()
+                .filter(cart -> cart.holdsAnyBook(changedBookIds))
+                .map(cart -> cart.userId)
+                .toList()
+                .forEach(this::release);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            write(carts.asMap().values().stream().filter(CachedCart::isChanged).toList());
+        } catch (RuntimeException e) {
+            log.warn("Can`t write the shopping carts, will retry on the next flush", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private <T> T update(Long userId, Function<CachedCart, T> change) {
+        if (!enabled) {
+            throw new IllegalStateException("Write-behind cart store is disabled");
+        }
+        while (true) {
+            CachedCart cart = carts.get(userId, this::load);
+            cart.lock.lock();
+            try {
+                if (!cart.detached) {
+                    return change.apply(cart);
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private CachedCart load(Long userId) {
+        return transactionTemplate.execute(status -> {
+            if (shoppingCartRepository.markUnpricedById(userId) == 0) {
+                throw new EntityNotFoundException(
+                        "Cant find shopping cart by user id: [" + userId + "]");
+            }
+            return new CachedCart(userId,
+                    cartItemRepository.findAllLinesByShoppingCartId(userId));
+        });
+    }
+
+    /*
+    Runs inside the cache while the cart is being removed, so a concurrent access to the
+    same user waits for the write instead of loading the old lines.
+     */
+    private void onEviction(Long userId, CachedCart cart, RemovalCause cause) {
+        cart.lock.lock();
+        try {
+            write(List.of(cart));
+        } catch (RuntimeException e) {
+            log.error("Can`t write the shopping cart of user id: [{}], its changes are lost",
+                    userId, e);
+        } finally {
+            cart.detached = true;
+            cart.lock.unlock();
+        }
+    }
+
+    private void write(List<CachedCart> changedCarts) {
+        List<CartChanges> changes = new ArrayList<>();
+        for (CachedCart cart : changedCarts) {
+            cart.lock.lock();
+            try {
+                changes.add(cart.takeChanges());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        Set<Long> removedIds = new HashSet<>();
+        changes.forEach(change -> {
+            quantities.putAll(change.quantities());
+            removedIds.addAll(change.removedIds());
+        });
+        if (quantities.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cartItemRepository.updateQuantities(quantities);
+                if (!removedIds.isEmpty()) {
+                    cartItemRepository.deleteAllByIdInBatch(removedIds);
+                }
+            });
+        } catch (RuntimeException e) {
+            changes.forEach(change -> {
+                change.cart().lock.lock();
+                try {
+                    change.cart().restoreChanges(change);
+                } finally {
+                    change.cart().lock.unlock();
+                }
+            });
+            throw e;
+        }
+    }
+
+    private record CartChanges(CachedCart cart, Map<Long, Integer> quantities,
+                               Set<Long> removedIds) {
+    }
+
+    private static final class Line {
+        private final Long id;
+        private final Long bookId;
+        private final String title;
+        private final Money price;
+        private int quantity;
+
+        private Line(Long id, Long bookId, String title, Money price, int quantity) {
+            this.id = id;
+            this.bookId = bookId;
+            this.title = title;
+            this.price = price;
+            this.quantity = quantity;
+        }
+    }
+
+    /*
+    Guarded by its own lock, which is held across JDBC writes; a ReentrantLock rather than
+    a monitor, so a virtual thread waiting on the write doesn't pin its carrier thread.
+    A detached cart has left the store; whoever still holds it gets the current copy from
+    the store instead.
+     */
+    private static final class CachedCart {
+        private final Lock lock = new ReentrantLock();
+        private final Long userId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private final Set<Long> changedIds = new HashSet<>();
+        private final Set<Long> removedIds = new HashSet<>();
+        private boolean detached;
+
+        private CachedCart(Long userId, List<CartLine> cartLines) {
+            this.userId = userId;
+            cartLines.forEach(line -> lines.put(line.id(), new Line(line.id(), line.bookId(),
+                    line.title(), line.price() == null ? Money.ZERO : Money.of(line.price()),
+                    line.quantity())));
+        }
+
+        private Optional<Line> findLineByBookId(Long bookId) {
+            return lines.values().stream()
+                    .filter(line -> line.bookId.equals(bookId))
+                    .findFirst();
+        }
+
+        private boolean holdsAnyBook(Set<Long> bookIds) {
+            lock.lock();
+            try {
+                return lines.values().stream().anyMatch(line -> bookIds.contains(line.bookId));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isChanged() {
+            lock.lock();
+            try {
+                return !changedIds.isEmpty() || !removedIds.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void addLine(CartItem cartItem) {
+            Book book = cartItem.getBook();
+            lines.put(cartItem.getId(), new Line(cartItem.getId(), book.getId(),
+                    book.getTitle(), Money.of(book.getPrice()), cartItem.getQuantity()));
+        }
+
+        private void setQuantity(Line line, int quantity) {
+            line.quantity = quantity;
+            changedIds.add(line.id);
+        }
+
+        private boolean removeLine(Long cartItemId) {
+            if (lines.remove(cartItemId) == null) {
+                return false;
+            }
+            changedIds.remove(cartItemId);
+            removedIds.add(cartItemId);
+            return true;
+        }
+
+        private CartChanges takeChanges() {
+            CartChanges changes = new CartChanges(this,
+                    changedIds.stream().collect(Collectors.toMap(Function.identity(),
+                            id -> lines.get(id).quantity)),
+                    Set.copyOf(removedIds));
+            changedIds.clear();
+            removedIds.clear();
+            return changes;
+        }
+
+        private void restoreChanges(CartChanges changes) {
+            changes.quantities().keySet().stream()
+                    .filter(lines::containsKey)
+                    .forEach(changedIds::add);
+            removedIds.addAll(changes.removedIds());
+        }
+
+        private ShoppingCartDto toDto() {
+            Money subtotal = Money.ZERO;
+            int itemCount = 0;
+            Set<CartItemDto> cartItems = new HashSet<>();
+            for (Line line : lines.values()) {
+                cartItems.add(new CartItemDto(line.id, line.bookId, line.title, line.quantity));
+                subtotal = subtotal.plus(line.price.times(line.quantity));
+                itemCount += line.quantity;
+            }
+            return new ShoppingCartDto(userId, cartItems, subtotal.toBigDecimal(), itemCount);
+        }
+    }
+}
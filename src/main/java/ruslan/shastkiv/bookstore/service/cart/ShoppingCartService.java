@@ -22,5 +22,7 @@ public interface ShoppingCartService {
 
     ShoppingCart findShoppingCart(Long id);
 
+    void releaseShoppingCart(Long userId);
+
     void clearShoppingCart(ShoppingCart shoppingCart);
 }
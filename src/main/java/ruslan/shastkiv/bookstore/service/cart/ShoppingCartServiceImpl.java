@@ -1,94 +1,261 @@
 package ruslan.shastkiv.bookstore.service.cart;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
 import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
 import ruslan.shastkiv.bookstore.dto.item.UpdateCartItemRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
-import ruslan.shastkiv.bookstore.mapper.ShoppingCartMapper;
+import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
 import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.cart.CartSummary;
 import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
 import ruslan.shastkiv.bookstore.repository.item.CartItemRepository;
+import ruslan.shastkiv.bookstore.repository.item.CartTotals;
 import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.fanout.LookupFanOut;
 
+/*
+Every cart response is read through one projection query that joins the items with
+their book titles, so rendering a cart costs the same number of statements whatever
+its size; the entities are only loaded where the cart is modified.
+The cart keeps its subtotal and item count: each write adds the difference it makes
+at the current book price in one atomic update, and a book is added to its line with
+one upsert, so concurrent writers to a cart don't lose each other's changes. Writes
+that still lose a race (a stale version, a deadlock) are run again.
+A cart whose book prices changed is not priced, its totals are aggregated from the
+lines instead, and stored again by its next write.
+With cart.write-behind.enabled the carts are served by CartWriteBehindStore instead;
+it is released before checkout reads the cart.
+ */
 @Service
 @RequiredArgsConstructor
 public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
-    private final ShoppingCartMapper shoppingCartMapper;
     private final CartItemRepository cartItemRepository;
     private final BookService bookService;
+    private final BookRepository bookRepository;
+    private final CartWriteBehindStore cartStore;
+    private final TransactionTemplate transactionTemplate;
+    private final LookupFanOut lookupFanOut;
+
+    @Value("${cart.write.max-attempts:5}")
+    private int maxAttempts;
 
     @Override
     public void createShoppingCart(User user) {
         ShoppingCart cart = new ShoppingCart();
         cart.setUser(user);
+        cart.setPriced(true);
         shoppingCartRepository.save(cart);
     }
 
+    /*
+    The totals and the lines of the cart are independent lookups: LookupFanOut may run
+    them at the same time.
+     */
     @Override
     public ShoppingCartDto getShoppingCart(Long userId) {
-        return shoppingCartMapper.toDto(findShoppingCart(userId));
+        if (cartStore.isEnabled()) {
+            return cartStore.getShoppingCart(userId);
+        }
+        return lookupFanOut.assemble(scope -> {
+            LookupFanOut.Lookup<CartSummary> summaryLookup =
+                    scope.fork(() -> readSummary(userId));
+            LookupFanOut.Lookup<List<CartItemDto>> cartItemsLookup =
+                    scope.fork(() -> cartItemRepository.findAllByShoppingCartId(userId));
+            CartSummary summary = summaryLookup.get();
+            return new ShoppingCartDto(userId, new HashSet<>(cartItemsLookup.get()),
+                    Money.of(summary.subtotal()).toBigDecimal(), summary.itemCount());
+        });
     }
 
     @Override
-    @Transactional
     public ShoppingCartDto addBookToCart(Long userId, CartItemRequestDto requestDto) {
-        ShoppingCart shoppingCart = findShoppingCart(userId);
-        return shoppingCartMapper.toDto(addCartItem(shoppingCart, requestDto));
+        if (cartStore.isEnabled()) {
+            return cartStore.addBook(userId, requestDto.bookId(), requestDto.quantity(),
+                    () -> inTransaction(() -> saveCartItem(userId, requestDto)));
+        }
+        return inTransaction(() -> {
+            Book book = bookService.findBookById(requestDto.bookId());
+            changeTotals(userId, Money.of(book.getPrice()), requestDto.quantity());
+            cartItemRepository.addQuantity(userId, book.getId(), requestDto.quantity());
+            return toDto(userId);
+        });
     }
 
     @Override
     public void removeCartItem(Long userId, Long cartItemId) {
-        CartItem cartItem = getByCartItemIdAndUserId(userId, cartItemId);
-        cartItemRepository.delete(cartItem);
+        if (cartStore.isEnabled()) {
+            if (!cartStore.removeCartItem(userId, cartItemId)) {
+                throw cartItemNotFound(userId, cartItemId);
+            }
+            return;
+        }
+        inTransaction(() -> {
+            CartItem cartItem = getByCartItemIdAndUserId(userId, cartItemId);
+            changeTotals(userId, findPrice(cartItem), -cartItem.getQuantity());
+            cartItemRepository.delete(cartItem);
+            return findSummary(userId);
+        });
     }
 
     @Override
-    @Transactional
     public ShoppingCartDto updateItemQuantity(Long userId,
                                                Long cartItemId,
                                                UpdateCartItemRequestDto requestDto) {
-        CartItem cartItem = getByCartItemIdAndUserId(userId, cartItemId);
-        cartItem.setQuantity(requestDto.quantity());
-        return shoppingCartMapper.toDto(
-                shoppingCartRepository.save(cartItem.getShoppingCart()));
+        if (cartStore.isEnabled()) {
+            return cartStore.updateItemQuantity(userId, cartItemId, requestDto.quantity())
+                    .orElseThrow(() -> cartItemNotFound(userId, cartItemId));
+        }
+        return inTransaction(() -> {
+            CartItem cartItem = getByCartItemIdAndUserId(userId, cartItemId);
+            changeTotals(userId, findPrice(cartItem),
+                    requestDto.quantity() - cartItem.getQuantity());
+            cartItem.setQuantity(requestDto.quantity());
+            return toDto(userId);
+        });
+    }
+
+    /*
+    Runs a cart write in its own transaction and starts it again, up to
+    cart.write.max-attempts times, when it loses a race for the cart: a stale version
+    or a deadlock between two writers.
+     */
+    private <T> T inTransaction(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ShoppingCartDto toDto(Long userId) {
+        CartSummary summary = findSummary(userId);
+        return new ShoppingCartDto(userId,
+                new HashSet<>(cartItemRepository.findAllByShoppingCartId(userId)),
+                Money.of(summary.subtotal()).toBigDecimal(), summary.itemCount());
     }
 
     private CartItem getByCartItemIdAndUserId(Long userId, Long cartItemId) {
         return cartItemRepository.findByIdAndShoppingCartId(cartItemId, userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Cant find cart item with ID [" + cartItemId
-                                + "] in the shopping cart for user ID [" + userId + "]."));
+                .orElseThrow(() -> cartItemNotFound(userId, cartItemId));
+    }
+
+    private EntityNotFoundException cartItemNotFound(Long userId, Long cartItemId) {
+        return new EntityNotFoundException("Cant find cart item with ID [" + cartItemId
+                + "] in the shopping cart for user ID [" + userId + "].");
     }
 
     @Override
     public ShoppingCart findShoppingCart(Long id) {
-        return shoppingCartRepository.findById(id).orElseThrow(()
-                -> new EntityNotFoundException("Cant find shopping cart by user id: [" + id + "]"));
+        cartStore.release(id);
+        return shoppingCartRepository.findById(id).orElseThrow(() -> cartNotFound(id));
+    }
+
+    private EntityNotFoundException cartNotFound(Long userId) {
+        return new EntityNotFoundException("Cant find shopping cart by user id: [" + userId + "]");
+    }
+
+    @Override
+    public void releaseShoppingCart(Long userId) {
+        cartStore.release(userId);
     }
 
     @Override
     public void clearShoppingCart(ShoppingCart shoppingCart) {
+        cartStore.discard(shoppingCart.getId());
         shoppingCart.getCartItems().clear();
+        shoppingCart.setSubtotal(Money.ZERO.toBigDecimal());
+        shoppingCart.setItemCount(0);
+        shoppingCart.setPriced(true);
         shoppingCartRepository.save(shoppingCart);
     }
 
-    private ShoppingCart addCartItem(ShoppingCart shoppingCart, CartItemRequestDto requestDto) {
-        CartItem cartItem = cartItemRepository
-                .findByBookIdAndShoppingCartId(requestDto.bookId(), shoppingCart.getId())
-                .orElseGet(() -> {
-                    CartItem newCartItem = new CartItem();
-                    newCartItem.setBook(bookService.findBookById(requestDto.bookId()));
-                    newCartItem.setShoppingCart(shoppingCart);
-                    shoppingCart.getCartItems().add(newCartItem);
-                    return newCartItem;
-                });
-        cartItem.setQuantity(cartItem.getQuantity() + requestDto.quantity());
-        return shoppingCartRepository.save(shoppingCart);
+    private CartItem saveCartItem(Long userId, CartItemRequestDto requestDto) {
+        Book book = bookService.findBookById(requestDto.bookId());
+        cartItemRepository.addQuantity(userId, book.getId(), requestDto.quantity());
+        return cartItemRepository.findByBookIdAndShoppingCartId(book.getId(), userId)
+                .orElseThrow();
+    }
+
+    /*
+    Adds the difference to the stored totals in one update, so concurrent writers to the
+    cart don't overwrite each other's totals. The update also locks the cart row before
+    any line, the same order checkout takes them in.
+     */
+    private void changeTotals(Long userId, Money price, int quantity) {
+        if (shoppingCartRepository.addToTotals(userId,
+                price.times(quantity).toBigDecimal(), quantity) == 0) {
+            throw cartNotFound(userId);
+        }
+    }
+
+    /*
+    Returns the current price of the book of a line. A deleted book has none: deleting it
+    marked its carts as not priced, so only the item count is changed and the subtotal is
+    aggregated from the lines that are left.
+     */
+    private Money findPrice(CartItem cartItem) {
+        return bookRepository.findById(cartItem.getBook().getId())
+                .map(book -> Money.of(book.getPrice()))
+                .orElse(Money.ZERO);
+    }
+
+    /*
+    Returns the totals of the cart, stored again from its lines if a book price changed.
+    The version check of the cart fails the write when another one changed the totals
+    after they were aggregated here.
+     */
+    private CartSummary findSummary(Long userId) {
+        CartSummary summary = shoppingCartRepository.findSummaryById(userId)
+                .orElseThrow(() -> cartNotFound(userId));
+        if (summary.priced()) {
+            return summary;
+        }
+        ShoppingCart shoppingCart = shoppingCartRepository.findById(userId)
+                .orElseThrow(() -> cartNotFound(userId));
+        CartTotals totals = cartItemRepository.sumTotalsByShoppingCartId(userId);
+        shoppingCart.setSubtotal(toMoney(totals).toBigDecimal());
+        shoppingCart.setItemCount(toItemCount(totals));
+        shoppingCart.setPriced(true);
+        return new CartSummary(shoppingCart.getSubtotal(), shoppingCart.getItemCount(), true);
+    }
+
+    /*
+    Returns the totals of the cart, aggregated from its lines if a book price changed;
+    reads don't store them.
+     */
+    private CartSummary readSummary(Long userId) {
+        CartSummary summary = shoppingCartRepository.findSummaryById(userId)
+                .orElseThrow(() -> cartNotFound(userId));
+        if (summary.priced()) {
+            return summary;
+        }
+        CartTotals totals = cartItemRepository.sumTotalsByShoppingCartId(userId);
+        return new CartSummary(toMoney(totals).toBigDecimal(), toItemCount(totals), false);
+    }
+
+    private Money toMoney(CartTotals totals) {
+        return totals.subtotal() == null ? Money.ZERO : Money.of(totals.subtotal());
+    }
+
+    private int toItemCount(CartTotals totals) {
+        return totals.itemCount() == null ? 0 : Math.toIntExact(totals.itemCount());
     }
 }
@@ -4,18 +4,27 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ruslan.shastkiv.bookstore.dto.category.CategoryDto;
 import ruslan.shastkiv.bookstore.dto.category.CategoryRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
 import ruslan.shastkiv.bookstore.mapper.CategoryMapper;
 import ruslan.shastkiv.bookstore.model.Category;
 import ruslan.shastkiv.bookstore.repository.category.CategoryRepository;
+import ruslan.shastkiv.bookstore.service.book.BookCacheEvictor;
+import ruslan.shastkiv.bookstore.service.book.BookCatalogIndex;
+import ruslan.shastkiv.bookstore.service.book.BookTextIndex;
+import ruslan.shastkiv.bookstore.service.book.CategoryBookIndex;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final BookCatalogIndex bookCatalogIndex;
+    private final CategoryBookIndex categoryBookIndex;
+    private final BookTextIndex bookTextIndex;
+    private final BookCacheEvictor bookCacheEvictor;
 
     @Override
     public CategoryDto addCategory(CategoryRequestDto requestDto) {
@@ -24,11 +33,13 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CategoryDto> getAllCategories(Pageable pageable) {
         return categoryRepository.findAll(pageable).map(categoryMapper::toDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryDto getCategoryById(Long id) {
         return categoryMapper.toDto(findCategoryById(id));
     }
@@ -37,12 +48,18 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryDto updateCategory(Long id, CategoryRequestDto requestDto) {
         Category category = findCategoryById(id);
         categoryMapper.updateCategoryFromDto(requestDto, category);
-        return categoryMapper.toDto(categoryRepository.save(category));
+        CategoryDto categoryDto = categoryMapper.toDto(categoryRepository.save(category));
+        bookCatalogIndex.putCategory(categoryDto);
+        return categoryDto;
     }
 
     @Override
     public void deleteCategory(Long id) {
         categoryRepository.deleteById(id);
+        bookCacheEvictor.evictCategories();
+        bookCatalogIndex.removeCategory(id);
+        categoryBookIndex.removeCategory(id);
+        bookTextIndex.removeCategory(id);
     }
 
     private Category findCategoryById(Long id) {
@@ -0,0 +1,144 @@
+package ruslan.shastkiv.bookstore.service.cursor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
+import ruslan.shastkiv.bookstore.exception.InvalidCursorException;
+
+/*
+Translates opaque `after` tokens to keyset scroll positions and back.
+A token is the Base64url JSON of the last returned row's sort key values,
+so the next page starts right after that row without OFFSET or COUNT.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorCodec {
+    private static final String ID_PROPERTY = "id";
+    private static final int DEFAULT_SIZE = 20;
+    private static final int MAX_SIZE = 100;
+    private static final TypeReference<Map<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public Sort toKeysetSort(Sort sort, Set<String> sortableProperties) {
+        for (Sort.Order order : sort) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new InvalidCursorException("Can`t page by cursor with sort property: ["
+                        + order.getProperty() + "]");
+            }
+        }
+        return sort.getOrderFor(ID_PROPERTY) == null
+                ? sort.and(Sort.by(ID_PROPERTY))
+                : sort;
+    }
+
+    public Limit toLimit(CursorRequestDto cursorRequest) {
+        if (cursorRequest.size() == null) {
+            return Limit.of(DEFAULT_SIZE);
+        }
+        return Limit.of(Math.max(1, Math.min(cursorRequest.size(), MAX_SIZE)));
+    }
+
+    public KeysetScrollPosition toPosition(CursorRequestDto cursorRequest,
+                                           Class<?> entityType,
+                                           Sort keysetSort) {
+        if (cursorRequest.after() == null || cursorRequest.after().isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> encodedKeys = decode(cursorRequest.after());
+        Set<String> sortProperties = keysetSort.stream()
+                .map(Sort.Order::getProperty)
+                .collect(Collectors.toSet());
+        if (!encodedKeys.keySet().equals(sortProperties)) {
+            throw new InvalidCursorException("Cursor doesn`t match sort: [" + keysetSort + "]");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : keysetSort) {
+            keys.put(order.getProperty(), convert(cursorRequest.after(),
+                    encodedKeys.get(order.getProperty()),
+                    propertyType(entityType, order.getProperty())));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public <T, R> CursorPageDto<R> toCursorPage(Window<T> window, List<R> content) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return new CursorPageDto<>(content, null);
+        }
+        KeysetScrollPosition lastPosition =
+                (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return new CursorPageDto<>(content, encode(lastPosition.getKeys()));
+    }
+
+    private String encode(Map<String, Object> keys) {
+        Map<String, String> encodedKeys = new LinkedHashMap<>();
+        keys.forEach((property, value) -> encodedKeys.put(property, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(encodedKeys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can`t encode cursor for keys: " + keys, e);
+        }
+    }
+
+    private Map<String, String> decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            return objectMapper.readValue(new String(json, StandardCharsets.UTF_8), KEYS_TYPE);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new InvalidCursorException("Invalid cursor: [" + cursor + "]");
+        }
+    }
+
+    private Class<?> propertyType(Class<?> entityType, String property) {
+        Field field = ReflectionUtils.findField(entityType, property);
+        if (field == null) {
+            throw new InvalidCursorException("Can`t page by cursor with sort property: ["
+                    + property + "]");
+        }
+        return field.getType();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object convert(String cursor, String value, Class<?> type) {
+        try {
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+            return value;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: [" + cursor + "]");
+        }
+    }
+}
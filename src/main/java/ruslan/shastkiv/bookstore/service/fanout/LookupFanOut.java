@@ -0,0 +1,148 @@
+package ruslan.shastkiv.bookstore.service.fanout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.config.AsyncConfig;
+import ruslan.shastkiv.bookstore.exception.LookupTimeoutException;
+
+/*
+Assembles a DTO from lookups that don't depend on each other. With dto.fan-out.enabled
+each forked lookup runs on the lookup executor in its own read-only transaction, so the
+response waits for the slowest lookup instead of their sum. The lookups of one assembly
+share a deadline, dto.fan-out.timeout: it is also their transaction timeout, which
+cancels a statement still running when it passes. A lookup that fails or misses the
+deadline cancels the others, and the caller gets its failure.
+Concurrent lookups read separate snapshots and take a connection each. Disabled (the
+default), the lookups run on the calling thread in one read-only transaction, each when
+its result is first needed.
+ */
+@Component
+public class LookupFanOut {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AsyncTaskExecutor executor;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public LookupFanOut(@Qualifier(AsyncConfig.LOOKUP_EXECUTOR) AsyncTaskExecutor executor,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${dto.fan-out.enabled:false}") boolean enabled,
+                        @Value("${dto.fan-out.timeout:PT2S}") Duration timeout) {
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    public <T> T assemble(Function<Scope, T> assembly) {
+        if (!enabled) {
+            return readOnlyTransaction(TransactionTemplate.TIMEOUT_DEFAULT)
+                    .execute(status -> assembly.apply(new Scope(null)));
+        }
+        try (Scope scope = new Scope(System.nanoTime() + timeout.toNanos())) {
+            return assembly.apply(scope);
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction(int timeoutSeconds) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setTimeout(timeoutSeconds);
+        return transactionTemplate;
+    }
+
+    /*
+    The lookups of one assembly. Not thread-safe: it is used by the assembling thread only.
+     */
+    public final class Scope implements AutoCloseable {
+        private final Long deadline;
+        private final List<Future<?>> forks = new ArrayList<>();
+
+        private Scope(Long deadline) {
+            this.deadline = deadline;
+        }
+
+        public <T> Lookup<T> fork(Supplier<T> lookup) {
+            if (deadline == null) {
+                return new Lookup<>(this, null, lookup);
+            }
+            TransactionTemplate transactionTemplate = readOnlyTransaction(
+                    Math.toIntExact(Math.max(1, ceilSeconds(deadline - System.nanoTime()))));
+            Future<T> future = executor.submit(
+                    () -> transactionTemplate.execute(status -> lookup.get()));
+            forks.add(future);
+            return new Lookup<>(this, future, null);
+        }
+
+        /*
+        Cancels the lookups still queued or running: a queued one never starts, a running
+        one is interrupted and its statement is cancelled by the transaction timeout.
+         */
+        @Override
+        public void close() {
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+
+        private long ceilSeconds(long nanos) {
+            return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        }
+    }
+
+    public static final class Lookup<T> {
+        private final Scope scope;
+        private final Future<T> future;
+        private Supplier<T> inline;
+        private T value;
+
+        private Lookup(Scope scope, Future<T> future, Supplier<T> inline) {
+            this.scope = scope;
+            this.future = future;
+            this.inline = inline;
+        }
+
+        public T get() {
+            if (future == null) {
+                if (inline != null) {
+                    value = inline.get();
+                    inline = null;
+                }
+                return value;
+            }
+            try {
+                return future.get(scope.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                scope.close();
+                throw new LookupTimeoutException("Lookups didn't finish in time");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scope.close();
+                throw new LookupTimeoutException("Interrupted while waiting for lookups");
+            } catch (ExecutionException e) {
+                scope.close();
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
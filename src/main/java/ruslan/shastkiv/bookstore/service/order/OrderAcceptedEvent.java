@@ -0,0 +1,4 @@
+package ruslan.shastkiv.bookstore.service.order;
+
+public record OrderAcceptedEvent(Long orderId) {
+}
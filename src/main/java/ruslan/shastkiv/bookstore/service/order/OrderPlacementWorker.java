@@ -0,0 +1,49 @@
+package ruslan.shastkiv.bookstore.service.order;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ruslan.shastkiv.bookstore.config.AsyncConfig;
+import ruslan.shastkiv.bookstore.model.Order;
+import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+
+/*
+Fills accepted orders from the user's cart on the order placement pool:
+PENDING -> PROCESSING when the order is assembled, PENDING -> FAILED when it can't be.
+Orders left PENDING by a shutdown are picked up again on the next start; completeOrder
+claims an order under its row lock, so an order given to two workers is assembled once.
+An order takes the cart as it is when the worker runs, with the changes made after the
+order was accepted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderPlacementWorker {
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+
+    @Async(AsyncConfig.ORDER_PLACEMENT_EXECUTOR)
+    @TransactionalEventListener
+    public void onOrderAccepted(OrderAcceptedEvent event) {
+        process(event.orderId());
+    }
+
+    @Async(AsyncConfig.ORDER_PLACEMENT_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeAcceptedOrders() {
+        orderRepository.findAcceptedOrderIds(Order.Status.PENDING).forEach(this::process);
+    }
+
+    private void process(Long orderId) {
+        try {
+            orderService.completeOrder(orderId);
+        } catch (RuntimeException e) {
+            log.warn("Can`t place order by id: [{}]", orderId, e);
+            orderService.failOrder(orderId);
+        }
+    }
+}
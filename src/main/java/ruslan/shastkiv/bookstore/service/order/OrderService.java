@@ -2,17 +2,33 @@ package ruslan.shastkiv.bookstore.service.order;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
 import ruslan.shastkiv.bookstore.dto.order.PlaceOrderRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.UpdateOrderStatusRequestDto;
 
 public interface OrderService {
     OrderDto placeOrderByUserId(Authentication authentication, PlaceOrderRequestDto requestDto);
 
+    OrderStatusDto placeOrderAsync(Long userId, String idempotencyKey,
+                                   PlaceOrderRequestDto requestDto);
+
+    OrderStatusDto getOrderStatus(Long userId, Long orderId);
+
+    void completeOrder(Long orderId);
+
+    void failOrder(Long orderId);
+
     Page<OrderDto> getAllOrdersByUserId(Long userId, Pageable pageable);
 
+    CursorPageDto<OrderDto> getAllOrdersByUserId(Long userId, CursorRequestDto cursorRequest,
+                                                 Sort sort);
+
     OrderDto updateOrderStatus(Long orderId, UpdateOrderStatusRequestDto statusRequestDto);
 
     Page<OrderItemDto> getOrderItemsByOrderId(Long orderId, Pageable pageable);
@@ -2,39 +2,76 @@ package ruslan.shastkiv.bookstore.service.order;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
 import ruslan.shastkiv.bookstore.dto.order.PlaceOrderRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.UpdateOrderStatusRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
 import ruslan.shastkiv.bookstore.exception.OrderProcessingException;
 import ruslan.shastkiv.bookstore.mapper.OrderItemMapper;
 import ruslan.shastkiv.bookstore.mapper.OrderMapper;
+import ruslan.shastkiv.bookstore.model.Money;
 import ruslan.shastkiv.bookstore.model.Order;
 import ruslan.shastkiv.bookstore.model.OrderItem;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemLine;
 import ruslan.shastkiv.bookstore.repository.order.OrderItemRepository;
 import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+import ruslan.shastkiv.bookstore.repository.user.UserRepository;
 import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+import ruslan.shastkiv.bookstore.service.cursor.CursorCodec;
+import ruslan.shastkiv.bookstore.service.fanout.LookupFanOut;
+import ruslan.shastkiv.bookstore.service.stock.StockService;
 import ruslan.shastkiv.bookstore.service.user.UserService;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final Set<String> CURSOR_SORT_PROPERTIES =
+            Set.of("id", "orderDate", "total", "status");
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    /*
+    Orders in these statuses hold no stock: it was never reserved or is given back.
+    An order doesn't leave them, its stock would have to be taken again.
+     */
+    private static final Set<Order.Status> STOCK_RELEASED_STATUSES =
+            EnumSet.of(Order.Status.FAILED, Order.Status.CANCELLED, Order.Status.EXPIRED);
+
     private final ShoppingCartService shoppingCartService;
     private final OrderRepository orderRepository;
     private final UserService userService;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
     private final OrderItemRepository orderItemRepository;
+    private final CursorCodec cursorCodec;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockService stockService;
+    private final LookupFanOut lookupFanOut;
 
     @Override
     @Transactional
@@ -45,35 +82,164 @@ public class OrderServiceImpl implements OrderService {
         checkIsEmptyShoppingCart(userShoppingCart);
         Order userOrder = createOrder(userShoppingCart, requestDto);
         Set<OrderItem> orderItems = createOrderItems(userShoppingCart, userOrder);
+        reserveStock(orderItems);
         userOrder.setOrderItems(orderItems);
-        userOrder.setTotal(calculateTotalPrice(orderItems));
+        userOrder.setTotal(calculateTotalPrice(userShoppingCart, orderItems));
         shoppingCartService.clearShoppingCart(userShoppingCart);
         return orderMapper.toDto(orderRepository.save(userOrder));
     }
 
+    /*
+    Only stores a PENDING order and returns; OrderPlacementWorker fills it from the cart
+    once this transaction commits. A retried request finds the order by its key, and the
+    unique (user_id, idempotency_key) index settles two retries racing each other.
+    Pending write-behind cart changes are written first, so the worker reads the cart
+    the user checked out.
+     */
+    @Override
+    public OrderStatusDto placeOrderAsync(Long userId, String idempotencyKey,
+                                          PlaceOrderRequestDto requestDto) {
+        checkIdempotencyKey(idempotencyKey);
+        Optional<Order> acceptedOrder =
+                orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (acceptedOrder.isPresent()) {
+            return toReplayedStatus(acceptedOrder.get(), requestDto);
+        }
+        shoppingCartService.releaseShoppingCart(userId);
+        try {
+            return transactionTemplate.execute(status -> {
+                Order order = orderRepository.save(
+                        createAcceptedOrder(userId, idempotencyKey, requestDto));
+                eventPublisher.publishEvent(new OrderAcceptedEvent(order.getId()));
+                return orderMapper.toStatusDto(order);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(order -> toReplayedStatus(order, requestDto))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatusDto getOrderStatus(Long userId, Long orderId) {
+        return orderMapper.toStatusDto(orderRepository.findByIdAndUserId(orderId, userId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can t find order by id: [" + orderId + "]")));
+    }
+
+    /*
+    Runs in its own transaction: when the placement pool is full, the worker runs on the
+    accepting thread, in the afterCommit callback of the transaction that stored the order,
+    and joining that committed transaction would never write the assembled order.
+    The order row is locked before its status is checked, so of two workers given the same
+    order (another instance resuming it, a restart racing an in-flight task) the second
+    waits and then finds it no longer PENDING.
+    The order is filled from the cart as it is now, not as it was when the order was
+    accepted: changes made to the cart in between are part of the order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void completeOrder(Long orderId) {
+        Order order = findOrderByIdForUpdate(orderId);
+        if (!isAwaitingAssembly(order)) {
+            return;
+        }
+        ShoppingCart userShoppingCart = shoppingCartService.findShoppingCart(
+                order.getUser().getId());
+        if (userShoppingCart.getCartItems().isEmpty()) {
+            order.setStatus(Order.Status.FAILED);
+            return;
+        }
+        Set<OrderItem> orderItems = createOrderItems(userShoppingCart, order);
+        reserveStock(orderItems);
+        order.getOrderItems().addAll(orderItems);
+        order.setTotal(calculateTotalPrice(userShoppingCart, orderItems));
+        order.setStatus(Order.Status.PROCESSING);
+        shoppingCartService.clearShoppingCart(userShoppingCart);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void failOrder(Long orderId) {
+        Order order = findOrderByIdForUpdate(orderId);
+        if (isAwaitingAssembly(order)) {
+            order.setStatus(Order.Status.FAILED);
+        }
+    }
+
+    /*
+    The page of orders with their items and the count of all the user's orders are
+    independent lookups. Past the first page the count is usually needed, so it is forked
+    up front and LookupFanOut may run both at the same time. On the first page it is only
+    forked when the page doesn't tell the total itself.
+     */
     @Override
     public Page<OrderDto> getAllOrdersByUserId(Long userId, Pageable pageable) {
-        return orderRepository.findAllByUserId(userId, pageable).map(orderMapper::toDto);
+        return lookupFanOut.assemble(scope -> {
+            Supplier<Long> countOrders = () -> orderRepository.countByUserId(userId);
+            LookupFanOut.Lookup<Long> totalLookup = pageable.isPaged()
+                    && pageable.getPageNumber() > 0 ? scope.fork(countOrders) : null;
+            LookupFanOut.Lookup<List<OrderDto>> ordersLookup = scope.fork(() -> {
+                List<Order> orders = orderRepository.findByUserId(userId, pageable);
+                Map<Long, List<OrderItemDto>> orderItems = findOrderItems(orders);
+                return orders.stream()
+                        .map(order -> toDto(order, orderItems))
+                        .toList();
+            });
+            return PageableExecutionUtils.getPage(ordersLookup.get(), pageable,
+                    () -> (totalLookup != null ? totalLookup : scope.fork(countOrders)).get());
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getAllOrdersByUserId(Long userId,
+                                                        CursorRequestDto cursorRequest,
+                                                        Sort sort) {
+        Sort keysetSort = cursorCodec.toKeysetSort(sort, CURSOR_SORT_PROPERTIES);
+        Window<Order> orders = orderRepository.findAllByUserId(userId,
+                cursorCodec.toPosition(cursorRequest, Order.class, keysetSort),
+                keysetSort, cursorCodec.toLimit(cursorRequest));
+        Map<Long, List<OrderItemDto>> orderItems = findOrderItems(orders.getContent());
+        return cursorCodec.toCursorPage(orders, orders.stream()
+                .map(order -> toDto(order, orderItems))
+                .toList());
+    }
+
+    @Override
+    @Transactional
     public OrderDto updateOrderStatus(Long orderId, UpdateOrderStatusRequestDto statusRequestDto) {
         Order order = findOrderById(orderId);
+        boolean stockReleased = STOCK_RELEASED_STATUSES.contains(order.getStatus());
+        boolean releasesStock = STOCK_RELEASED_STATUSES.contains(statusRequestDto.status());
+        if (stockReleased && !releasesStock) {
+            throw new OrderProcessingException("Order [" + orderId + "] is "
+                    + order.getStatus() + " and can`t be moved to "
+                    + statusRequestDto.status());
+        }
+        if (!stockReleased && releasesStock) {
+            stockService.release(toQuantities(order.getOrderItems().stream()
+                    .filter(OrderItem::isStockReserved)
+                    .collect(Collectors.toSet())));
+        }
         order.setStatus(statusRequestDto.status());
-        return orderMapper.toDto(orderRepository.save(order));
+        Order updatedOrder = orderRepository.save(order);
+        return toDto(updatedOrder, findOrderItems(List.of(updatedOrder)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderItemDto> getOrderItemsByOrderId(Long orderId, Pageable pageable) {
-        return orderItemRepository.findAllByOrderId(orderId, pageable).map(orderItemMapper::toDto);
+        return orderItemRepository.findAllByOrderId(orderId, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderItemDto getOrderItem(Long orderId, Long itemId) {
-        OrderItem orderItem = orderItemRepository.findByIdAndOrderId(itemId, orderId).orElseThrow(()
+        return orderItemRepository.findByIdAndOrderId(itemId, orderId).orElseThrow(()
                 -> new EntityNotFoundException("Order item with ID [" + itemId
                 + "] not found in order ID [" + orderId + "]."));
-        return orderItemMapper.toDto(orderItem);
     }
 
     private Order createOrder(ShoppingCart userShoppingCart, PlaceOrderRequestDto requestDto) {
@@ -84,6 +250,38 @@ public class OrderServiceImpl implements OrderService {
         return order;
     }
 
+    private Order createAcceptedOrder(Long userId, String idempotencyKey,
+                                      PlaceOrderRequestDto requestDto) {
+        Order order = new Order();
+        order.setUser(userRepository.getReferenceById(userId));
+        order.setStatus(Order.Status.PENDING);
+        order.setTotal(BigDecimal.ZERO);
+        order.setShippingAddress(requestDto.shippingAddress());
+        order.setOrderDate(LocalDateTime.now());
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+
+    private OrderStatusDto toReplayedStatus(Order order, PlaceOrderRequestDto requestDto) {
+        if (!order.getShippingAddress().equals(requestDto.shippingAddress())) {
+            throw new OrderProcessingException("Idempotency key ["
+                    + order.getIdempotencyKey() + "] was already used for another order");
+        }
+        return orderMapper.toStatusDto(order);
+    }
+
+    private boolean isAwaitingAssembly(Order order) {
+        return order.getIdempotencyKey() != null && order.getStatus() == Order.Status.PENDING;
+    }
+
+    private void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()
+                || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new OrderProcessingException("Idempotency key must be 1 to "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters long");
+        }
+    }
+
     private Set<OrderItem> createOrderItems(ShoppingCart userShoppingCart, Order order) {
         return userShoppingCart.getCartItems().stream()
                 .map(cartItem -> {
@@ -94,11 +292,36 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toSet());
     }
 
-    private BigDecimal calculateTotalPrice(Set<OrderItem> orderItems) {
+    /*
+    Marks the lines whose stock was taken, so cancelling the order gives back only those:
+    a book may start being tracked after the order was placed.
+     */
+    private void reserveStock(Set<OrderItem> orderItems) {
+        Set<Long> reservedBookIds = stockService.reserve(toQuantities(orderItems));
+        orderItems.forEach(orderItem -> orderItem.setStockReserved(
+                reservedBookIds.contains(orderItem.getBook().getId())));
+    }
+
+    private Map<Long, Integer> toQuantities(Set<OrderItem> orderItems) {
         return orderItems.stream()
-                .map(orderItem -> orderItem.getPrice()
-                        .multiply(BigDecimal.valueOf(orderItem.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .collect(Collectors.toMap(orderItem -> orderItem.getBook().getId(),
+                        OrderItem::getQuantity, Integer::sum));
+    }
+
+    /*
+    A priced cart already holds the sum of its lines at the current book prices,
+    which is exactly what the order lines copy.
+     */
+    private BigDecimal calculateTotalPrice(ShoppingCart userShoppingCart,
+                                           Set<OrderItem> orderItems) {
+        if (userShoppingCart.isPriced()) {
+            return Money.of(userShoppingCart.getSubtotal()).toBigDecimal();
+        }
+        Money total = Money.ZERO;
+        for (OrderItem orderItem : orderItems) {
+            total = total.plus(Money.of(orderItem.getPrice()).times(orderItem.getQuantity()));
+        }
+        return total.toBigDecimal();
     }
 
     private void checkIsEmptyShoppingCart(ShoppingCart userShoppingCart) {
@@ -109,8 +332,31 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /*
+    Loads the items of all the given orders with one IN query instead of initialising
+    every order's lazy item collection.
+     */
+    private Map<Long, List<OrderItemDto>> findOrderItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+        return orderItemRepository.findAllByOrderIdIn(orders.stream().map(Order::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemLine::orderId,
+                        Collectors.mapping(orderItemMapper::toDto, Collectors.toList())));
+    }
+
+    private OrderDto toDto(Order order, Map<Long, List<OrderItemDto>> orderItems) {
+        return orderMapper.toDto(order, orderItems.getOrDefault(order.getId(), List.of()));
+    }
+
     private Order findOrderById(Long orderId) {
         return orderRepository.findById(orderId).orElseThrow(()
                 -> new EntityNotFoundException("Can t find order by id: [" + orderId + "]"));
     }
+
+    private Order findOrderByIdForUpdate(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId).orElseThrow(()
+                -> new EntityNotFoundException("Can t find order by id: [" + orderId + "]"));
+    }
 }
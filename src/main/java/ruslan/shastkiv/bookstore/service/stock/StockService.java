@@ -0,0 +1,16 @@
+package ruslan.shastkiv.bookstore.service.stock;
+
+import java.util.Map;
+import java.util.Set;
+import ruslan.shastkiv.bookstore.dto.stock.BookStockDto;
+import ruslan.shastkiv.bookstore.dto.stock.UpdateBookStockRequestDto;
+
+public interface StockService {
+    BookStockDto getStock(Long bookId);
+
+    BookStockDto updateStock(Long bookId, UpdateBookStockRequestDto requestDto);
+
+    Set<Long> reserve(Map<Long, Integer> quantitiesByBookId);
+
+    void release(Map<Long, Integer> quantitiesByBookId);
+}
@@ -0,0 +1,251 @@
+package ruslan.shastkiv.bookstore.service.stock;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.stock.BookStockDto;
+import ruslan.shastkiv.bookstore.dto.stock.UpdateBookStockRequestDto;
+import ruslan.shastkiv.bookstore.exception.OrderProcessingException;
+import ruslan.shastkiv.bookstore.model.BookStock;
+import ruslan.shastkiv.bookstore.repository.stock.BookStockChange;
+import ruslan.shastkiv.bookstore.repository.stock.BookStockRepository;
+import ruslan.shastkiv.bookstore.service.book.BookService;
+
+/*
+Each instance claims slices of a book's stock from book_stocks, at least
+stock.quota-size units at a time under the row lock, and takes reservations from them
+through an in-memory StripedCounter; checkouts of the same book only queue on its row
+lock when the slice runs out. A claim moves units from quantity to allocated, so the
+instances together never sell more than the row held.
+Every stock.flush-interval and on shutdown the units sold are taken off allocated and
+the unsold rest of each slice is put back to quantity, in one batch. The slice of an
+instance that dies stays allocated and is not sold again.
+A reservation made in a transaction is given back if the transaction rolls back;
+a release waits for its transaction to commit.
+ */
+@Slf4j
+@Service
+public class StockServiceImpl implements StockService {
+    private static final TrackedStock UNTRACKED = new TrackedStock(1);
+
+    private final BookStockRepository bookStockRepository;
+    private final BookService bookService;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+    private final int quotaSize;
+    private final ConcurrentMap<Long, TrackedStock> stocks = new ConcurrentHashMap<>();
+
+    public StockServiceImpl(BookStockRepository bookStockRepository,
+                            BookService bookService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${stock.counter-stripes:8}") int stripes,
+                            @Value("${stock.quota-size:10}") int quotaSize) {
+        this.bookStockRepository = bookStockRepository;
+        this.bookService = bookService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = stripes;
+        this.quotaSize = quotaSize;
+    }
+
+    /*
+    Counts the units claimed by every instance; the sales of other instances show up
+    after their next flush.
+     */
+    @Override
+    public BookStockDto getStock(Long bookId) {
+        bookService.findBookById(bookId);
+        Optional<BookStock> bookStock = transactionTemplate.execute(status ->
+                bookStockRepository.findById(bookId));
+        if (bookStock.isEmpty()) {
+            return new BookStockDto(bookId, null);
+        }
+        TrackedStock stock = stocks.getOrDefault(bookId, UNTRACKED);
+        long quantity = bookStock.get().getQuantity() + bookStock.get().getAllocated()
+                + stock.unflushed.sum();
+        return new BookStockDto(bookId, Math.toIntExact(Math.max(quantity, 0)));
+    }
+
+    /*
+    The slices held by the instances are part of the new quantity: they are left out of
+    the unclaimed units, which may go below zero until enough of them is sold.
+     */
+    @Override
+    public BookStockDto updateStock(Long bookId, UpdateBookStockRequestDto requestDto) {
+        bookService.findBookById(bookId);
+        int quantity = requestDto.quantity();
+        flush();
+        transactionTemplate.executeWithoutResult(status -> {
+            BookStock bookStock = bookStockRepository.findByIdForUpdate(bookId)
+                    .orElseGet(() -> {
+                        BookStock newStock = new BookStock();
+                        newStock.setBookId(bookId);
+                        return newStock;
+                    });
+            bookStock.setQuantity(quantity - bookStock.getAllocated());
+            bookStockRepository.save(bookStock);
+        });
+        stocks.replace(bookId, UNTRACKED, new TrackedStock(stripes));
+        return new BookStockDto(bookId, quantity);
+    }
+
+    /*
+    Takes all the quantities or none of them; books are taken in id order. Returns the ids
+    of the books whose stock was taken, books without a tracked stock are left out.
+     */
+    @Override
+    public Set<Long> reserve(Map<Long, Integer> quantitiesByBookId) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (Map.Entry<Long, Integer> book : new TreeMap<>(quantitiesByBookId).entrySet()) {
+            TrackedStock stock = findStock(book.getKey());
+            if (stock == UNTRACKED) {
+                continue;
+            }
+            if (!take(book.getKey(), stock, book.getValue())) {
+                giveBack(reserved);
+                throw new OrderProcessingException(
+                        "Not enough stock for book: [" + book.getKey() + "]");
+            }
+            stock.unflushed.add(-book.getValue());
+            reserved.put(book.getKey(), book.getValue());
+        }
+        afterTransaction(reserved, false);
+        return Set.copyOf(reserved.keySet());
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByBookId) {
+        afterTransaction(quantitiesByBookId, true);
+    }
+
+    /*
+    Also forgets the books found untracked, so a stock set up through another instance
+    is picked up here within one flush.
+     */
+    @Scheduled(fixedDelayString = "${stock.flush-interval:PT1S}")
+    public void flush() {
+        stocks.values().removeIf(stock -> stock == UNTRACKED);
+        Map<Long, BookStockChange> changes = new HashMap<>();
+        stocks.forEach((bookId, stock) -> {
+            int unsold = Math.toIntExact(stock.available.replace(0));
+            int change = Math.toIntExact(stock.unflushed.sumThenReset());
+            if (unsold != 0 || change != 0) {
+                changes.put(bookId, new BookStockChange(unsold, change - unsold));
+            }
+        });
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    bookStockRepository.addQuantities(changes));
+        } catch (RuntimeException e) {
+            changes.forEach((bookId, change) -> {
+                TrackedStock stock = stocks.get(bookId);
+                stock.available.add(change.quantity());
+                stock.unflushed.add(change.quantity() + change.allocated());
+            });
+            log.warn("Can`t write the book stocks, will retry on the next flush", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /*
+    Loads outside computeIfAbsent, which would hold a map bin monitor during the query and
+    pin a virtual thread; two threads may load the same book, the first one stored wins.
+     */
+    private TrackedStock findStock(Long bookId) {
+        TrackedStock stock = stocks.get(bookId);
+        if (stock != null) {
+            return stock;
+        }
+        TrackedStock loaded = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                bookStockRepository.existsById(bookId))) ? new TrackedStock(stripes) : UNTRACKED;
+        stock = stocks.putIfAbsent(bookId, loaded);
+        return stock == null ? loaded : stock;
+    }
+
+    private boolean take(Long bookId, TrackedStock stock, int quantity) {
+        if (stock.available.tryTake(quantity)) {
+            return true;
+        }
+        stock.available.add(claim(bookId, quantity));
+        return stock.available.tryTake(quantity);
+    }
+
+    /*
+    Claims the quota, or the quantity when it is larger, or what is left.
+     */
+    private int claim(Long bookId, int quantity) {
+        Integer claimed = transactionTemplate.execute(status ->
+                bookStockRepository.findByIdForUpdate(bookId)
+                        .map(bookStock -> {
+                            int slice = Math.max(0, Math.min(bookStock.getQuantity(),
+                                    Math.max(quantity, quotaSize)));
+                            bookStock.setQuantity(bookStock.getQuantity() - slice);
+                            bookStock.setAllocated(bookStock.getAllocated() + slice);
+                            return slice;
+                        })
+                        .orElse(0));
+        return claimed == null ? 0 : claimed;
+    }
+
+    private void afterTransaction(Map<Long, Integer> quantitiesByBookId, boolean onCommit) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                giveBack(quantitiesByBookId);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (onCommit == (status == STATUS_COMMITTED)) {
+                    giveBack(quantitiesByBookId);
+                }
+            }
+        });
+    }
+
+    private void giveBack(Map<Long, Integer> quantitiesByBookId) {
+        quantitiesByBookId.forEach((bookId, quantity) -> {
+            TrackedStock stock = findStock(bookId);
+            if (stock != UNTRACKED) {
+                stock.available.add(quantity);
+                stock.unflushed.add(quantity);
+            }
+        });
+    }
+
+    private static final class TrackedStock {
+        private final StripedCounter available;
+        private final LongAdder unflushed = new LongAdder();
+
+        private TrackedStock(int stripes) {
+            this.available = new StripedCounter(stripes, 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ruslan.shastkiv.bookstore.service.stock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+A non-negative count split over several stripes, each changed by compare-and-set only.
+Concurrent takers start on a random stripe, so a hot book doesn't make every checkout
+retry on one memory location; a stripe that runs dry sends the taker on to the next one.
+A take never drives the total below zero. While a large take is being given back, a
+concurrent one may see too little and fail although the total would have covered it.
+Stripes are spread one cache line apart.
+ */
+public final class StripedCounter {
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedCounter(int stripes, long value) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            cells.set(stripe * PADDING, value / stripes + (stripe < value % stripes ? 1 : 0));
+        }
+    }
+
+    public boolean tryTake(long amount) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        long taken = 0;
+        for (int offset = 0; offset < stripes && taken < amount; offset++) {
+            int cell = (start + offset) % stripes * PADDING;
+            long current = cells.get(cell);
+            while (current > 0) {
+                long take = Math.min(current, amount - taken);
+                long witness = cells.compareAndExchange(cell, current, current - take);
+                if (witness == current) {
+                    taken += take;
+                    break;
+                }
+                current = witness;
+            }
+        }
+        if (taken < amount) {
+            add(taken);
+            return false;
+        }
+        return true;
+    }
+
+    public void add(long amount) {
+        if (amount > 0) {
+            cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PADDING, amount);
+        }
+    }
+
+    /*
+    Empties every stripe and puts the value in one of them, returning what was emptied.
+    Takers running meanwhile may fail on the emptied stripes, but never take units that
+    were not there.
+     */
+    public long replace(long value) {
+        long replaced = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            replaced += cells.getAndSet(stripe * PADDING, 0);
+        }
+        add(value);
+        return replaced;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+}
@@ -15,6 +15,7 @@ import ruslan.shastkiv.bookstore.model.Role;
 import ruslan.shastkiv.bookstore.model.User;
 import ruslan.shastkiv.bookstore.repository.role.RoleRepository;
 import ruslan.shastkiv.bookstore.repository.user.UserRepository;
+import ruslan.shastkiv.bookstore.security.AuthenticatedUser;
 import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
 
 @Service
@@ -46,7 +47,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Long getUserId(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         return user.getId();
     }
 }
@@ -0,0 +1,77 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.repository.book.BookSpecificationBuilder;
+import ruslan.shastkiv.bookstore.repository.book.BookSpecificationProviderManager;
+import ruslan.shastkiv.bookstore.repository.book.specification.AuthorSpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.CategorySpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.PriceSpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.TitleSpecificationProvider;
+
+/*
+Building the specification of a book search, before any query runs: `allFilters` sets
+every parameter, `noFilters` none. Run main() as described in JwtParsingBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSpecificationBenchmark {
+    private static final BookSearchParametersDto ALL_FILTERS = new BookSearchParametersDto(
+            new String[]{"Author_1", "Author_2"},
+            new String[]{"Title_1"},
+            new String[]{"9.99", "149.50"},
+            new String[]{"1", "2", "3"},
+            null);
+    private static final BookSearchParametersDto NO_FILTERS =
+            new BookSearchParametersDto(null, null, null, null, null);
+
+    private BookSpecificationBuilder bookSpecificationBuilder;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookSpecificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        bookSpecificationBuilder = new BookSpecificationBuilder(
+                new BookSpecificationProviderManager(List.of(
+                        new AuthorSpecificationProvider(),
+                        new TitleSpecificationProvider(),
+                        new PriceSpecificationProvider(),
+                        new CategorySpecificationProvider())));
+    }
+
+    @Benchmark
+    public Specification<Book> allFilters() {
+        return bookSpecificationBuilder.build(ALL_FILTERS);
+    }
+
+    @Benchmark
+    public Specification<Book> noFilters() {
+        return bookSpecificationBuilder.build(NO_FILTERS);
+    }
+}
@@ -0,0 +1,99 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ruslan.shastkiv.bookstore.BookstoreApplication;
+import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
+import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+
+/*
+Latency of a `+1` click on a book already in the cart. writeBehind=false is the database
+path (add to the cart totals, upsert the line); writeBehind=true changes the line in
+CartWriteBehindStore, the scheduled flush writes it later. The application runs on
+in-memory H2; run main() as described in JwtParsingBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartWriteBehindBenchmark {
+    /*
+    Ids start above the rows the migrations seed.
+     */
+    private static final long FIRST_ID = 100_000L;
+    private static final Long USER_ID = FIRST_ID;
+    private static final Long BOOK_ID = FIRST_ID;
+    private static final int LINES = 20;
+    private static final CartItemRequestDto CLICK = new CartItemRequestDto(BOOK_ID, 1);
+
+    @Param({"false", "true"})
+    private boolean writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private ShoppingCartService shoppingCartService;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartWriteBehindBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookstoreApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.docker.compose.enabled=false",
+                "--cart.write-behind.enabled=" + writeBehind);
+        shoppingCartService = context.getBean(ShoppingCartService.class);
+        insertData(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ShoppingCartDto addBookToCart() {
+        return shoppingCartService.addBookToCart(USER_ID, CLICK);
+    }
+
+    private void insertData(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (id, email, password, first_name, last_name) "
+                + "VALUES (?, 'benchmark@mail.com', 'Password', 'First', 'Last')", USER_ID);
+        jdbcTemplate.update("INSERT INTO shopping_carts (id) VALUES (?)", USER_ID);
+        for (long id = FIRST_ID; id < FIRST_ID + LINES; id++) {
+            jdbcTemplate.update("INSERT INTO books (id, is_deleted, title, author, isbn, price) "
+                    + "VALUES (?, 0, ?, ?, ?, ?)",
+                    id, "Title_" + id, "Author_" + id, "978-2-%08d".formatted(id), id);
+            jdbcTemplate.update("INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity) "
+                    + "VALUES (?, ?, ?, 1)", id, USER_ID, id);
+        }
+    }
+}
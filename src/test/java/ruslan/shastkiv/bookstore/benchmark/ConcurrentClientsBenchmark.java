@@ -0,0 +1,155 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ruslan.shastkiv.bookstore.BookstoreApplication;
+import ruslan.shastkiv.bookstore.dto.user.UserLoginResponseDto;
+
+/*
+Throughput of authenticated GET /books/{id} under 2000 concurrent clients, to compare the
+request thread modes:
+
+    java -cp <test classpath> ruslan.shastkiv.bookstore.benchmark.ConcurrentClientsBenchmark \
+            [platform|virtual] [clients] [seconds] [--spring.* overrides]
+
+`virtual` needs the java21 Maven profile and a Java 21 runtime. By default the application
+runs on in-memory H2, where queries barely block; pass the MySQL datasource of
+docker-compose (--spring.datasource.url=...) to measure the I/O-bound case the virtual
+threads are meant for. Clients and server share the JVM, so compare modes with each other
+only, not with production numbers.
+ */
+public class ConcurrentClientsBenchmark {
+    private static final long BOOK_ID = 100_000L;
+    private static final String EMAIL = "load@mail.com";
+    private static final String PASSWORD = "Password1";
+    private static final int DEFAULT_CLIENTS = 2_000;
+    private static final int DEFAULT_SECONDS = 20;
+    private static final int WARMUP_SECONDS = 5;
+    private static final int HTTP_OK = 200;
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    public static void main(String[] args) throws Exception {
+        final boolean virtual = args.length > 0 && args[0].equals("virtual");
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        if (virtual && Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+            throw new IllegalStateException("Virtual threads need Java "
+                    + VIRTUAL_THREADS_JAVA_VERSION + ", running on " + Runtime.version());
+        }
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.docker.compose.enabled=false",
+                "--server.tomcat.accept-count=" + clients,
+                "--spring.threads.virtual.enabled=" + virtual));
+        for (int arg = 3; arg < args.length; arg++) {
+            applicationArgs.add(args[arg]);
+        }
+        try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(BookstoreApplication.class)
+                             .run(applicationArgs.toArray(String[]::new))) {
+            URI baseUri = URI.create("http://localhost:"
+                    + context.getEnvironment().getProperty("local.server.port"));
+            context.getBean(JdbcTemplate.class).update("INSERT INTO books "
+                    + "(id, is_deleted, title, author, isbn, price) "
+                    + "VALUES (?, 0, 'Load', 'Load', '978-1-00000000', 10)", BOOK_ID);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String token = login(httpClient, baseUri, context.getBean(ObjectMapper.class));
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/books/" + BOOK_ID))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+
+            run(httpClient, request, clients, WARMUP_SECONDS);
+            Result result = run(httpClient, request, clients, seconds);
+            System.out.printf("%s threads, %d clients, %d s: %d requests, %d errors, "
+                            + "%.0f requests/s, mean latency %.1f ms%n",
+                    virtual ? "virtual" : "platform", clients, seconds, result.requests(),
+                    result.errors(), (double) result.requests() / seconds,
+                    result.requests() == 0 ? 0.0
+                            : result.latencyNanos() / 1e6 / result.requests());
+        }
+    }
+
+    private static String login(HttpClient httpClient, URI baseUri, ObjectMapper objectMapper)
+            throws Exception {
+        send(httpClient, baseUri.resolve("/auth/registration"), objectMapper.writeValueAsString(
+                Map.of("email", EMAIL, "password", PASSWORD, "repeatPassword", PASSWORD,
+                        "firstName", "Load", "lastName", "Client")));
+        String login = send(httpClient, baseUri.resolve("/auth/login"),
+                objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", PASSWORD)));
+        return objectMapper.readValue(login, UserLoginResponseDto.class).token();
+    }
+
+    private static String send(HttpClient httpClient, URI uri, String json) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static Result run(HttpClient httpClient, HttpRequest request, int clients,
+                              int seconds) throws Exception {
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder latencyNanos = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int client = 0; client < clients; client++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding())
+                                    .statusCode() == HTTP_OK) {
+                                requests.increment();
+                                latencyNanos.add(System.nanoTime() - sent);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(requests.sum(), errors.sum(), latencyNanos.sum());
+    }
+
+    private record Result(long requests, long errors, long latencyNanos) {
+    }
+}
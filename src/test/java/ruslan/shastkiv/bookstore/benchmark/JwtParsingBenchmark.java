@@ -0,0 +1,87 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ruslan.shastkiv.bookstore.security.JwtUtil;
+
+/*
+Per-request token handling cost. `twoParses` reproduces the former filter path
+(isValidToken + getUsername: two parser builds, two signature checks), `singleParse`
+is the current JwtUtil.parse, `generateToken` the signing at login. Run main() from
+the test classpath, e.g.:
+mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+java -cp target/test-classes:target/classes:$(cat cp.txt)
+    ruslan.shastkiv.bookstore.benchmark.JwtParsingBenchmark
+or run the benchmarks with JSON results through the `benchmark` Maven profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParsingBenchmark {
+    private static final String SECRET = "pF3vQ8m6GZ++12345jklN+34y5Ks0pQZLb+KD7yxUj8=";
+    private static final Long EXPIRATION = 300000L;
+
+    private SecretKey secret;
+    private JwtUtil jwtUtil;
+    private String token;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        secret = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+        authentication = new UsernamePasswordAuthenticationToken(
+                "user_email_3@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(authentication);
+    }
+
+    @Benchmark
+    public void twoParses(Blackhole blackhole) {
+        Claims validated = Jwts.parser().verifyWith(secret).build()
+                .parseSignedClaims(token).getPayload();
+        blackhole.consume(!validated.getExpiration().before(new Date()));
+        blackhole.consume(Jwts.parser().verifyWith(secret).build()
+                .parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.parse(token));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(authentication);
+    }
+}
@@ -0,0 +1,100 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrder;
+import static ruslan.shastkiv.bookstore.utils.ShoppingCartTestUtils.createCartItem;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderDto;
+import ruslan.shastkiv.bookstore.mapper.BookMapper;
+import ruslan.shastkiv.bookstore.mapper.BookMapperImpl;
+import ruslan.shastkiv.bookstore.mapper.CartItemMapper;
+import ruslan.shastkiv.bookstore.mapper.CartItemMapperImpl;
+import ruslan.shastkiv.bookstore.mapper.CategoryMapperImpl;
+import ruslan.shastkiv.bookstore.mapper.OrderItemMapper;
+import ruslan.shastkiv.bookstore.mapper.OrderMapper;
+import ruslan.shastkiv.bookstore.mapper.OrderMapperImpl;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Order;
+
+/*
+Entity to DTO mapping of the generated MapStruct mappers, for a book in `lines`
+categories and an order of `lines` items. There is no shopping cart mapper: cart
+responses are read as CartItemDto projections, so `cartItemToDto` measures the entity
+mapping of one cart line. Run main() as described in JwtParsingBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final Long BOOK_ID = 1L;
+
+    @Param({"1", "20"})
+    private int lines;
+
+    private BookMapper bookMapper;
+    private OrderMapper orderMapper;
+    private CartItemMapper cartItemMapper;
+    private Book book;
+    private Order order;
+    private CartItem cartItem;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapperImpl(new CategoryMapperImpl());
+        orderMapper = new OrderMapperImpl(Mappers.getMapper(OrderItemMapper.class));
+        cartItemMapper = new CartItemMapperImpl(bookMapper);
+        List<Long> ids = LongStream.rangeClosed(1, lines).boxed().toList();
+        book = createBookById(BOOK_ID, ids);
+        order = createOrder(createUser(USER_ID), ids);
+        cartItem = createCartItem(BOOK_ID, null);
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public CartItemDto cartItemToDto() {
+        return cartItemMapper.toDto(cartItem);
+    }
+}
@@ -0,0 +1,93 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.model.OrderItem;
+
+/*
+Order total and price filter arithmetic. `...BigDecimal` reproduces the former code
+(multiply and add per order line, new BigDecimal per filter bound), `...Money` is the
+current long-based Money; `orderTotalMoney` is the loop OrderServiceImpl.calculateTotalPrice
+runs for a cart without stored totals. Run main() as described in JwtParsingBenchmark; the GC
+profiler reports the allocated bytes per call as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final String[] PRICE_FILTER = {"9.99", "149.50"};
+
+    @Param({"10", "1000"})
+    private int lines;
+
+    private List<OrderItem> orderItems;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        orderItems = new ArrayList<>();
+        for (int line = 1; line <= lines; line++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setPrice(BigDecimal.valueOf(line * 137L % 10_000, Money.SCALE));
+            orderItem.setQuantity(line % 7 + 1);
+            orderItems.add(orderItem);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal orderTotalBigDecimal() {
+        return orderItems.stream()
+                .map(orderItem -> orderItem.getPrice()
+                        .multiply(BigDecimal.valueOf(orderItem.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal orderTotalMoney() {
+        Money total = Money.ZERO;
+        for (OrderItem orderItem : orderItems) {
+            total = total.plus(Money.of(orderItem.getPrice()).times(orderItem.getQuantity()));
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    public void priceFilterBigDecimal(Blackhole blackhole) {
+        blackhole.consume(new BigDecimal(PRICE_FILTER[0]));
+        blackhole.consume(new BigDecimal(PRICE_FILTER[1]));
+    }
+
+    @Benchmark
+    public void priceFilterMoney(Blackhole blackhole) {
+        blackhole.consume(Money.parse(PRICE_FILTER[0]));
+        blackhole.consume(Money.parse(PRICE_FILTER[1]));
+    }
+}
@@ -0,0 +1,169 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.BookstoreApplication;
+import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.mapper.BookMapper;
+import ruslan.shastkiv.bookstore.mapper.OrderItemMapper;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.OrderItem;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemRepository;
+
+/*
+Allocation per read of a category page and of an order item page. `...Entities` reproduces
+the former path: managed entities loaded in a read-write transaction, then mapped with
+MapStruct. `...Projection` is the current read-only projection query.
+The application runs on in-memory H2; run main() as described in JwtParsingBenchmark,
+the GC profiler reports the allocated bytes per call as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadProjectionBenchmark {
+    /*
+    Ids start above the rows the migrations seed.
+     */
+    private static final long FIRST_ID = 100_000L;
+    private static final Long CATEGORY_ID = FIRST_ID;
+    private static final Long USER_ID = FIRST_ID;
+    private static final Long ORDER_ID = FIRST_ID;
+    private static final int BOOKS = 1000;
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private BookRepository bookRepository;
+    private OrderItemRepository orderItemRepository;
+    private BookMapper bookMapper;
+    private OrderItemMapper orderItemMapper;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReadProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookstoreApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.docker.compose.enabled=false");
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager =
+                context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        bookRepository = context.getBean(BookRepository.class);
+        orderItemRepository = context.getBean(OrderItemRepository.class);
+        bookMapper = context.getBean(BookMapper.class);
+        orderItemMapper = context.getBean(OrderItemMapper.class);
+        insertData(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDtoWithoutCategoryIds> categoryPageEntities() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT b FROM Book b JOIN b.categories c "
+                        + "WHERE c.id = :categoryId AND b.isDeleted = FALSE", Book.class)
+                .setParameter("categoryId", CATEGORY_ID)
+                .setMaxResults(PAGE.getPageSize())
+                .getResultList().stream()
+                .map(bookMapper::toDtoWithoutCategoryIds)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookDtoWithoutCategoryIds> categoryPageProjection() {
+        return readOnlyTransactionTemplate.execute(status -> bookRepository
+                .findBooksByCategoryId(CATEGORY_ID, PAGE).getContent());
+    }
+
+    @Benchmark
+    public List<OrderItemDto> orderItemPageEntities() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId",
+                        OrderItem.class)
+                .setParameter("orderId", ORDER_ID)
+                .setMaxResults(PAGE.getPageSize())
+                .getResultList().stream()
+                .map(orderItemMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<OrderItemDto> orderItemPageProjection() {
+        return readOnlyTransactionTemplate.execute(status -> orderItemRepository
+                .findAllByOrderId(ORDER_ID, PAGE).getContent());
+    }
+
+    private void insertData(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (?, 'Category')",
+                CATEGORY_ID);
+        jdbcTemplate.update("INSERT INTO users (id, email, password, first_name, last_name) "
+                + "VALUES (?, 'benchmark@mail.com', 'Password', 'First', 'Last')", USER_ID);
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, status, total, order_date, "
+                + "shipping_address) VALUES (?, ?, 'DELIVERED', 0, NOW(), 'Address')",
+                ORDER_ID, USER_ID);
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (long id = FIRST_ID; id < FIRST_ID + BOOKS; id++) {
+            books.add(new Object[]{id, "Title_" + id, "Author_" + id, "978-2-%08d".formatted(id),
+                    id, "Description_" + id, "https://cover_image_" + id + ".jpg"});
+            links.add(new Object[]{id, CATEGORY_ID});
+            items.add(new Object[]{id, ORDER_ID, id, id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, is_deleted, title, author, isbn, price, "
+                + "description, cover_image) VALUES (?, 0, ?, ?, ?, ?, ?, ?)", books);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)", links);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, book_id, quantity, price) "
+                + "VALUES (?, ?, ?, 1, ?)", items);
+    }
+}
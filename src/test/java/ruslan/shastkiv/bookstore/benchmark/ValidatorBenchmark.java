@@ -0,0 +1,60 @@
+package ruslan.shastkiv.bookstore.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ruslan.shastkiv.bookstore.validation.image.CoverImageValidator;
+import ruslan.shastkiv.bookstore.validation.isbn.IsbnValidator;
+
+/*
+The ISBN and cover image checks run for every book a request creates or updates, and
+for every row of a CSV import. `valid=false` measures the rejection of a malformed
+value. Run main() as described in JwtParsingBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    private static final String VALID_ISBN = "978-3-16-148410-0";
+    private static final String INVALID_ISBN = "978-3-16-148410-0-1";
+    private static final String VALID_COVER_IMAGE = "https://covers.example.com/books/1.jpg";
+    private static final String INVALID_COVER_IMAGE = "https://covers.example.com/books/1.bmp";
+
+    private final IsbnValidator isbnValidator = new IsbnValidator();
+    private final CoverImageValidator coverImageValidator = new CoverImageValidator();
+
+    @Param({"true", "false"})
+    private boolean valid;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Benchmark
+    public boolean isbn() {
+        return isbnValidator.isValid(valid ? VALID_ISBN : INVALID_ISBN, null);
+    }
+
+    @Benchmark
+    public boolean coverImage() {
+        return coverImageValidator.isValid(valid ? VALID_COVER_IMAGE : INVALID_COVER_IMAGE, null);
+    }
+}
@@ -0,0 +1,69 @@
+package ruslan.shastkiv.bookstore.config;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/*
+Records the SELECT statements the calling thread sends to MySQL while capture() runs.
+Client-side prepared statements reach the driver with their parameters already inlined,
+so every recorded statement can be run again under EXPLAIN as is.
+ */
+public class QueryCaptureInterceptor implements QueryInterceptor {
+    private static final ThreadLocal<List<String>> CAPTURED_QUERIES = new ThreadLocal<>();
+    private static final String SELECT = "select";
+    private static final String SYSTEM_VARIABLE = "@@";
+
+    public static List<String> capture(Runnable action) {
+        List<String> queries = new ArrayList<>();
+        CAPTURED_QUERIES.set(queries);
+        try {
+            action.run();
+        } finally {
+            CAPTURED_QUERIES.remove();
+        }
+        return queries;
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection connection, Properties properties, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        List<String> queries = CAPTURED_QUERIES.get();
+        if (queries != null) {
+            String query = sql.get().strip();
+            if (query.toLowerCase(Locale.ROOT).startsWith(SELECT)
+                    && !query.contains(SYSTEM_VARIABLE)) {
+                queries.add(query);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery,
+                                               T originalResultSet,
+                                               ServerSession serverSession) {
+        return null;
+    }
+}
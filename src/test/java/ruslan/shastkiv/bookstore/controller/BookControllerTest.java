@@ -11,35 +11,59 @@ import static ruslan.shastkiv.bookstore.utils.BookTestUtils.BOOK_URL_WITH_FIRST_
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.BOOK_URL_WITH_INVALID_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.BOOK_URL_WITH_SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_AUTHOR;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_ISBN;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.EXPORT_BOOK_URL;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIFTH_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FOURTH_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.IMPORT_BOOK_URL;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.INVALID_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.INVALID_ISBN;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.NON_EXISTING_TITLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SEARCH_BOOK_URL;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SIXTH_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.UPDATED_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookCsvRowById;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookDtoById;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookDtoWithoutId;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookExportDtoById;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookRequestDtoById;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.getBookDtosFromMvcResult;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.updateBookRequestDtoById;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.NON_EXISTED_CATEGORY_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.SECOND_CATEGORY_ID;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.book.BookExportDto;
+import ruslan.shastkiv.bookstore.dto.book.BookImportErrorDto;
+import ruslan.shastkiv.bookstore.dto.book.BookImportReportDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
 
@@ -55,7 +79,8 @@ import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
         "classpath:scripts/book/remove_test_books_from_db.sql"
 },
         executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "catalog.text-index.enabled=true")
 public class BookControllerTest {
     private static MockMvc mockMvc;
 
@@ -269,4 +294,205 @@ public class BookControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isNoContent());
     }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN", "USER"})
+    @Test
+    @DisplayName("""
+            importCsv()
+            - Should import valid rows and report the rows that failed validation
+            """)
+    @Sql(
+            scripts = "classpath:scripts/book/remove_book_after_create_method.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void importCsv_ValidAndInvalidRows_ReturnImportReport() throws Exception {
+        String csv = String.join("\n",
+                "title,author,isbn,price,description,coverImage,categoryIds",
+                createBookCsvRowById(FIFTH_BOOK_ID, FIRST_CATEGORY_ID.toString()),
+                createBookCsvRowById(SIXTH_BOOK_ID, FIRST_CATEGORY_ID.toString())
+                        .replace(CUSTOM_BOOK_ISBN.formatted(SIXTH_BOOK_ID), INVALID_ISBN),
+                createBookCsvRowById(SIXTH_BOOK_ID, NON_EXISTED_CATEGORY_ID.toString()));
+        BookImportReportDto expected = new BookImportReportDto(1, 2, List.of(
+                new BookImportErrorDto(2, INVALID_ISBN, "isbn: Invalid ISBN"),
+                new BookImportErrorDto(3, CUSTOM_BOOK_ISBN.formatted(SIXTH_BOOK_ID),
+                        "Can`t find category by id: [" + NON_EXISTED_CATEGORY_ID + "]")));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(IMPORT_BOOK_URL)
+                        .content(csv)
+                        .contentType(BookController.TEXT_CSV_VALUE))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        BookImportReportDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportReportDto.class);
+
+        assertEquals(expected, actual);
+        assertEquals(List.of(createBookDtoWithoutId(FIFTH_BOOK_ID, List.of(FIRST_CATEGORY_ID))),
+                searchByTitle(CUSTOM_BOOK_TITLE.formatted(FIFTH_BOOK_ID)));
+    }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN", "USER"})
+    @Test
+    @DisplayName("""
+            importJsonLines()
+            - Should update a book with the same ISBN and report malformed lines
+            """)
+    @Sql(
+            scripts = "classpath:scripts/book/remove_book_after_create_method.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void importJsonLines_ExistingIsbn_UpdateBook() throws Exception {
+        CreateBookRequestDto requestDto = createBookRequestDtoById(SIXTH_BOOK_ID);
+        String firstImport = objectMapper.writeValueAsString(requestDto) + "\n{\"title\":";
+        requestDto.setTitle(UPDATED_TITLE);
+        String secondImport = objectMapper.writeValueAsString(requestDto);
+
+        BookImportReportDto firstReport = importJsonLines(firstImport);
+        final BookImportReportDto secondReport = importJsonLines(secondImport);
+
+        assertEquals(1, firstReport.imported());
+        assertEquals(1, firstReport.rejected());
+        assertEquals(2, firstReport.errors().get(0).row());
+        assertEquals(new BookImportReportDto(1, 0, List.of()), secondReport);
+        List<BookDto> actual = searchByTitle(UPDATED_TITLE);
+        assertEquals(1, actual.size());
+        assertEquals(CUSTOM_BOOK_ISBN.formatted(SIXTH_BOOK_ID), actual.get(0).getIsbn());
+    }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN", "USER"})
+    @Test
+    @DisplayName("""
+            importJsonLines()
+            - Should bring back a deleted book with the same ISBN
+            """)
+    @Sql(
+            scripts = "classpath:scripts/book/set_book_active_after_import_method.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void importJsonLines_DeletedBookIsbn_RestoreBook() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete(BOOK_URL + "/" + THIRD_BOOK_ID))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        CreateBookRequestDto requestDto = createBookRequestDtoById(THIRD_BOOK_ID);
+        requestDto.setCategoryIds(Set.of(SECOND_CATEGORY_ID));
+
+        BookImportReportDto report =
+                importJsonLines(objectMapper.writeValueAsString(requestDto));
+
+        assertEquals(new BookImportReportDto(1, 0, List.of()), report);
+        assertEquals(List.of(createBookDtoWithoutId(THIRD_BOOK_ID, List.of(SECOND_CATEGORY_ID))),
+                searchByTitle(CUSTOM_BOOK_TITLE.formatted(THIRD_BOOK_ID)));
+        MvcResult result = mockMvc.perform(get(SEARCH_BOOK_URL)
+                        .param("query", CUSTOM_BOOK_TITLE.formatted(THIRD_BOOK_ID)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assertEquals(List.of(THIRD_BOOK_ID), getBookDtosFromMvcResult(result, objectMapper)
+                .stream()
+                .map(BookDto::getId)
+                .toList());
+    }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @Test
+    @DisplayName("""
+            exportJsonLines()
+            - Should stream every book with its category ids, one per line
+            """)
+    public void exportJsonLines_AllBooks_ReturnOneLinePerBook() throws Exception {
+        List<BookExportDto> expected = List.of(
+                createBookExportDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID)),
+                createBookExportDtoById(SECOND_BOOK_ID, List.of(SECOND_CATEGORY_ID)),
+                createBookExportDtoById(THIRD_BOOK_ID, List.of(SECOND_CATEGORY_ID)));
+
+        MvcResult result = exportJsonLines(MockMvcRequestBuilders.get(EXPORT_BOOK_URL));
+        List<BookExportDto> actual = readExportedBooks(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+
+        assertEquals(expected, actual);
+    }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @Test
+    @DisplayName("""
+            exportJsonLines()
+            - Should leave out the ids of deleted categories
+            """)
+    @Sql(
+            scripts = "classpath:scripts/category/soft_delete_first_category.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+    )
+    @Sql(
+            scripts = "classpath:scripts/category/set_category_active_after_soft_delete.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void exportJsonLines_BookOfDeletedCategory_ReturnBookWithoutCategory()
+            throws Exception {
+        List<BookExportDto> expected = List.of(
+                createBookExportDtoById(FIRST_BOOK_ID, List.of()),
+                createBookExportDtoById(SECOND_BOOK_ID, List.of(SECOND_CATEGORY_ID)),
+                createBookExportDtoById(THIRD_BOOK_ID, List.of(SECOND_CATEGORY_ID)));
+
+        MvcResult result = exportJsonLines(MockMvcRequestBuilders.get(EXPORT_BOOK_URL));
+        List<BookExportDto> actual = readExportedBooks(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+
+        assertEquals(expected, actual);
+    }
+
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @Test
+    @DisplayName("""
+            exportJsonLines()
+            - Should compress the export when the client accepts gzip
+            """)
+    public void exportJsonLines_AcceptGzip_ReturnCompressedLines() throws Exception {
+        List<BookExportDto> expected = List.of(
+                createBookExportDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID)),
+                createBookExportDtoById(SECOND_BOOK_ID, List.of(SECOND_CATEGORY_ID)),
+                createBookExportDtoById(THIRD_BOOK_ID, List.of(SECOND_CATEGORY_ID)));
+
+        MvcResult result = exportJsonLines(MockMvcRequestBuilders.get(EXPORT_BOOK_URL)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        List<BookExportDto> actual = readExportedBooks(new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray())));
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(expected, actual);
+    }
+
+    private MvcResult exportJsonLines(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+    }
+
+    private List<BookExportDto> readExportedBooks(InputStream jsonLines) throws Exception {
+        try (MappingIterator<BookExportDto> books = objectMapper
+                .readerFor(BookExportDto.class)
+                .readValues(jsonLines)) {
+            return books.readAll();
+        }
+    }
+
+    private BookImportReportDto importJsonLines(String jsonLines) throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(IMPORT_BOOK_URL)
+                        .content(jsonLines)
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportReportDto.class);
+    }
+
+    private List<BookDto> searchByTitle(String title) throws Exception {
+        MvcResult result = mockMvc.perform(get(SEARCH_BOOK_URL)
+                        .param("titles", title)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        List<BookDto> bookDtos = getBookDtosFromMvcResult(result, objectMapper);
+        bookDtos.forEach(bookDto -> bookDto.setId(null));
+        return bookDtos;
+    }
 }
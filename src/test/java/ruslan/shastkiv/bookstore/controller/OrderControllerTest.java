@@ -13,8 +13,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ASYNC_ORDER_URL;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.IDEMPOTENCY_KEY;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.IDEMPOTENCY_KEY_HEADER;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_ITEMS_URL;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_ITEMS_URL_WiTH_ID_1;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_STATUS_URL;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_URL;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_URL_WITH_ID_1;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderDto;
@@ -43,6 +47,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
 import ruslan.shastkiv.bookstore.dto.order.PlaceOrderRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.UpdateOrderStatusRequestDto;
 import ruslan.shastkiv.bookstore.model.Order;
@@ -74,6 +79,9 @@ import ruslan.shastkiv.bookstore.model.Order;
 )
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class OrderControllerTest {
+    private static final int MAX_STATUS_POLLS = 100;
+    private static final long STATUS_POLL_INTERVAL_MILLIS = 50;
+
     private static MockMvc mockMvc;
 
     @Autowired
@@ -128,6 +136,32 @@ public class OrderControllerTest {
         assertEquals(0, actualDto.total().compareTo(expectedDto.total()));
     }
 
+    @Test
+    @DisplayName("""
+            placeOrderAsync()
+            - Should accept one order per idempotency key and assemble it in the background
+            """)
+    @WithUserDetails("user_email_3@mail.com")
+    @Sql(
+            scripts = {
+                    "classpath:scripts/order/remove_order_items_after_placing_order.sql",
+                    "classpath:scripts/order/remove_order_after_placing_order.sql",
+                    "classpath:scripts/cart/insert_cart_items.sql"
+            },
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void placeOrderAsync_sameKeyTwice_placesOneOrder() throws Exception {
+        String json = objectMapper.writeValueAsString(createPlaceOrderRequestDto(USER_ID));
+
+        OrderStatusDto accepted = placeOrderAsync(json);
+        OrderStatusDto retried = placeOrderAsync(json);
+        OrderStatusDto completed = awaitAssembled(accepted.id());
+
+        assertEquals(Order.Status.PENDING, accepted.status());
+        assertEquals(accepted.id(), retried.id());
+        assertEquals(Order.Status.PROCESSING, completed.status());
+    }
+
     @Test
     @DisplayName("""
             getOrders()
@@ -232,4 +266,30 @@ public class OrderControllerTest {
 
         assertEquals(expectedDto, actualDto);
     }
+
+    private OrderStatusDto placeOrderAsync(String json) throws Exception {
+        MvcResult result = mockMvc.perform(post(ASYNC_ORDER_URL)
+                        .header(IDEMPOTENCY_KEY_HEADER, IDEMPOTENCY_KEY)
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(), OrderStatusDto.class);
+    }
+
+    private OrderStatusDto awaitAssembled(Long orderId) throws Exception {
+        for (int attempt = 0; attempt < MAX_STATUS_POLLS; attempt++) {
+            MvcResult result = mockMvc.perform(get(ORDER_STATUS_URL.formatted(orderId)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            OrderStatusDto statusDto = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), OrderStatusDto.class);
+            if (statusDto.status() != Order.Status.PENDING) {
+                return statusDto;
+            }
+            Thread.sleep(STATUS_POLL_INTERVAL_MILLIS);
+        }
+        throw new AssertionError("Order [" + orderId + "] is still PENDING");
+    }
 }
@@ -39,6 +39,7 @@ import org.springframework.web.context.WebApplicationContext;
 import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
 import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
 import ruslan.shastkiv.bookstore.dto.item.UpdateCartItemRequestDto;
+import ruslan.shastkiv.bookstore.service.book.BookService;
 
 @Sql(
         scripts = {
@@ -66,6 +67,8 @@ public class ShoppingCartControllerTest {
 
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private BookService bookService;
 
     @BeforeAll
     static void beforeAll(
@@ -172,4 +175,26 @@ public class ShoppingCartControllerTest {
                 .andExpect(status().isNoContent())
                 .andReturn();
     }
+
+    @Test
+    @DisplayName("""
+            removeBookFromCart()
+            - Should delete a deleted book from shopping cart and return no content status
+            """)
+    @WithUserDetails("user_email_3@mail.com")
+    @Sql(
+            scripts = {
+                    "classpath:scripts/book/set_book_in_cart_active.sql",
+                    "classpath:scripts/cart/insert_cart_items.sql"
+            },
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+    )
+    public void removeBookFromCart_deletedBook_returnNoContent() throws Exception {
+        bookService.deleteBook(THIRD_BOOK_ID);
+
+        mockMvc.perform(delete(ITEM_URL + ITEM_ID_FOR_DELETE)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andReturn();
+    }
 }
@@ -0,0 +1,93 @@
+package ruslan.shastkiv.bookstore.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+    @Test
+    @DisplayName("""
+            parse()
+            - Should read whole, fractional and signed amounts like new BigDecimal() does
+            """)
+    public void parse_PlainDecimals_ReturnsMinorUnits() {
+        for (String amount : new String[]{"12", "12.5", "12.50", "0.01", ".5", "-3.25", "+7"}) {
+            assertEquals(Money.of(new BigDecimal(amount)), Money.parse(amount), amount);
+        }
+    }
+
+    @Test
+    @DisplayName("""
+            parse()
+            - Should round extra fraction digits half up
+            """)
+    public void parse_MoreFractionDigitsThanScale_RoundsHalfUp() {
+        assertEquals(new Money(13), Money.parse("0.125"));
+        assertEquals(new Money(12), Money.parse("0.1249"));
+        assertEquals(new Money(-13), Money.parse("-0.125"));
+        assertEquals(Money.of(new BigDecimal("0.125")), Money.parse("0.125"));
+    }
+
+    @Test
+    @DisplayName("""
+            lowerBound(), upperBound()
+            - Should round a price range inwards so it never takes in a price it excludes
+            """)
+    public void bounds_MoreFractionDigitsThanScale_RoundInwards() {
+        assertEquals(new Money(1001), Money.upperBound("10.015"));
+        assertEquals(new Money(1000), Money.upperBound("10.005"));
+        assertEquals(new Money(1001), Money.lowerBound("10.005"));
+        assertEquals(new Money(1000), Money.lowerBound("10.000"));
+        assertEquals(new Money(-1000), Money.lowerBound("-10.005"));
+        assertEquals(new Money(-1001), Money.upperBound("-10.005"));
+    }
+
+    @Test
+    @DisplayName("""
+            lowerBound(), upperBound()
+            - Should clamp a bound past the range of minor units instead of failing
+            """)
+    public void bounds_PastRangeOfMinorUnits_ClampToRange() {
+        String huge = "100000000000000000000";
+
+        assertEquals(new Money(Long.MAX_VALUE), Money.lowerBound(huge));
+        assertEquals(new Money(Long.MAX_VALUE), Money.upperBound(huge));
+        assertEquals(new Money(Long.MIN_VALUE), Money.lowerBound("-" + huge));
+    }
+
+    @Test
+    @DisplayName("""
+            parse()
+            - Should reject anything that is not a plain decimal number
+            """)
+    public void parse_InvalidAmount_ThrowsException() {
+        for (String amount : new String[]{"", "-", ".", "1.2.3", "12a", "1e3"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(amount), amount);
+        }
+    }
+
+    @Test
+    @DisplayName("""
+            plus(), times()
+            - Should sum line totals exactly and convert back with the currency scale
+            """)
+    public void plusTimes_OrderLines_ReturnsExactTotal() {
+        Money total = Money.of(new BigDecimal("19.99")).times(3)
+                .plus(Money.of(new BigDecimal("0.10")).times(7));
+
+        assertEquals(new BigDecimal("60.67"), total.toBigDecimal());
+    }
+
+    @Test
+    @DisplayName("""
+            times()
+            - Should fail instead of wrapping around on overflow
+            """)
+    public void times_Overflow_ThrowsException() {
+        assertThrows(ArithmeticException.class,
+                () -> new Money(Long.MAX_VALUE / 2).times(3));
+    }
+}
@@ -5,13 +5,16 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGEABLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGE_SIZE_2;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.NON_EXISTED_CATEGORY_ID;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.SECOND_CATEGORY_ID;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,9 +24,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.book.specification.CategorySpecificationProvider;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -56,7 +65,7 @@ class BookRepositoryTest {
 
         List<String> actualTitles
                 = bookRepository.findBooksByCategoryId(SECOND_CATEGORY_ID, PAGEABLE).stream()
-                .map(Book::getTitle)
+                .map(BookDtoWithoutCategoryIds::title)
                 .toList();
 
         assertEquals(expectedTitles, actualTitles);
@@ -68,7 +77,8 @@ class BookRepositoryTest {
             - should return an empty page when the category ID does not exist
             """)
     void findBooksByCategoryId_NonExistingCategoryId_ReturnsEmptyPage() {
-        Page<Book> actual = bookRepository.findBooksByCategoryId(NON_EXISTED_CATEGORY_ID, PAGEABLE);
+        Page<BookDtoWithoutCategoryIds> actual =
+                bookRepository.findBooksByCategoryId(NON_EXISTED_CATEGORY_ID, PAGEABLE);
 
         assertTrue(actual.isEmpty());
     }
@@ -102,7 +112,7 @@ class BookRepositoryTest {
 
         List<String> actualTitles
                 = bookRepository.findBooksByCategoryId(SECOND_CATEGORY_ID, PAGEABLE).stream()
-                .map(Book::getTitle)
+                .map(BookDtoWithoutCategoryIds::title)
                 .toList();
 
         assertEquals(expectedTitles, actualTitles);
@@ -110,11 +120,12 @@ class BookRepositoryTest {
 
     @Test
     @DisplayName("""
-            findAllWithCategories()
+            findAllWithCategoriesByIdIn()
             - should fetch books with initialized categories without LazyInitializationException
             """)
-    void findAllWithCategories_getInitializedCategory_DoesNotThrowLazyInitializationException() {
-        List<Book> allWithCategories = bookRepository.findAllWithCategories(PAGEABLE).getContent();
+    void findAllWithCategoriesByIdIn_getInitializedCategory_DoesNotThrowLazyInitialization() {
+        List<Long> bookIds = bookRepository.findAllIds(PAGEABLE).getContent();
+        List<Book> allWithCategories = bookRepository.findAllWithCategoriesByIdIn(bookIds);
 
         assertAll(
                 allWithCategories.stream()
@@ -125,4 +136,49 @@ class BookRepositoryTest {
                         ))
         );
     }
+
+    @Test
+    @DisplayName("""
+            findBy()
+            - should scroll every book once when a book is in several of the searched categories
+            """)
+    @Sql(scripts = "classpath:scripts/book/insert_first_category_of_third_book.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void findBy_BookInSeveralSearchedCategories_ScrollsEveryBookOnce() {
+        List<Long> actualIds = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Book> window;
+        do {
+            ScrollPosition windowPosition = position;
+            window = bookRepository.findBy(searchFirstAndSecondCategories(),
+                    query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                            .limit(PAGE_SIZE_2)
+                            .scroll(windowPosition));
+            window.forEach(book -> actualIds.add(book.getId()));
+            position = window.isEmpty() ? position : window.positionAt(window.size() - 1);
+        } while (window.hasNext());
+
+        assertEquals(List.of(THIRD_BOOK_ID, SECOND_BOOK_ID, FIRST_BOOK_ID), actualIds);
+    }
+
+    @Test
+    @DisplayName("""
+            findIds()
+            - should page and count a book in several of the searched categories once
+            """)
+    @Sql(scripts = "classpath:scripts/book/insert_first_category_of_third_book.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void findIds_BookInSeveralSearchedCategories_ReturnsBookOnce() {
+        Page<Long> actualIds = bookRepository.findIds(searchFirstAndSecondCategories(),
+                PageRequest.of(0, PAGEABLE.getPageSize(), Sort.by("id")));
+
+        assertEquals(List.of(FIRST_BOOK_ID, SECOND_BOOK_ID, THIRD_BOOK_ID),
+                actualIds.getContent());
+        assertEquals(actualIds.getContent().size(), actualIds.getTotalElements());
+    }
+
+    private Specification<Book> searchFirstAndSecondCategories() {
+        return new CategorySpecificationProvider().getSpecification(new String[]{
+                String.valueOf(FIRST_CATEGORY_ID), String.valueOf(SECOND_CATEGORY_ID)});
+    }
 }
@@ -0,0 +1,71 @@
+package ruslan.shastkiv.bookstore.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_ID_1;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderItem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.model.OrderItem;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemRepository;
+import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+
+/*
+The generator row is seeded the way the id_generators changeset seeds it for a non-empty table,
+with the next value right above the highest existing id. A fresh context makes the first insert
+read that row instead of a block cached by another test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql",
+                "classpath:scripts/book/insert_books_to_db.sql",
+                "classpath:scripts/order/insert_order.sql",
+                "classpath:scripts/order/insert_order_items_above_generator.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/order/remove_order_items_above_generator.sql",
+                "classpath:scripts/order/remove_order.sql",
+                "classpath:scripts/book/remove_test_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+public class OrderItemIdGeneratorTest {
+    private static final Long HIGHEST_EXISTING_ID = 5001L;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("""
+            save()
+            - Should give a new order item an id above the ones already in the table
+            """)
+    public void save_GeneratorSeededFromNonEmptyTable_GeneratesFreeId() {
+        OrderItem orderItem = createOrderItem(THIRD_BOOK_ID,
+                orderRepository.findById(ORDER_ID_1).orElseThrow());
+        orderItem.setId(null);
+
+        OrderItem savedItem = orderItemRepository.saveAndFlush(orderItem);
+
+        assertTrue(savedItem.getId() > HIGHEST_EXISTING_ID);
+    }
+}
@@ -1,10 +1,7 @@
 package ruslan.shastkiv.bookstore.repository;
 
-import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGEABLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
@@ -27,6 +24,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
 import ruslan.shastkiv.bookstore.model.Order;
 import ruslan.shastkiv.bookstore.model.OrderItem;
 import ruslan.shastkiv.bookstore.model.User;
@@ -71,34 +69,15 @@ public class OrderItemRepositoryTest {
         Order expectedOrder = createOrder(user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
         Set<OrderItem> expectedItems = expectedOrder.getOrderItems();
 
-        Page<OrderItem> actualPage = orderItemRepository.findAllByOrderId(ORDER_ID_1, PAGEABLE);
-        Set<OrderItem> actualItems = actualPage.get().collect(Collectors.toSet());
+        Page<OrderItemDto> actualPage = orderItemRepository.findAllByOrderId(ORDER_ID_1, PAGEABLE);
+        Set<OrderItemDto> actualItems = actualPage.get().collect(Collectors.toSet());
 
         assertTrue(actualPage.hasContent());
-        assertAll("Order items lists comparison",
-                () -> assertIterableEquals(
-                        expectedItems.stream().map(OrderItem::getId).collect(Collectors.toSet()),
-                        actualItems.stream().map(OrderItem::getId).collect(Collectors.toSet()),
-                        "IDs do not match"
-                ),
-                () -> assertIterableEquals(
-                        expectedItems.stream().map(OrderItem::getBook).collect(Collectors.toSet()),
-                        actualItems.stream().map(OrderItem::getBook).collect(Collectors.toSet()),
-                        "Books do not match"
-                ),
-                () -> assertIterableEquals(
-                        expectedItems.stream().map(OrderItem::getQuantity)
-                                .collect(Collectors.toSet()),
-                        actualItems.stream().map(OrderItem::getQuantity)
-                                .collect(Collectors.toSet()),
-                        "Quantities do not match"
-                ),
-                () -> assertTrue(
-                        actualItems.stream().allMatch(item
-                                -> item.getOrder().getId().equals(ORDER_ID_1)),
-                        "Order Ids do not match"
-                )
-        );
+        assertEquals(expectedItems.stream()
+                        .map(item -> new OrderItemDto(item.getId(), item.getBook().getId(),
+                                item.getQuantity()))
+                        .collect(Collectors.toSet()),
+                actualItems);
     }
 
     @Test
@@ -107,7 +86,7 @@ public class OrderItemRepositoryTest {
             - should return empty pageable Order Items when invalid Order ID is provided
             """)
     public void findAllByOrderId_notExistedOrderId_returnEmptyPage() {
-        Page<OrderItem> actualPage
+        Page<OrderItemDto> actualPage
                 = orderItemRepository.findAllByOrderId(NOT_EXISTED_ORDER_ID, PAGEABLE);
         assertTrue(actualPage.isEmpty());
     }
@@ -118,14 +97,11 @@ public class OrderItemRepositoryTest {
             - should return Optional with Order Item when valid IDs are provided
             """)
     public void findByIdAndOrderId_validRequest_returnOptionalWithOrderItem() {
-        Optional<OrderItem> actual
+        Optional<OrderItemDto> actual
                 = orderItemRepository.findByIdAndOrderId(ORDER_ITEM_ID_1, ORDER_ID_1);
 
         assertTrue(actual.isPresent());
-        assertEquals(
-                actual.get().getBook().getTitle(),
-                CUSTOM_BOOK_TITLE.formatted(FIRST_BOOK_ID)
-        );
+        assertEquals(FIRST_BOOK_ID, actual.get().bookId());
     }
 
     @Test
@@ -134,7 +110,7 @@ public class OrderItemRepositoryTest {
             - should return empty Optional when invalid Order ID is provided
             """)
     public void findByIdAndOrderId_invalidOrderId_returnEmptyOptional() {
-        Optional<OrderItem> actual
+        Optional<OrderItemDto> actual
                 = orderItemRepository.findByIdAndOrderId(ORDER_ITEM_ID_1, NOT_EXISTED_ORDER_ID);
 
         assertTrue(actual.isEmpty());
@@ -146,7 +122,7 @@ public class OrderItemRepositoryTest {
             - should return empty Optional when invalid Order Item ID is provided
             """)
     public void findByIdAndOrderId_invalidOrderItemId_returnEmptyOptional() {
-        Optional<OrderItem> actual
+        Optional<OrderItemDto> actual
                 = orderItemRepository.findByIdAndOrderId(NOT_EXISTED_ORDER_ITEM_ID, ORDER_ID_1);
 
         assertTrue(actual.isEmpty());
@@ -0,0 +1,330 @@
+package ruslan.shastkiv.bookstore.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.config.QueryCaptureInterceptor;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Order;
+import ruslan.shastkiv.bookstore.model.Role;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.book.specification.AuthorSpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.CategorySpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.PriceSpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.book.specification.TitleSpecificationProvider;
+import ruslan.shastkiv.bookstore.repository.item.CartItemRepository;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemRepository;
+import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+import ruslan.shastkiv.bookstore.repository.role.RoleRepository;
+import ruslan.shastkiv.bookstore.repository.user.UserRepository;
+
+/*
+Runs every query a repository method sends under EXPLAIN on MySQL and fails on a full
+table scan. The data set is big enough, and analyzed, for the optimizer to cost the
+indexes the way it would in production. findAllWithCategories() and findAllCategoryLinks()
+read the whole catalog on purpose and aren't checked.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:tc:mysql:8.0:///bookstore"
+        + "?queryInterceptors=ruslan.shastkiv.bookstore.config.QueryCaptureInterceptor")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(scripts = "classpath:scripts/plan/insert_query_plan_data.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:scripts/plan/remove_query_plan_data.sql",
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+public class QueryPlanTest {
+    private static final String FULL_TABLE_SCAN = "ALL";
+    private static final String ACCESS_TYPE = "type";
+    private static final String TABLE = "table";
+    private static final String DERIVED_TABLE_PREFIX = "<";
+
+    private static final Long CATEGORY_ID = 1003L;
+    private static final Long USER_ID = 1001L;
+    private static final Long ORDER_ID = 1001L;
+    private static final Long CART_ITEM_ID = 1000001L;
+    private static final Long ORDER_ITEM_ID = 1000001L;
+    private static final Long PENDING_ORDER_USER_ID = 1100L;
+    private static final String IDEMPOTENCY_KEY = "plan-key-100";
+    private static final String EMAIL = "plan_user_1@mail.com";
+    private static final Pageable BOOK_PAGE = PageRequest.of(0, 20, Sort.by("title"));
+    private static final Pageable ORDER_PAGE = PageRequest.of(0, 20, Sort.by("orderDate"));
+    private static final Limit LIMIT = Limit.of(20);
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            findBooksByCategoryId()
+            - Should find the books of a category without a full table scan
+            """)
+    public void findBooksByCategoryId_IndexedCategory_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findBooksByCategoryId(CATEGORY_ID, BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findByCategoriesId()
+            - Should scroll the books of a category without a full table scan
+            """)
+    public void findByCategoriesId_IndexedCategory_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findByCategoriesId(CATEGORY_ID,
+                ScrollPosition.keyset(), Sort.by("id"), LIMIT));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllIds()
+            - Should page book ids by title without a full table scan
+            """)
+    public void findAllIds_SortedByTitle_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findAllIds(BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllWithCategoriesByIdIn()
+            - Should load books with categories by ids without a full table scan
+            """)
+    public void findAllWithCategoriesByIdIn_BookIds_NoFullTableScan() {
+        Long firstBookId = firstBookId();
+        assertNoFullTableScan(() -> bookRepository.findAllWithCategoriesByIdIn(
+                List.of(firstBookId, firstBookId + 1, firstBookId + 2)));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllWithoutCategoryIdsByIdIn()
+            - Should load book projections by ids without a full table scan
+            """)
+    public void findAllWithoutCategoryIdsByIdIn_BookIds_NoFullTableScan() {
+        Long firstBookId = firstBookId();
+        assertNoFullTableScan(() -> bookRepository.findAllWithoutCategoryIdsByIdIn(
+                List.of(firstBookId, firstBookId + 1, firstBookId + 2)));
+    }
+
+    @Test
+    @DisplayName("""
+            findIdsAfter()
+            - Should read the next batch of book ids without a full table scan
+            """)
+    public void findIdsAfter_LastBatch_NoFullTableScan() {
+        Long afterId = firstBookId() + 9_900;
+        assertNoFullTableScan(() -> bookRepository.findIdsAfter(afterId, BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findIds()
+            - Should search books by author without a full table scan
+            """)
+    public void findIds_ByAuthor_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findIds(new AuthorSpecificationProvider()
+                .getSpecification(new String[]{"Plan_Author_1", "Plan_Author_2"}), BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findIds()
+            - Should search books by title without a full table scan
+            """)
+    public void findIds_ByTitle_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findIds(new TitleSpecificationProvider()
+                .getSpecification(new String[]{"Plan_Title_1", "Plan_Title_2"}), BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findIds()
+            - Should search books by price range without a full table scan
+            """)
+    public void findIds_ByPriceRange_NoFullTableScan() {
+        Specification<Book> specification = new PriceSpecificationProvider()
+                .getSpecification(new String[]{"10", "11"});
+        assertNoFullTableScan(() -> bookRepository.findIds(specification,
+                PageRequest.of(0, 20, Sort.by("price"))));
+    }
+
+    @Test
+    @DisplayName("""
+            findIds()
+            - Should search books by category without a full table scan
+            """)
+    public void findIds_ByCategory_NoFullTableScan() {
+        assertNoFullTableScan(() -> bookRepository.findIds(new CategorySpecificationProvider()
+                .getSpecification(new String[]{CATEGORY_ID.toString()}), BOOK_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findByEmail()
+            - Should load a user with roles by email without a full table scan
+            """)
+    public void findByEmail_ExistingEmail_NoFullTableScan() {
+        assertNoFullTableScan(() -> userRepository.findByEmail(EMAIL));
+    }
+
+    @Test
+    @DisplayName("""
+            existsByEmail()
+            - Should check an email without a full table scan
+            """)
+    public void existsByEmail_ExistingEmail_NoFullTableScan() {
+        assertNoFullTableScan(() -> userRepository.existsByEmail(EMAIL));
+    }
+
+    @Test
+    @DisplayName("""
+            findByRoleName()
+            - Should find a role by name without a full table scan
+            """)
+    public void findByRoleName_UserRole_NoFullTableScan() {
+        assertNoFullTableScan(() -> roleRepository.findByRoleName(Role.RoleName.ROLE_USER));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllByUserId()
+            - Should page the orders of a user by date without a full table scan
+            """)
+    public void findAllByUserId_PageSortedByDate_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderRepository.findAllByUserId(USER_ID, ORDER_PAGE));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllByUserId()
+            - Should scroll the orders of a user by date without a full table scan
+            """)
+    public void findAllByUserId_WindowSortedByDate_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderRepository.findAllByUserId(USER_ID,
+                ScrollPosition.keyset(), Sort.by("orderDate", "id"), LIMIT));
+    }
+
+    @Test
+    @DisplayName("""
+            findByIdAndUserId()
+            - Should find an order of a user without a full table scan
+            """)
+    public void findByIdAndUserId_ExistingOrder_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderRepository.findByIdAndUserId(ORDER_ID, USER_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            findByUserIdAndIdempotencyKey()
+            - Should find an accepted order by its key without a full table scan
+            """)
+    public void findByUserIdAndIdempotencyKey_ExistingKey_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderRepository.findByUserIdAndIdempotencyKey(
+                PENDING_ORDER_USER_ID, IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    @DisplayName("""
+            findAcceptedOrderIds()
+            - Should find orders awaiting assembly without a full table scan
+            """)
+    public void findAcceptedOrderIds_PendingStatus_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderRepository.findAcceptedOrderIds(Order.Status.PENDING));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllByOrderId()
+            - Should page the items of an order without a full table scan
+            """)
+    public void findAllByOrderId_ExistingOrder_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderItemRepository.findAllByOrderId(ORDER_ID,
+                PageRequest.of(0, 20)));
+    }
+
+    @Test
+    @DisplayName("""
+            findByIdAndOrderId()
+            - Should find an item of an order without a full table scan
+            """)
+    public void findByIdAndOrderId_ExistingItem_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderItemRepository.findByIdAndOrderId(ORDER_ITEM_ID,
+                ORDER_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            findAllByOrderIdIn()
+            - Should find the items of a page of orders without a full table scan
+            """)
+    public void findAllByOrderIdIn_ExistingOrders_NoFullTableScan() {
+        assertNoFullTableScan(() -> orderItemRepository.findAllByOrderIdIn(List.of(ORDER_ID)));
+    }
+
+    @Test
+    @DisplayName("""
+            findByBookIdAndShoppingCartId()
+            - Should find a cart line by book without a full table scan
+            """)
+    public void findByBookIdAndShoppingCartId_ExistingLine_NoFullTableScan() {
+        Long firstBookId = firstBookId();
+        assertNoFullTableScan(() -> cartItemRepository.findByBookIdAndShoppingCartId(
+                firstBookId, USER_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            findByIdAndShoppingCartId()
+            - Should find a cart line by id without a full table scan
+            """)
+    public void findByIdAndShoppingCartId_ExistingLine_NoFullTableScan() {
+        assertNoFullTableScan(() -> cartItemRepository.findByIdAndShoppingCartId(CART_ITEM_ID,
+                USER_ID));
+    }
+
+    private void assertNoFullTableScan(Runnable repositoryCall) {
+        List<String> queries = QueryCaptureInterceptor.capture(repositoryCall);
+
+        assertFalse(queries.isEmpty(), "Repository method sent no query");
+        queries.forEach(query -> {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + query);
+            assertTrue(plan.stream().noneMatch(this::isFullTableScan),
+                    () -> "Full table scan in [" + query + "]: " + plan);
+        });
+    }
+
+    private boolean isFullTableScan(Map<String, Object> planRow) {
+        Object table = planRow.get(TABLE);
+        return FULL_TABLE_SCAN.equals(planRow.get(ACCESS_TYPE))
+                && table != null
+                && !table.toString().startsWith(DERIVED_TABLE_PREFIX);
+    }
+
+    private Long firstBookId() {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM books WHERE title LIKE 'Plan_Title_%'", Long.class);
+    }
+}
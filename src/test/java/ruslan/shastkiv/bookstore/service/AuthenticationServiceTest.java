@@ -6,7 +6,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.JWT_TOKEN_EXAMPLE;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUserLoginRequestDto;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import ruslan.shastkiv.bookstore.dto.user.UserLoginRequestDto;
 import ruslan.shastkiv.bookstore.dto.user.UserLoginResponseDto;
 import ruslan.shastkiv.bookstore.security.AuthenticationService;
@@ -37,14 +40,16 @@ public class AuthenticationServiceTest {
             """)
     public void authenticate_validRequest_returnToken() {
         UserLoginRequestDto requestDto = createUserLoginRequestDto(USER_ID);
+        Authentication authentication = getAuthentication(createUser(USER_ID));
+        UsernamePasswordAuthenticationToken credentials =
+                new UsernamePasswordAuthenticationToken(requestDto.email(), requestDto.password());
 
-        when(jwtUtil.generateToken(eq(requestDto.email()))).thenReturn(JWT_TOKEN_EXAMPLE);
+        when(authenticationManager.authenticate(credentials)).thenReturn(authentication);
+        when(jwtUtil.generateToken(eq(authentication))).thenReturn(JWT_TOKEN_EXAMPLE);
         UserLoginResponseDto responseDto = authenticationService.authenticate(requestDto);
 
         assertEquals(JWT_TOKEN_EXAMPLE, responseDto.token());
-        verify(jwtUtil).generateToken(requestDto.email());
-        verify(authenticationManager).authenticate(
-                new UsernamePasswordAuthenticationToken(requestDto.email(), requestDto.password())
-        );
+        verify(jwtUtil).generateToken(authentication);
+        verify(authenticationManager).authenticate(credentials);
     }
 }
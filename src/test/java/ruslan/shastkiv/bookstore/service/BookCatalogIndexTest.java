@@ -0,0 +1,147 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_AUTHOR;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.NON_EXISTING_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.SECOND_CATEGORY_ID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.mapper.BookMapper;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.book.BookSpecificationBuilder;
+import ruslan.shastkiv.bookstore.service.book.BookCatalogIndex;
+
+@Sql(scripts = {
+        "classpath:scripts/book/insert_books_to_db.sql",
+        "classpath:scripts/category/insert_categories_to_db.sql",
+        "classpath:scripts/book/insert_relations_between_book_and_categories.sql",
+},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = {
+        "classpath:scripts/book/remove_relations_between_books_and_categories_from_db.sql",
+        "classpath:scripts/category/remove_categories_from_db.sql",
+        "classpath:scripts/book/remove_test_books_from_db.sql"
+},
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@SpringBootTest(properties = "catalog.index.enabled=true")
+@Transactional
+public class BookCatalogIndexTest {
+    private static final Pageable SORTED_PAGEABLE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private BookCatalogIndex bookCatalogIndex;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    @Autowired
+    private BookMapper bookMapper;
+
+    @BeforeEach
+    void setUp() {
+        bookCatalogIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the same page as the Specification engine when no filters are given
+            """)
+    public void search_NoFilters_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(null, null, null, null, null),
+                SORTED_PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the same page as the Specification engine for author and title
+            """)
+    public void search_AuthorsAndTitles_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(
+                new String[]{CUSTOM_BOOK_AUTHOR.formatted(FIRST_BOOK_ID),
+                        CUSTOM_BOOK_AUTHOR.formatted(SECOND_BOOK_ID)},
+                new String[]{CUSTOM_BOOK_TITLE.formatted(SECOND_BOOK_ID).toLowerCase()},
+                null,
+                null,
+                null), SORTED_PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the same page as the Specification engine for price ranges
+            """)
+    public void search_Prices_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(null, null,
+                new String[]{String.valueOf(SECOND_BOOK_ID)}, null, null), SORTED_PAGEABLE);
+        assertSameResults(new BookSearchParametersDto(null, null,
+                new String[]{String.valueOf(FIRST_BOOK_ID), String.valueOf(SECOND_BOOK_ID)},
+                null, null), SORTED_PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the same page as the Specification engine for categories
+            """)
+    public void search_Categories_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(null, null, null,
+                new String[]{String.valueOf(SECOND_CATEGORY_ID)}, null), SORTED_PAGEABLE);
+        assertSameResults(new BookSearchParametersDto(
+                new String[]{CUSTOM_BOOK_AUTHOR.formatted(THIRD_BOOK_ID)},
+                null,
+                new String[]{String.valueOf(FIRST_BOOK_ID)},
+                new String[]{String.valueOf(FIRST_CATEGORY_ID),
+                        String.valueOf(SECOND_CATEGORY_ID)},
+                null), SORTED_PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the same empty page as the Specification engine when nothing matches
+            """)
+    public void search_NoMatches_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(null,
+                new String[]{NON_EXISTING_TITLE}, null, null, null), SORTED_PAGEABLE);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should page and sort the same way as the Specification engine
+            """)
+    public void search_PagedAndSortedDescending_MatchesSpecificationEngine() {
+        assertSameResults(new BookSearchParametersDto(null, null, null, null, null),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price")));
+    }
+
+    private void assertSameResults(BookSearchParametersDto searchParameters, Pageable pageable) {
+        Page<BookDto> expected = bookRepository
+                .findAll(bookSpecificationBuilder.build(searchParameters), pageable)
+                .map(bookMapper::toDto);
+
+        Page<BookDto> actual = bookCatalogIndex.search(searchParameters, pageable);
+
+        assertEquals(expected.getTotalElements(), actual.getTotalElements());
+        assertEquals(expected.getContent(), actual.getContent());
+    }
+}
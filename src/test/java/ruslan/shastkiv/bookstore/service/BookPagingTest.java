@@ -0,0 +1,97 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.dto.book.BookDto;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.service.book.BookService;
+
+@Sql(scripts = "classpath:scripts/book/insert_100k_books_to_db.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:scripts/book/remove_100k_books_from_db.sql",
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookPagingTest {
+    private static final long BOOKS_COUNT = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final Pageable DEEP_PAGE = PageRequest.of(1_000, PAGE_SIZE, Sort.by("title"));
+    /*
+    Ids, count and one fetch-join for the page; anything more means paging went per row.
+     */
+    private static final long EXPECTED_STATEMENTS = 3;
+    private static final long MAX_ALLOCATED_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("""
+            getAll()
+            - Should page in the database and load only the books of the requested page
+            """)
+    public void getAll_DeepPageOf100kBooks_LoadsOnlyRequestedPage() {
+        Page<BookDto> actual = assertBoundedAllocation(() -> bookService.getAll(DEEP_PAGE));
+
+        assertEquals(PAGE_SIZE, actual.getContent().size());
+        assertEquals(BOOKS_COUNT, actual.getTotalElements());
+        assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should page matching ids in the database and load only the books of the page
+            """)
+    public void search_PriceRangeOver100kBooks_LoadsOnlyRequestedPage() {
+        BookSearchParametersDto searchParameters = new BookSearchParametersDto(
+                null, null, new String[]{"0", "49"}, null, null);
+
+        Page<BookDto> actual = assertBoundedAllocation(
+                () -> bookService.search(searchParameters, DEEP_PAGE));
+
+        assertEquals(PAGE_SIZE, actual.getContent().size());
+        assertEquals(BOOKS_COUNT / 2, actual.getTotalElements());
+        assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, statistics.getEntityLoadCount());
+    }
+
+    private <T> T assertBoundedAllocation(Supplier<T> action) {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        T result = action.get();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertTrue(allocated < MAX_ALLOCATED_BYTES,
+                "Expected less than " + MAX_ALLOCATED_BYTES + " bytes, but allocated: "
+                        + allocated);
+        return result;
+    }
+}
@@ -4,6 +4,8 @@ import static org.apache.commons.lang3.builder.EqualsBuilder.reflectionEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -15,6 +17,8 @@ import static ruslan.shastkiv.bookstore.utils.BookTestUtils.INVALID_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.NON_EXISTING_TITLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGEABLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGE_SIZE_1;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGE_SIZE_2;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookDtoById;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookDtoWithoutCategoryIds;
@@ -24,7 +28,10 @@ import static ruslan.shastkiv.bookstore.utils.BookTestUtils.updateBookRequestDto
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.createCategoryById;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.Assertions;
@@ -39,20 +46,33 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
 import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.exception.InvalidCursorException;
+import ruslan.shastkiv.bookstore.exception.TextSearchDisabledException;
 import ruslan.shastkiv.bookstore.mapper.BookMapper;
 import ruslan.shastkiv.bookstore.mapper.BookMapperImpl;
 import ruslan.shastkiv.bookstore.mapper.CategoryMapper;
 import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.repository.book.BookRepository;
 import ruslan.shastkiv.bookstore.repository.book.BookSpecificationBuilder;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
 import ruslan.shastkiv.bookstore.repository.category.CategoryRepository;
+import ruslan.shastkiv.bookstore.service.book.BookCatalogIndex;
 import ruslan.shastkiv.bookstore.service.book.BookServiceImpl;
+import ruslan.shastkiv.bookstore.service.book.BookTextIndex;
+import ruslan.shastkiv.bookstore.service.book.CategoryBookIndex;
+import ruslan.shastkiv.bookstore.service.cart.CartWriteBehindStore;
+import ruslan.shastkiv.bookstore.service.cursor.CursorCodec;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceTest {
@@ -64,9 +84,21 @@ public class BookServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private BookSpecificationBuilder specificationBuilder;
+    @Mock
+    private BookCatalogIndex bookCatalogIndex;
+    @Mock
+    private BookTextIndex bookTextIndex;
+    @Mock
+    private CategoryBookIndex categoryBookIndex;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private CartWriteBehindStore cartStore;
 
     @Spy
     private BookMapper bookMapper = new BookMapperImpl(Mappers.getMapper(CategoryMapper.class));
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec(new ObjectMapper());
 
     @Test
     @DisplayName("""
@@ -95,16 +127,41 @@ public class BookServiceTest {
             """)
     void getAll_ValidPage_ReturnPageWithBookDto() {
         Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
-        Page<Book> bookPage = new PageImpl<>(List.of(book), PAGEABLE, PAGE_SIZE_1);
+        Page<Long> bookIds = new PageImpl<>(List.of(FIRST_BOOK_ID), PAGEABLE, PAGE_SIZE_1);
         BookDto bookDto = createBookDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
 
-        when(bookRepository.findAllWithCategories(PAGEABLE)).thenReturn(bookPage);
+        when(bookRepository.findAllIds(PAGEABLE)).thenReturn(bookIds);
+        when(bookRepository.findAllWithCategoriesByIdIn(List.of(FIRST_BOOK_ID)))
+                .thenReturn(List.of(book));
         Page<BookDto> expected = new PageImpl<>(List.of(bookDto), PAGEABLE, PAGE_SIZE_1);
         Page<BookDto> actual = bookService.getAll(PAGEABLE);
 
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("""
+            getAll()
+            - should return a page of BookDto with a cursor pointing after the last book
+            """)
+    void getAll_ValidCursorRequest_ReturnCursorPageWithBookDto() {
+        Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        BookDto bookDto = createBookDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        CursorRequestDto cursorRequest = new CursorRequestDto(null, PAGE_SIZE_1);
+        Window<Book> books = Window.from(List.of(book),
+                index -> ScrollPosition.forward(Map.of("id", FIRST_BOOK_ID)), true);
+        doReturn(books).when(bookRepository).findBy(any(Specification.class), any());
+        when(bookRepository.findAllWithCategoriesByIdIn(List.of(FIRST_BOOK_ID)))
+                .thenReturn(List.of(book));
+
+        CursorPageDto<BookDto> actual = bookService.getAll(cursorRequest, Sort.by("id"));
+
+        assertEquals(List.of(bookDto), actual.content());
+        assertEquals(Map.of("id", FIRST_BOOK_ID), cursorCodec.toPosition(
+                new CursorRequestDto(actual.nextCursor(), PAGE_SIZE_1), Book.class,
+                Sort.by("id")).getKeys());
+    }
+
     @Test
     @DisplayName("""
             getBookById()
@@ -147,6 +204,23 @@ public class BookServiceTest {
 
         verify(bookMapper).updateBookFromDto(requestDto, book);
         verify(bookRepository).save(book);
+        verifyNoInteractions(shoppingCartRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            updateBook()
+            - should mark the shopping carts holding the book as not priced when its price changes
+            """)
+    void updateBook_ChangedPrice_MarksCartsUnpriced() {
+        CreateBookRequestDto requestDto = updateBookRequestDtoById(FIRST_BOOK_ID);
+        requestDto.setPrice(requestDto.getPrice().add(BigDecimal.ONE));
+        Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        when(bookRepository.findById(FIRST_BOOK_ID)).thenReturn(Optional.of(book));
+
+        bookService.updateBook(FIRST_BOOK_ID, requestDto);
+
+        verify(shoppingCartRepository).markUnpricedByBookId(FIRST_BOOK_ID);
     }
 
     @Test
@@ -158,6 +232,7 @@ public class BookServiceTest {
         bookService.deleteBook(FIRST_BOOK_ID);
 
         verify(bookRepository).deleteById(FIRST_BOOK_ID);
+        verify(shoppingCartRepository).markUnpricedByBookId(FIRST_BOOK_ID);
         verifyNoMoreInteractions(bookRepository);
     }
 
@@ -172,17 +247,19 @@ public class BookServiceTest {
                 -> criteriaBuilder.equal(
                         root.get("title"), CUSTOM_BOOK_TITLE.formatted(FIRST_BOOK_ID));
         Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
-        Page<Book> books = new PageImpl<>(List.of(book), PAGEABLE, PAGE_SIZE_1);
+        Page<Long> bookIds = new PageImpl<>(List.of(FIRST_BOOK_ID), PAGEABLE, PAGE_SIZE_1);
         BookDto dto = createBookDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
         when(specificationBuilder.build(searchParametersDto)).thenReturn(specification);
-        when(bookRepository.findAll(specification, PAGEABLE)).thenReturn(books);
+        when(bookRepository.findIds(specification, PAGEABLE)).thenReturn(bookIds);
+        when(bookRepository.findAllWithCategoriesByIdIn(List.of(FIRST_BOOK_ID)))
+                .thenReturn(List.of(book));
         Page<BookDto> expected = new PageImpl<>(List.of(dto), PAGEABLE, PAGE_SIZE_1);
         Page<BookDto> actual = bookService.search(searchParametersDto, PAGEABLE);
 
         assertEquals(expected, actual);
 
         verify(specificationBuilder).build(searchParametersDto);
-        verify(bookRepository).findAll(specification, PAGEABLE);
+        verify(bookRepository).findIds(specification, PAGEABLE);
         verify(bookMapper).toDto(book);
     }
 
@@ -196,31 +273,103 @@ public class BookServiceTest {
         Specification<Book> specification = (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("title"), NON_EXISTING_TITLE);
         when(specificationBuilder.build(searchParametersDto)).thenReturn(specification);
-        when(bookRepository.findAll(specification, PAGEABLE)).thenReturn(Page.empty(PAGEABLE));
+        when(bookRepository.findIds(specification, PAGEABLE)).thenReturn(Page.empty(PAGEABLE));
 
         Page<BookDto> actual = bookService.search(searchParametersDto, PAGEABLE);
 
         assertTrue(actual.isEmpty());
         verify(specificationBuilder).build(searchParametersDto);
-        verify(bookRepository).findAll(specification, PAGEABLE);
+        verify(bookRepository).findIds(specification, PAGEABLE);
         verifyNoMoreInteractions(specificationBuilder, bookRepository);
         verifyNoInteractions(bookMapper);
     }
 
+    @Test
+    @DisplayName("""
+            search()
+            - should answer from the catalog index without querying the database when enabled
+            """)
+    void search_CatalogIndexEnabled_ReturnBookDtoPageFromIndex() {
+        BookSearchParametersDto searchParametersDto = createSearchParamsDto();
+        BookDto dto = createBookDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        Page<BookDto> expected = new PageImpl<>(List.of(dto), PAGEABLE, PAGE_SIZE_1);
+        when(bookCatalogIndex.isEnabled()).thenReturn(true);
+        when(bookCatalogIndex.search(searchParametersDto, PAGEABLE)).thenReturn(expected);
+
+        Page<BookDto> actual = bookService.search(searchParametersDto, PAGEABLE);
+
+        assertEquals(expected, actual);
+        verifyNoInteractions(specificationBuilder, bookRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - should load books ranked by the text index in the same order when query is given
+            """)
+    void search_TextQuery_ReturnBookDtoPageInRankOrder() {
+        BookSearchParametersDto searchParametersDto = new BookSearchParametersDto(
+                null, null, null, null, CUSTOM_BOOK_TITLE.formatted(SECOND_BOOK_ID));
+        Book firstBook = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        Book secondBook = createBookById(SECOND_BOOK_ID, List.of(FIRST_CATEGORY_ID));
+        List<Long> rankedIds = List.of(SECOND_BOOK_ID, FIRST_BOOK_ID);
+        when(bookTextIndex.isEnabled()).thenReturn(true);
+        when(bookTextIndex.search(searchParametersDto, PAGEABLE))
+                .thenReturn(new PageImpl<>(rankedIds, PAGEABLE, PAGE_SIZE_2));
+        when(bookRepository.findAllWithCategoriesByIdIn(rankedIds))
+                .thenReturn(List.of(firstBook, secondBook));
+        Page<BookDto> expected = new PageImpl<>(List.of(
+                createBookDtoById(SECOND_BOOK_ID, List.of(FIRST_CATEGORY_ID)),
+                createBookDtoById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID))),
+                PAGEABLE, PAGE_SIZE_2);
+
+        Page<BookDto> actual = bookService.search(searchParametersDto, PAGEABLE);
+
+        assertEquals(expected, actual);
+        verifyNoInteractions(specificationBuilder, bookCatalogIndex);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - should throw TextSearchDisabledException when query is given and the index is off
+            """)
+    void search_TextQueryWithIndexDisabled_ThrowException() {
+        BookSearchParametersDto searchParametersDto = new BookSearchParametersDto(
+                null, null, null, null, CUSTOM_BOOK_TITLE.formatted(SECOND_BOOK_ID));
+
+        assertThrows(TextSearchDisabledException.class,
+                () -> bookService.search(searchParametersDto, PAGEABLE));
+        verifyNoInteractions(specificationBuilder, bookRepository, bookCatalogIndex);
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - should reject cursor paging for text queries ranked by relevance
+            """)
+    void search_TextQueryWithCursor_ThrowInvalidCursorException() {
+        BookSearchParametersDto searchParametersDto = new BookSearchParametersDto(
+                null, null, null, null, CUSTOM_BOOK_TITLE.formatted(FIRST_BOOK_ID));
+
+        assertThrows(InvalidCursorException.class, () -> bookService.search(
+                searchParametersDto, new CursorRequestDto(null, PAGE_SIZE_1), Sort.by("id")));
+        verifyNoInteractions(specificationBuilder, bookRepository);
+    }
+
     @Test
     @DisplayName("""
             getAllBooksByCategoryId()
             - should return a paginated BookDto response for valid category ID
             """)
     void getAllBooksByCategoryId_ValidCategoryId_ReturnBookDtoPage() {
-        Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
-        Page<Book> books = new PageImpl<>(List.of(book), PAGEABLE, PAGE_SIZE_1);
         BookDtoWithoutCategoryIds bookDtoWithoutCategoryIds
                 = createBookDtoWithoutCategoryIds(FIRST_BOOK_ID);
         PageImpl<BookDtoWithoutCategoryIds> expectedPage
                 = new PageImpl<>(List.of(bookDtoWithoutCategoryIds), PAGEABLE, PAGE_SIZE_1);
-        when(bookRepository.findBooksByCategoryId(FIRST_BOOK_ID, PAGEABLE)).thenReturn(books);
-        when(bookMapper.toDtoWithoutCategoryIds(book)).thenReturn(bookDtoWithoutCategoryIds);
+        when(bookRepository.findBooksByCategoryId(FIRST_BOOK_ID, PAGEABLE))
+                .thenReturn(new PageImpl<>(List.of(bookDtoWithoutCategoryIds),
+                        PAGEABLE, PAGE_SIZE_1));
 
         Page<BookDtoWithoutCategoryIds> actualPage
                 = bookService.getAllBooksByCategoryId(FIRST_BOOK_ID, PAGEABLE);
@@ -234,7 +383,7 @@ public class BookServiceTest {
             - should get all books by invalid category ID and return empty page
             """)
     void getAllBooksByCategoryId_InvalidCategoryId_ReturnBookDtoPage() {
-        Page<Book> books = new PageImpl<>(List.of(), PAGEABLE, EMPTY_PAGE);
+        Page<BookDtoWithoutCategoryIds> books = new PageImpl<>(List.of(), PAGEABLE, EMPTY_PAGE);
         when(bookRepository.findBooksByCategoryId(INVALID_BOOK_ID, PAGEABLE)).thenReturn(books);
 
         Page<BookDtoWithoutCategoryIds> actualPage
@@ -0,0 +1,247 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGEABLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.SECOND_CATEGORY_ID;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.service.book.BookTextIndex;
+
+@ExtendWith(MockitoExtension.class)
+public class BookTextIndexTest {
+    private static final String IN_MEMORY_INDEX = "";
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookTextIndex bookTextIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bookTextIndex = new BookTextIndex(bookRepository, true, IN_MEMORY_INDEX, false);
+        bookTextIndex.put(createBook(FIRST_BOOK_ID, "Clean Code", "Robert Martin",
+                "A handbook of agile software craftsmanship", FIRST_CATEGORY_ID));
+        bookTextIndex.put(createBook(SECOND_BOOK_ID, "Clean Architecture", "Robert Martin",
+                "A craftsman's guide to software structure", SECOND_CATEGORY_ID));
+        bookTextIndex.put(createBook(THIRD_BOOK_ID, "Refactoring", "Martin Fowler",
+                "Improving the design of existing code", SECOND_CATEGORY_ID));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bookTextIndex.close();
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should match word prefixes case-insensitively in title, author and description
+            """)
+    public void search_PrefixQuery_ReturnsMatchingBookIds() {
+        Page<Long> actual = bookTextIndex.search(textQuery("CLEA"), PAGEABLE);
+
+        assertEquals(2, actual.getTotalElements());
+        assertTrue(actual.getContent().containsAll(List.of(FIRST_BOOK_ID, SECOND_BOOK_ID)));
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should require every query word to match and rank title matches first
+            """)
+    public void search_MultiWordQuery_ReturnsRankedBookIds() {
+        Page<Long> actual = bookTextIndex.search(textQuery("code"), PAGEABLE);
+
+        assertEquals(List.of(FIRST_BOOK_ID, THIRD_BOOK_ID), actual.getContent());
+        assertEquals(List.of(SECOND_BOOK_ID),
+                bookTextIndex.search(textQuery("clean archi"), PAGEABLE).getContent());
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should apply category filters on top of the text query
+            """)
+    public void search_TextQueryWithCategory_ReturnsFilteredBookIds() {
+        BookSearchParametersDto searchParameters = new BookSearchParametersDto(null, null, null,
+                new String[]{String.valueOf(SECOND_CATEGORY_ID)}, "martin");
+
+        Page<Long> actual = bookTextIndex.search(searchParameters, PAGEABLE);
+
+        assertEquals(2, actual.getTotalElements());
+        assertTrue(actual.getContent().containsAll(List.of(SECOND_BOOK_ID, THIRD_BOOK_ID)));
+    }
+
+    @Test
+    @DisplayName("""
+            search()
+            - Should return the requested page and the total number of matches
+            """)
+    public void search_SecondPage_ReturnsRemainingBookIds() {
+        Pageable secondPage = PageRequest.of(1, 2);
+
+        Page<Long> actual = bookTextIndex.search(textQuery("martin"), secondPage);
+
+        assertEquals(3, actual.getTotalElements());
+        assertEquals(1, actual.getContent().size());
+    }
+
+    @Test
+    @DisplayName("""
+            remove()
+            - Should stop returning a book after it was removed
+            """)
+    public void remove_IndexedBook_NoLongerReturned() {
+        bookTextIndex.remove(THIRD_BOOK_ID);
+
+        assertTrue(bookTextIndex.search(textQuery("refactoring"), PAGEABLE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("""
+            rebuild()
+            - Should replace the index contents with the books stored in the repository
+            """)
+    public void rebuild_BooksInRepository_IndexesOnlyStoredBooks() {
+        Book storedBook = createBook(THIRD_BOOK_ID, "Domain-Driven Design", "Eric Evans",
+                "Tackling complexity in the heart of software", FIRST_CATEGORY_ID);
+        when(bookRepository.findIdsAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(THIRD_BOOK_ID));
+        when(bookRepository.findIdsAfter(eq(THIRD_BOOK_ID), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookRepository.findAllWithCategoriesByIdIn(List.of(THIRD_BOOK_ID)))
+                .thenReturn(List.of(storedBook));
+
+        bookTextIndex.rebuild();
+
+        assertTrue(bookTextIndex.search(textQuery("clean"), PAGEABLE).isEmpty());
+        assertEquals(List.of(THIRD_BOOK_ID),
+                bookTextIndex.search(textQuery("domain driven"), PAGEABLE).getContent());
+    }
+
+    @Test
+    @DisplayName("""
+            put() and commit()
+            - Should search a book right away and write it to the directory on commit
+            """)
+    public void put_IndexOnDisk_SearchableBeforeCommit(@TempDir Path path) throws IOException {
+        BookTextIndex diskIndex = new BookTextIndex(bookRepository, true, path.toString(), false);
+        try (Directory directory = FSDirectory.open(path)) {
+            diskIndex.put(createBook(FIRST_BOOK_ID, "Clean Code", "Robert Martin",
+                    "A handbook of agile software craftsmanship", FIRST_CATEGORY_ID));
+
+            assertEquals(List.of(FIRST_BOOK_ID),
+                    diskIndex.search(textQuery("clean"), PAGEABLE).getContent());
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(0, reader.numDocs());
+            }
+
+            diskIndex.commit();
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(1, reader.numDocs());
+            }
+        } finally {
+            diskIndex.close();
+        }
+    }
+
+    @Test
+    @DisplayName("""
+            onApplicationReady()
+            - Should keep an index on disk that was closed cleanly
+            """)
+    public void onApplicationReady_IndexClosedCleanly_KeepsIndex(@TempDir Path path)
+            throws IOException {
+        BookTextIndex diskIndex = new BookTextIndex(bookRepository, true, path.toString(), false);
+        diskIndex.put(createBook(FIRST_BOOK_ID, "Clean Code", "Robert Martin",
+                "A handbook of agile software craftsmanship", FIRST_CATEGORY_ID));
+        diskIndex.close();
+
+        BookTextIndex reopenedIndex =
+                new BookTextIndex(bookRepository, true, path.toString(), false);
+        try {
+            reopenedIndex.onApplicationReady();
+
+            assertEquals(List.of(FIRST_BOOK_ID),
+                    reopenedIndex.search(textQuery("clean"), PAGEABLE).getContent());
+            verifyNoInteractions(bookRepository);
+        } finally {
+            reopenedIndex.close();
+        }
+    }
+
+    @Test
+    @DisplayName("""
+            onApplicationReady()
+            - Should rebuild an index on disk that wasn't closed cleanly
+            """)
+    public void onApplicationReady_IndexNotClosedCleanly_RebuildsIndex(@TempDir Path path)
+            throws IOException {
+        try (Directory directory = FSDirectory.open(path);
+                IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig())) {
+            Document document = new Document();
+            document.add(new StringField("id", String.valueOf(FIRST_BOOK_ID), Field.Store.YES));
+            document.add(new TextField("title", "Clean Code", Field.Store.NO));
+            indexWriter.addDocument(document);
+            indexWriter.commit();
+        }
+        when(bookRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        BookTextIndex diskIndex = new BookTextIndex(bookRepository, true, path.toString(), false);
+        try {
+            diskIndex.onApplicationReady();
+
+            assertTrue(diskIndex.search(textQuery("clean"), PAGEABLE).isEmpty());
+        } finally {
+            diskIndex.close();
+        }
+    }
+
+    private BookSearchParametersDto textQuery(String query) {
+        return new BookSearchParametersDto(null, null, null, null, query);
+    }
+
+    private Book createBook(Long id, String title, String author,
+                            String description, Long categoryId) {
+        Book book = createBookById(id, List.of(categoryId));
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setDescription(description);
+        return book;
+    }
+}
@@ -0,0 +1,175 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.ShoppingCartTestUtils.INVALID_ITEM_ID;
+import static ruslan.shastkiv.bookstore.utils.ShoppingCartTestUtils.ITEM_ID_3;
+import static ruslan.shastkiv.bookstore.utils.ShoppingCartTestUtils.UPDATED_QUANTITY;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
+import ruslan.shastkiv.bookstore.dto.item.UpdateCartItemRequestDto;
+import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.service.cart.CartWriteBehindStore;
+import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql",
+                "classpath:scripts/book/insert_books_to_db.sql",
+                "classpath:scripts/cart/insert_cart_items.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/cart/remove_cart_item_after_create.sql",
+                "classpath:scripts/cart/revert_updated_quantity.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/cart/remove_cart_items.sql",
+                "classpath:scripts/book/remove_test_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest(properties = {
+        "cart.write-behind.enabled=true",
+        "cart.write-behind.flush-interval=PT1H"
+})
+public class CartWriteBehindStoreTest {
+    private static final String SELECT_QUANTITY =
+            "SELECT quantity FROM cart_items WHERE id = ?";
+    private static final String COUNT_CART_ITEMS =
+            "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = ?";
+    private static final int CLICKS = 3;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private CartWriteBehindStore cartStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        cartStore.discard(USER_ID);
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should change a line in memory without a statement and write it on flush
+            """)
+    public void addBookToCart_BookInCart_WritesQuantityOnFlush() {
+        final int quantity = selectQuantity(ITEM_ID_3);
+        shoppingCartService.getShoppingCart(USER_ID);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        ShoppingCartDto shoppingCartDto = null;
+        for (int click = 0; click < CLICKS; click++) {
+            shoppingCartDto = shoppingCartService.addBookToCart(
+                    USER_ID, new CartItemRequestDto(THIRD_BOOK_ID, 1));
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(quantity, selectQuantity(ITEM_ID_3));
+        assertEquals(quantity + CLICKS, shoppingCartDto.itemCount());
+        assertEquals(BigDecimal.valueOf(THIRD_BOOK_ID * (quantity + CLICKS))
+                .setScale(Money.SCALE), shoppingCartDto.subtotal());
+
+        cartStore.flush();
+
+        assertEquals(quantity + CLICKS, selectQuantity(ITEM_ID_3));
+    }
+
+    @Test
+    @DisplayName("""
+            findShoppingCart()
+            - Should write the pending changes of the cart before checkout reads it
+            """)
+    public void findShoppingCart_PendingChanges_ReadsChangedCart() {
+        shoppingCartService.updateItemQuantity(
+                USER_ID, ITEM_ID_3, new UpdateCartItemRequestDto(UPDATED_QUANTITY));
+
+        int quantity = transactionTemplate.execute(status -> shoppingCartService
+                .findShoppingCart(USER_ID).getCartItems().stream()
+                .mapToInt(CartItem::getQuantity)
+                .sum());
+
+        assertEquals(UPDATED_QUANTITY, quantity);
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart(), removeCartItem()
+            - Should insert a new line right away and delete a removed one on flush
+            """)
+    public void addBookToCart_NewBook_InsertsLineRightAway() {
+        final int lines = countCartItems();
+
+        Long cartItemId = shoppingCartService.addBookToCart(
+                        USER_ID, new CartItemRequestDto(FIRST_BOOK_ID, 1))
+                .cartItems().stream()
+                .filter(item -> item.bookId().equals(FIRST_BOOK_ID))
+                .map(CartItemDto::id)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(lines + 1, countCartItems());
+
+        shoppingCartService.removeCartItem(USER_ID, cartItemId);
+        assertEquals(lines + 1, countCartItems());
+        cartStore.flush();
+        assertEquals(lines, countCartItems());
+    }
+
+    @Test
+    @DisplayName("""
+            updateItemQuantity()
+            - Should throw EntityNotFoundException for a line the cart doesn't hold
+            """)
+    public void updateItemQuantity_UnknownItem_ThrowsException() {
+        assertThrows(EntityNotFoundException.class, () -> shoppingCartService.updateItemQuantity(
+                USER_ID, INVALID_ITEM_ID, new UpdateCartItemRequestDto(UPDATED_QUANTITY)));
+    }
+
+    private int selectQuantity(Long cartItemId) {
+        return jdbcTemplate.queryForObject(SELECT_QUANTITY, Integer.class, cartItemId);
+    }
+
+    private int countCartItems() {
+        return jdbcTemplate.queryForObject(COUNT_CART_ITEMS, Integer.class, USER_ID);
+    }
+}
@@ -0,0 +1,141 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.SECOND_CATEGORY_ID;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.book.CategoryBookIndex;
+
+@Sql(scripts = {
+        "classpath:scripts/book/insert_books_to_db.sql",
+        "classpath:scripts/category/insert_categories_to_db.sql",
+        "classpath:scripts/book/insert_relations_between_book_and_categories.sql",
+},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = {
+        "classpath:scripts/book/remove_relations_between_books_and_categories_from_db.sql",
+        "classpath:scripts/category/remove_categories_from_db.sql",
+        "classpath:scripts/book/remove_test_books_from_db.sql"
+},
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@SpringBootTest(properties = "catalog.category-index.enabled=true")
+public class CategoryBookIndexTest {
+    private static final Pageable FIRST_PAGE_BY_ID = PageRequest.of(0, 1, Sort.by("id"));
+    private static final Pageable SECOND_PAGE_BY_ID = PageRequest.of(1, 1, Sort.by("id"));
+    private static final Pageable FIRST_PAGE_BY_ID_DESCENDING =
+            PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+    private static final Pageable ALL_BY_ID = PageRequest.of(0, 10, Sort.by("id"));
+    private static final Long NEW_BOOK_ID = 4L;
+
+    @Autowired
+    private CategoryBookIndex categoryBookIndex;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        categoryBookIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("""
+            getAllBooksByCategoryId()
+            - Should return the same pages and totals as the category query
+            """)
+    public void getAllBooksByCategoryId_PagedById_MatchesCategoryQuery() {
+        assertSameResults(SECOND_CATEGORY_ID, FIRST_PAGE_BY_ID);
+        assertSameResults(SECOND_CATEGORY_ID, SECOND_PAGE_BY_ID);
+        assertSameResults(SECOND_CATEGORY_ID, FIRST_PAGE_BY_ID_DESCENDING);
+        assertSameResults(FIRST_CATEGORY_ID, ALL_BY_ID);
+    }
+
+    @Test
+    @DisplayName("""
+            put()
+            - Should move a book to the lists of its new categories
+            """)
+    public void put_BookWithNewCategory_MovesBookBetweenCategories() {
+        categoryBookIndex.put(createBookById(FIRST_BOOK_ID, List.of(SECOND_CATEGORY_ID)));
+
+        assertEquals(List.of(FIRST_BOOK_ID, SECOND_BOOK_ID, THIRD_BOOK_ID),
+                categoryBookIndex.findBookIds(SECOND_CATEGORY_ID, ALL_BY_ID).getContent());
+        assertEquals(0,
+                categoryBookIndex.findBookIds(FIRST_CATEGORY_ID, ALL_BY_ID).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("""
+            putAll()
+            - Should move, add and keep sorted every book of a batch
+            """)
+    public void putAll_BatchOfBooks_UpdatesListsOfTouchedCategories() {
+        categoryBookIndex.putAll(List.of(
+                createBookById(FIRST_BOOK_ID, List.of(SECOND_CATEGORY_ID)),
+                createBookById(THIRD_BOOK_ID, List.of(FIRST_CATEGORY_ID)),
+                createBookById(NEW_BOOK_ID, List.of(SECOND_CATEGORY_ID))));
+
+        assertEquals(List.of(FIRST_BOOK_ID, SECOND_BOOK_ID, NEW_BOOK_ID),
+                categoryBookIndex.findBookIds(SECOND_CATEGORY_ID, ALL_BY_ID).getContent());
+        assertEquals(List.of(THIRD_BOOK_ID),
+                categoryBookIndex.findBookIds(FIRST_CATEGORY_ID, ALL_BY_ID).getContent());
+    }
+
+    @Test
+    @DisplayName("""
+            remove() and removeCategory()
+            - Should drop deleted books and categories from the lists
+            """)
+    public void remove_BookAndCategory_DropsThemFromLists() {
+        categoryBookIndex.remove(SECOND_BOOK_ID);
+        assertEquals(List.of(THIRD_BOOK_ID),
+                categoryBookIndex.findBookIds(SECOND_CATEGORY_ID, ALL_BY_ID).getContent());
+
+        categoryBookIndex.removeCategory(SECOND_CATEGORY_ID);
+        assertEquals(0,
+                categoryBookIndex.findBookIds(SECOND_CATEGORY_ID, ALL_BY_ID).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("""
+            supports()
+            - Should leave pages sorted by anything other than id to the database
+            """)
+    public void supports_SortedByTitle_ReturnFalse() {
+        assertTrue(categoryBookIndex.supports(PageRequest.of(0, 10)));
+        assertTrue(categoryBookIndex.supports(FIRST_PAGE_BY_ID_DESCENDING));
+        assertFalse(categoryBookIndex.supports(PageRequest.of(0, 10, Sort.by("title"))));
+    }
+
+    private void assertSameResults(Long categoryId, Pageable pageable) {
+        Page<BookDtoWithoutCategoryIds> expected =
+                bookRepository.findBooksByCategoryId(categoryId, pageable);
+
+        Page<BookDtoWithoutCategoryIds> actual =
+                bookService.getAllBooksByCategoryId(categoryId, pageable);
+
+        assertEquals(expected.getTotalElements(), actual.getTotalElements());
+        assertEquals(expected.getContent(), actual.getContent());
+    }
+}
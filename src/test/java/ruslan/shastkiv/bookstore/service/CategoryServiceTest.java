@@ -39,6 +39,10 @@ import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
 import ruslan.shastkiv.bookstore.mapper.CategoryMapper;
 import ruslan.shastkiv.bookstore.model.Category;
 import ruslan.shastkiv.bookstore.repository.category.CategoryRepository;
+import ruslan.shastkiv.bookstore.service.book.BookCacheEvictor;
+import ruslan.shastkiv.bookstore.service.book.BookCatalogIndex;
+import ruslan.shastkiv.bookstore.service.book.BookTextIndex;
+import ruslan.shastkiv.bookstore.service.book.CategoryBookIndex;
 import ruslan.shastkiv.bookstore.service.category.CategoryServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +51,14 @@ public class CategoryServiceTest {
     private CategoryServiceImpl categoryService;
     @Mock
     private CategoryRepository categoryRepository;
+    @Mock
+    private BookCatalogIndex bookCatalogIndex;
+    @Mock
+    private BookTextIndex bookTextIndex;
+    @Mock
+    private CategoryBookIndex categoryBookIndex;
+    @Mock
+    private BookCacheEvictor bookCacheEvictor;
     @Spy
     private CategoryMapper categoryMapper = Mappers.getMapper(CategoryMapper.class);
 
@@ -169,6 +181,7 @@ public class CategoryServiceTest {
         categoryService.deleteCategory(FIRST_CATEGORY_ID);
 
         verify(categoryRepository).deleteById(FIRST_CATEGORY_ID);
+        verify(bookCacheEvictor).evictCategories();
         verifyNoMoreInteractions(categoryRepository);
     }
 
@@ -0,0 +1,112 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.PAGE_SIZE_1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
+import ruslan.shastkiv.bookstore.exception.InvalidCursorException;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Order;
+import ruslan.shastkiv.bookstore.service.cursor.CursorCodec;
+
+public class CursorCodecTest {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "price", "orderDate");
+    private static final Sort PRICE_SORT = Sort.by("price").and(Sort.by("id"));
+    private static final Sort ORDER_DATE_SORT =
+            Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by("id"));
+
+    private final CursorCodec cursorCodec = new CursorCodec(new ObjectMapper());
+
+    @Test
+    @DisplayName("""
+            toPosition()
+            - Should restore the typed sort key values of the last returned row
+            """)
+    public void toPosition_EncodedCursor_ReturnsKeysOfLastRow() {
+        Map<String, Object> bookKeys = new LinkedHashMap<>();
+        bookKeys.put("price", new BigDecimal("19.99"));
+        bookKeys.put("id", FIRST_BOOK_ID);
+        Map<String, Object> orderKeys = new LinkedHashMap<>();
+        orderKeys.put("orderDate", LocalDateTime.of(2024, 10, 1, 12, 30));
+        orderKeys.put("id", FIRST_BOOK_ID);
+
+        assertEquals(bookKeys, decode(encode(bookKeys), Book.class, PRICE_SORT).getKeys());
+        assertEquals(orderKeys,
+                decode(encode(orderKeys), Order.class, ORDER_DATE_SORT).getKeys());
+    }
+
+    @Test
+    @DisplayName("""
+            toPosition()
+            - Should start from the first row when no cursor is given
+            """)
+    public void toPosition_NoCursor_ReturnsInitialPosition() {
+        assertEquals(ScrollPosition.keyset(), decode(null, Book.class, PRICE_SORT));
+    }
+
+    @Test
+    @DisplayName("""
+            toPosition()
+            - Should reject malformed cursors and cursors issued for a different sort
+            """)
+    public void toPosition_InvalidCursor_ThrowsInvalidCursorException() {
+        String idCursor = encode(Map.of("id", FIRST_BOOK_ID));
+
+        assertThrows(InvalidCursorException.class,
+                () -> decode("not a cursor", Book.class, PRICE_SORT));
+        assertThrows(InvalidCursorException.class,
+                () -> decode(idCursor, Book.class, PRICE_SORT));
+    }
+
+    @Test
+    @DisplayName("""
+            toKeysetSort()
+            - Should append the id as a tie-breaker and reject unknown sort properties
+            """)
+    public void toKeysetSort_SortWithoutId_AppendsIdAndRejectsUnknownProperty() {
+        assertEquals(PRICE_SORT,
+                cursorCodec.toKeysetSort(Sort.by("price"), SORTABLE_PROPERTIES));
+        assertThrows(InvalidCursorException.class,
+                () -> cursorCodec.toKeysetSort(Sort.by("description"), SORTABLE_PROPERTIES));
+    }
+
+    @Test
+    @DisplayName("""
+            toLimit()
+            - Should use the default page size and cap requested sizes
+            """)
+    public void toLimit_MissingAndOversizedSize_ReturnsBoundedLimit() {
+        assertEquals(Limit.of(20), cursorCodec.toLimit(new CursorRequestDto(null, null)));
+        assertEquals(Limit.of(100), cursorCodec.toLimit(new CursorRequestDto(null, 5000)));
+        assertEquals(Limit.of(PAGE_SIZE_1),
+                cursorCodec.toLimit(new CursorRequestDto(null, PAGE_SIZE_1)));
+    }
+
+    private String encode(Map<String, Object> keys) {
+        Window<Object> window = Window.from(List.of(new Object()),
+                index -> ScrollPosition.forward(keys), true);
+        CursorPageDto<Object> page = cursorCodec.toCursorPage(window, List.of());
+        return page.nextCursor();
+    }
+
+    private KeysetScrollPosition decode(String cursor, Class<?> entityType, Sort sort) {
+        return cursorCodec.toPosition(new CursorRequestDto(cursor, PAGE_SIZE_1), entityType, sort);
+    }
+}
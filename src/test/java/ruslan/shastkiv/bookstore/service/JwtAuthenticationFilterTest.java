@@ -0,0 +1,131 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.ROLE_USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createRole;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.security.JwtAuthenticationFilter;
+import ruslan.shastkiv.bookstore.security.JwtUtil;
+import ruslan.shastkiv.bookstore.security.PrincipalCache;
+import ruslan.shastkiv.bookstore.security.TokenPrincipal;
+import ruslan.shastkiv.bookstore.security.TokenRevocationList;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+    private static final String SECRET = "pF3vQ8m6GZ++12345jklN+34y5Ks0pQZLb+KD7yxUj8=";
+    private static final Long EXPIRATION = 300000L;
+    private static final String BEARER = "Bearer ";
+    private static final long MAX_PRINCIPALS = 100;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+    private final TokenRevocationList tokenRevocationList = new TokenRevocationList(EXPIRATION);
+    private JwtAuthenticationFilter filter;
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new PrincipalCache(MAX_PRINCIPALS, Duration.ofMinutes(5), EXPIRATION),
+                tokenRevocationList);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        user = createUser(USER_ID);
+        user.setRoles(Set.of(createRole(ROLE_USER_ID)));
+        token = jwtUtil.generateToken(getAuthentication(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("""
+            doFilter()
+            - Should authenticate from token claims without loading the user in stateless mode
+            """)
+    public void doFilter_StatelessToken_AuthenticatesFromClaims()
+            throws ServletException, IOException {
+        Authentication actual = filter(token);
+
+        assertEquals(new TokenPrincipal(USER_ID, user.getEmail()), actual.getPrincipal());
+        assertEquals(List.of("ROLE_USER"), authorities(actual));
+        verify(userDetailsService, never()).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("""
+            doFilter()
+            - Should load the user when the token was issued before the user was revoked
+            """)
+    public void doFilter_RevokedUser_AuthenticatesFromDatabase()
+            throws ServletException, IOException {
+        when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+        tokenRevocationList.revoke(USER_ID);
+
+        Authentication actual = filter(token);
+
+        assertSame(user, actual.getPrincipal());
+        verify(userDetailsService).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("""
+            doFilter()
+            - Should load the user when stateless mode is off
+            """)
+    public void doFilter_StatefulMode_AuthenticatesFromDatabase()
+            throws ServletException, IOException {
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+
+        Authentication actual = filter(token);
+
+        assertSame(user, actual.getPrincipal());
+    }
+
+    private Authentication filter(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, BEARER + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
@@ -0,0 +1,72 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.CUSTOM_EMAIL;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.JWT_TOKEN_EXAMPLE;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
+
+import io.jsonwebtoken.JwtException;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.security.JwtClaims;
+import ruslan.shastkiv.bookstore.security.JwtUtil;
+
+public class JwtUtilTest {
+    private static final String SECRET = "pF3vQ8m6GZ++12345jklN+34y5Ks0pQZLb+KD7yxUj8=";
+    private static final Long EXPIRATION = 300000L;
+    private static final String ROLE_USER = "ROLE_USER";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+
+    @Test
+    @DisplayName("""
+            parse()
+            - Should return subject, user ID, roles, issue time and expiry of a valid token
+            """)
+    public void parse_ValidToken_ReturnsClaims() {
+        User user = createUser(USER_ID);
+        String token = jwtUtil.generateToken(getAuthentication(user));
+
+        JwtClaims actual = jwtUtil.parse(token);
+
+        assertEquals(user.getEmail(), actual.subject());
+        assertEquals(USER_ID, actual.userId());
+        assertEquals(List.of(ROLE_USER), actual.roles());
+        assertEquals(EXPIRATION,
+                actual.expiration().getTime() - actual.issuedAt().getTime());
+    }
+
+    @Test
+    @DisplayName("""
+            parse()
+            - Should return no user ID when the principal isn't an application user
+            """)
+    public void parse_ForeignPrincipal_ReturnsClaimsWithoutUserId() {
+        String email = CUSTOM_EMAIL.formatted(USER_ID);
+        String token = jwtUtil.generateToken(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+
+        JwtClaims actual = jwtUtil.parse(token);
+
+        assertEquals(email, actual.subject());
+        assertNull(actual.userId());
+        assertTrue(actual.roles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("""
+            parse()
+            - Should throw JwtException for a token signed with another key
+            """)
+    public void parse_ForeignToken_ThrowsException() {
+        assertThrows(JwtException.class, () -> jwtUtil.parse(JWT_TOKEN_EXAMPLE));
+    }
+}
@@ -0,0 +1,137 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.exception.LookupTimeoutException;
+import ruslan.shastkiv.bookstore.service.fanout.LookupFanOut;
+
+public class LookupFanOutTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+    private static final long AWAIT_SECONDS = 5;
+
+    private ThreadPoolTaskExecutor executor;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        transactionManager = mock(PlatformTransactionManager.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("""
+            assemble()
+            - Should run the lookups on the calling thread, only those whose result is read
+            """)
+    public void assemble_Disabled_RunsReadLookupsInline() {
+        LookupFanOut lookupFanOut = new LookupFanOut(executor, transactionManager, false, TIMEOUT);
+        Thread caller = Thread.currentThread();
+        AtomicBoolean unreadLookupRan = new AtomicBoolean();
+
+        Thread lookupThread = lookupFanOut.assemble(scope -> {
+            scope.fork(() -> unreadLookupRan.getAndSet(true));
+            return scope.fork(Thread::currentThread).get();
+        });
+
+        assertEquals(caller, lookupThread);
+        assertFalse(unreadLookupRan.get());
+    }
+
+    @Test
+    @DisplayName("""
+            assemble()
+            - Should run the forked lookups at the same time
+            """)
+    public void assemble_Enabled_RunsLookupsConcurrently() {
+        LookupFanOut lookupFanOut = new LookupFanOut(
+                executor, transactionManager, true, Duration.ofSeconds(AWAIT_SECONDS));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        boolean concurrent = lookupFanOut.assemble(scope -> {
+            LookupFanOut.Lookup<Boolean> first = scope.fork(() -> awaitOther(bothRunning));
+            LookupFanOut.Lookup<Boolean> second = scope.fork(() -> awaitOther(bothRunning));
+            return first.get() && second.get();
+        });
+
+        assertTrue(concurrent);
+    }
+
+    @Test
+    @DisplayName("""
+            assemble()
+            - Should throw LookupTimeoutException and cancel a lookup that misses the deadline
+            """)
+    public void assemble_SlowLookup_ThrowsExceptionAndCancelsLookup() throws Exception {
+        LookupFanOut lookupFanOut = new LookupFanOut(executor, transactionManager, true, TIMEOUT);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(LookupTimeoutException.class, () -> lookupFanOut.assemble(
+                scope -> scope.fork(() -> blockUntilInterrupted(interrupted)).get()));
+
+        assertTrue(interrupted.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("""
+            assemble()
+            - Should throw the exception of a failed lookup and cancel the others
+            """)
+    public void assemble_FailedLookup_ThrowsItsExceptionAndCancelsOthers() throws Exception {
+        LookupFanOut lookupFanOut = new LookupFanOut(
+                executor, transactionManager, true, Duration.ofSeconds(AWAIT_SECONDS));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(EntityNotFoundException.class, () -> lookupFanOut.assemble(scope -> {
+            LookupFanOut.Lookup<Boolean> slow =
+                    scope.fork(() -> blockUntilInterrupted(interrupted));
+            LookupFanOut.Lookup<Boolean> failed = scope.fork(() -> {
+                throw new EntityNotFoundException("Can t find the cart");
+            });
+            return failed.get() && slow.get();
+        }));
+
+        assertTrue(interrupted.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private boolean awaitOther(CountDownLatch bothRunning) {
+        bothRunning.countDown();
+        try {
+            return bothRunning.await(AWAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean blockUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(AWAIT_SECONDS));
+            return true;
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            return false;
+        }
+    }
+}
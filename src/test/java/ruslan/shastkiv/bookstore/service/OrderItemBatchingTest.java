@@ -0,0 +1,151 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createPlaceOrderRequestDto;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.ShoppingCart;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
+import ruslan.shastkiv.bookstore.service.order.OrderService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/order/remove_bulk_orders.sql",
+                "classpath:scripts/book/remove_100k_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+public class OrderItemBatchingTest {
+    private static final int FEW_LINES = 2;
+    private static final int MANY_LINES = 50;
+    /*
+    One batched insert of the order lines and one batched delete of the cart lines.
+     */
+    private static final int EXPECTED_STATEMENTS = 2;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ItemStatementCounter itemStatementCounter;
+
+    @Test
+    @DisplayName("""
+            placeOrderByUserId()
+            - Should write order lines and clear cart lines with the same number of statements
+              whatever the size of the cart
+            """)
+    public void placeOrderByUserId_GrowingCart_KeepsStatementCountConstant() {
+        assertEquals(EXPECTED_STATEMENTS, placeOrder(FEW_LINES, 0));
+        assertEquals(EXPECTED_STATEMENTS, placeOrder(MANY_LINES, FEW_LINES));
+    }
+
+    private int placeOrder(int lines, int firstBook) {
+        fillShoppingCart(lines, firstBook);
+        itemStatementCounter.reset();
+        orderService.placeOrderByUserId(getAuthentication(createUser(USER_ID)),
+                createPlaceOrderRequestDto(USER_ID));
+        return itemStatementCounter.count();
+    }
+
+    private void fillShoppingCart(int lines, int firstBook) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ShoppingCart shoppingCart = shoppingCartRepository.findById(USER_ID).orElseThrow();
+            for (int i = firstBook; i < firstBook + lines; i++) {
+                CartItem cartItem = new CartItem();
+                cartItem.setBook(bookRepository.save(createBulkBook(i)));
+                cartItem.setShoppingCart(shoppingCart);
+                cartItem.setQuantity(1);
+                shoppingCart.getCartItems().add(cartItem);
+            }
+        });
+    }
+
+    private Book createBulkBook(int number) {
+        Book book = new Book();
+        book.setTitle("Bulk_Title_" + number);
+        book.setAuthor("Bulk_Author_" + number);
+        book.setIsbn("978-1-%08d".formatted(number));
+        book.setPrice(BigDecimal.ONE);
+        return book;
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+        @Bean
+        ItemStatementCounter itemStatementCounter() {
+            return new ItemStatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer(ItemStatementCounter counter) {
+            return properties -> properties.put(
+                    "hibernate.session_factory.statement_inspector", counter);
+        }
+    }
+
+    /*
+    Counts prepared statements that write order lines or delete cart lines;
+    a JDBC batch is prepared once however many rows it carries.
+     */
+    static class ItemStatementCounter implements StatementInspector {
+        private final AtomicInteger statements = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            String statement = sql.toLowerCase(Locale.ROOT);
+            if (statement.startsWith("insert into order_items")
+                    || statement.startsWith("delete from cart_items")) {
+                statements.incrementAndGet();
+            }
+            return sql;
+        }
+
+        void reset() {
+            statements.set(0);
+        }
+
+        int count() {
+            return statements.get();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.model.Order;
+import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+import ruslan.shastkiv.bookstore.service.order.OrderService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql",
+                "classpath:scripts/book/insert_books_to_db.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = "classpath:scripts/cart/insert_cart_items.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/order/remove_accepted_orders.sql",
+                "classpath:scripts/cart/remove_cart_items.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/book/remove_test_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest
+public class OrderPlacementTest {
+    private static final Long ORDER_ID = 100L;
+    private static final String INSERT_ACCEPTED_ORDER = "INSERT INTO orders "
+            + "(id, user_id, status, total, order_date, shipping_address, idempotency_key) "
+            + "VALUES (?, ?, 'PENDING', 0, CURRENT_TIMESTAMP, 'Shipping_address_3', 'key')";
+    private static final String SELECT_STATUS = "SELECT status FROM orders WHERE id = ?";
+    private static final String COUNT_ORDER_ITEMS =
+            "SELECT COUNT(*) FROM order_items WHERE order_id = ?";
+    private static final String COUNT_CART_ITEMS =
+            "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = ?";
+    private static final long CLAIM_HOLD_MILLIS = 500;
+    private static final long AWAIT_SECONDS = 5;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should write the assembled order when run after another transaction committed
+            """)
+    public void completeOrder_AfterCommitOfOtherTransaction_WritesOrder() {
+        jdbcTemplate.update(INSERT_ACCEPTED_ORDER, ORDER_ID, USER_ID);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.findById(ORDER_ID);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            orderService.completeOrder(ORDER_ID);
+                        }
+                    });
+        });
+
+        assertEquals(Order.Status.PROCESSING.name(), selectStatus());
+        assertEquals(1, countOrderItems());
+    }
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should wait for a worker that claimed the order and then leave the order alone
+            """)
+    public void completeOrder_OrderClaimedByOtherWorker_SkipsOrder() throws Exception {
+        jdbcTemplate.update(INSERT_ACCEPTED_ORDER, ORDER_ID, USER_ID);
+        CountDownLatch claimed = new CountDownLatch(1);
+        ExecutorService otherWorker = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> claim = otherWorker.submit(() -> transactionTemplate
+                    .executeWithoutResult(status -> {
+                        orderRepository.findByIdForUpdate(ORDER_ID).orElseThrow()
+                                .setStatus(Order.Status.PROCESSING);
+                        claimed.countDown();
+                        sleep(CLAIM_HOLD_MILLIS);
+                    }));
+            assertTrue(claimed.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+
+            orderService.completeOrder(ORDER_ID);
+            claim.get();
+        } finally {
+            otherWorker.shutdown();
+        }
+
+        assertEquals(Order.Status.PROCESSING.name(), selectStatus());
+        assertEquals(0, countOrderItems());
+        assertEquals(1, countCartItems());
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int countCartItems() {
+        return jdbcTemplate.queryForObject(COUNT_CART_ITEMS, Integer.class, USER_ID);
+    }
+
+    private String selectStatus() {
+        return jdbcTemplate.queryForObject(SELECT_STATUS, String.class, ORDER_ID);
+    }
+
+    private int countOrderItems() {
+        return jdbcTemplate.queryForObject(COUNT_ORDER_ITEMS, Integer.class, ORDER_ID);
+    }
+}
@@ -0,0 +1,170 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderDto;
+import ruslan.shastkiv.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Order;
+import ruslan.shastkiv.bookstore.model.OrderItem;
+import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+import ruslan.shastkiv.bookstore.repository.user.UserRepository;
+import ruslan.shastkiv.bookstore.service.order.OrderService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/order/remove_bulk_orders.sql",
+                "classpath:scripts/book/remove_100k_books_from_db.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderQueryCountTest {
+    private static final int ORDERS = 25;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int SMALL_PAGE = 2;
+    private static final int LARGE_PAGE = 20;
+    /*
+    The page of orders, its count and one IN query for the items of every order on the page.
+     */
+    private static final long EXPECTED_PAGE_STATEMENTS = 3;
+    /*
+    The window of orders and one IN query for their items.
+     */
+    private static final long EXPECTED_CURSOR_STATEMENTS = 2;
+    /*
+    The order, one IN query for its items and the update of its status.
+     */
+    private static final long EXPECTED_UPDATE_STATEMENTS = 3;
+
+    private static List<Long> orderIds;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void beforeAll(
+            @Autowired TransactionTemplate transactionTemplate,
+            @Autowired BookRepository bookRepository,
+            @Autowired OrderRepository orderRepository,
+            @Autowired UserRepository userRepository
+    ) {
+        orderIds = transactionTemplate.execute(status -> {
+            List<Book> books = bookRepository.saveAll(IntStream.range(0, ITEMS_PER_ORDER)
+                    .mapToObj(OrderQueryCountTest::createBulkBook)
+                    .toList());
+            return IntStream.range(0, ORDERS)
+                    .mapToObj(number -> createOrder(number, books,
+                            userRepository.getReferenceById(USER_ID)))
+                    .map(order -> orderRepository.save(order).getId())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("""
+            getAllOrdersByUserId()
+            - Should read a page of orders with their items in the same number of statements
+              whatever the size of the page
+            """)
+    public void getAllOrdersByUserId_GrowingPage_KeepsStatementCountConstant() {
+        assertEquals(EXPECTED_PAGE_STATEMENTS, countStatements(() -> orderService
+                .getAllOrdersByUserId(USER_ID, PageRequest.of(0, SMALL_PAGE)).getContent()));
+        assertEquals(EXPECTED_PAGE_STATEMENTS, countStatements(() -> orderService
+                .getAllOrdersByUserId(USER_ID, PageRequest.of(0, LARGE_PAGE)).getContent()));
+    }
+
+    @Test
+    @DisplayName("""
+            getAllOrdersByUserId()
+            - Should read a cursor page of orders with their items in the same number
+              of statements whatever the size of the page
+            """)
+    public void getAllOrdersByUserId_GrowingCursorPage_KeepsStatementCountConstant() {
+        assertEquals(EXPECTED_CURSOR_STATEMENTS, countStatements(() -> orderService
+                .getAllOrdersByUserId(USER_ID, new CursorRequestDto(null, SMALL_PAGE),
+                        Sort.by("orderDate")).content()));
+        assertEquals(EXPECTED_CURSOR_STATEMENTS, countStatements(() -> orderService
+                .getAllOrdersByUserId(USER_ID, new CursorRequestDto(null, LARGE_PAGE),
+                        Sort.by("orderDate")).content()));
+    }
+
+    @Test
+    @DisplayName("""
+            updateOrderStatus()
+            - Should return the updated order with its items without loading them one by one
+            """)
+    public void updateOrderStatus_OrderWithItems_KeepsStatementCountConstant() {
+        assertEquals(EXPECTED_UPDATE_STATEMENTS, countStatements(() -> List.of(orderService
+                .updateOrderStatus(orderIds.get(0),
+                        new UpdateOrderStatusRequestDto(Order.Status.SHIPPED)))));
+    }
+
+    private long countStatements(Supplier<List<OrderDto>> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        List<OrderDto> orders = action.get();
+        orders.forEach(order -> assertEquals(ITEMS_PER_ORDER, order.orderItems().size()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static Order createOrder(int number, List<Book> books, User user) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(Order.Status.PENDING);
+        order.setTotal(BigDecimal.valueOf(ITEMS_PER_ORDER));
+        order.setOrderDate(LocalDateTime.now().minusMinutes(number));
+        order.setShippingAddress("Shipping_address_" + USER_ID);
+        books.forEach(book -> {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setBook(book);
+            orderItem.setQuantity(1);
+            orderItem.setPrice(book.getPrice());
+            order.getOrderItems().add(orderItem);
+        });
+        return order;
+    }
+
+    private static Book createBulkBook(int number) {
+        Book book = new Book();
+        book.setTitle("Bulk_Title_" + number);
+        book.setAuthor("Bulk_Author_" + number);
+        book.setIsbn("978-4-%08d".formatted(number));
+        book.setPrice(BigDecimal.ONE);
+        return book;
+    }
+}
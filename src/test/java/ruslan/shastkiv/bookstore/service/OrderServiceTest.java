@@ -2,7 +2,13 @@ package ruslan.shastkiv.bookstore.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,12 +19,14 @@ import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.ONE_INVOCATION;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.EXPECTED_PRICE;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.IDEMPOTENCY_KEY;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_ID_1;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.ORDER_ITEM_ID_1;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createAcceptedOrder;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrder;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderDto;
-import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderItem;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderItemDto;
+import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createOrderItemLine;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createPlaceOrderRequestDto;
 import static ruslan.shastkiv.bookstore.utils.OrderTestUtils.createUpdateStatusDto;
 import static ruslan.shastkiv.bookstore.utils.ShoppingCartTestUtils.createCartWithItems;
@@ -26,22 +34,46 @@ import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorPageDto;
+import ruslan.shastkiv.bookstore.dto.cursor.CursorRequestDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderDto;
 import ruslan.shastkiv.bookstore.dto.order.OrderItemDto;
+import ruslan.shastkiv.bookstore.dto.order.OrderStatusDto;
+import ruslan.shastkiv.bookstore.dto.order.PlaceOrderRequestDto;
 import ruslan.shastkiv.bookstore.exception.OrderProcessingException;
 import ruslan.shastkiv.bookstore.mapper.OrderItemMapper;
 import ruslan.shastkiv.bookstore.mapper.OrderMapper;
@@ -52,12 +84,19 @@ import ruslan.shastkiv.bookstore.model.ShoppingCart;
 import ruslan.shastkiv.bookstore.model.User;
 import ruslan.shastkiv.bookstore.repository.order.OrderItemRepository;
 import ruslan.shastkiv.bookstore.repository.order.OrderRepository;
+import ruslan.shastkiv.bookstore.repository.user.UserRepository;
 import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+import ruslan.shastkiv.bookstore.service.cursor.CursorCodec;
+import ruslan.shastkiv.bookstore.service.fanout.LookupFanOut;
+import ruslan.shastkiv.bookstore.service.order.OrderAcceptedEvent;
 import ruslan.shastkiv.bookstore.service.order.OrderServiceImpl;
+import ruslan.shastkiv.bookstore.service.stock.StockService;
 import ruslan.shastkiv.bookstore.service.user.UserService;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceTest {
+    private static final String OTHER_SHIPPING_ADDRESS = "Other_shipping_address";
+
     @InjectMocks
     private OrderServiceImpl orderService;
     @Mock
@@ -72,6 +111,19 @@ public class OrderServiceTest {
     private OrderItemMapper orderItemMapper = Mappers.getMapper(OrderItemMapper.class);
     @Spy
     private OrderMapper orderMapper = new OrderMapperImpl(orderItemMapper);
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec(new ObjectMapper());
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private StockService stockService;
+    @Spy
+    private LookupFanOut lookupFanOut = new LookupFanOut(null,
+            mock(PlatformTransactionManager.class), false, Duration.ofSeconds(1));
 
     @Test
     @DisplayName("""
@@ -121,6 +173,30 @@ public class OrderServiceTest {
         assertEquals(EXPECTED_PRICE, actualDto.total().intValue());
     }
 
+    @Test
+    @DisplayName("""
+            placeOrderByUserId()
+            - Should mark the order lines whose stock was reserved
+            """)
+    public void placeOrderByUserId_partlyTrackedStock_marksReservedLines() {
+        User user = createUser(USER_ID);
+        Authentication authentication = getAuthentication(user);
+        ShoppingCart cart = createCartWithItems(user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+        Order order = createOrder(user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+
+        when(userService.getUserId(authentication)).thenReturn(USER_ID);
+        when(shoppingCartService.findShoppingCart(USER_ID)).thenReturn(cart);
+        when(stockService.reserve(any())).thenReturn(Set.of(SECOND_BOOK_ID));
+        when(orderRepository.save(orderCaptor.capture())).thenReturn(order);
+        orderService.placeOrderByUserId(authentication, createPlaceOrderRequestDto(USER_ID));
+
+        assertEquals(Set.of(SECOND_BOOK_ID), orderCaptor.getValue().getOrderItems().stream()
+                .filter(OrderItem::isStockReserved)
+                .map(orderItem -> orderItem.getBook().getId())
+                .collect(Collectors.toSet()));
+    }
+
     @Test
     @DisplayName("""
             placeOrderByUserId()
@@ -138,6 +214,169 @@ public class OrderServiceTest {
                 authentication, createPlaceOrderRequestDto(USER_ID)));
     }
 
+    @Test
+    @DisplayName("""
+            placeOrderByUserId()
+            - Should refuse the order and keep the cart when a book is sold out
+            """)
+    public void placeOrderByUserId_soldOutBook_throwsException() {
+        User user = createUser(USER_ID);
+        Authentication authentication = getAuthentication(user);
+        ShoppingCart cart = createCartWithItems(user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+
+        when(userService.getUserId(authentication)).thenReturn(USER_ID);
+        when(shoppingCartService.findShoppingCart(USER_ID)).thenReturn(cart);
+        doThrow(new OrderProcessingException("Not enough stock for book: [1]"))
+                .when(stockService).reserve(Map.of(FIRST_BOOK_ID, FIRST_BOOK_ID.intValue(),
+                        SECOND_BOOK_ID, SECOND_BOOK_ID.intValue()));
+
+        assertThrows(OrderProcessingException.class, () -> orderService.placeOrderByUserId(
+                authentication, createPlaceOrderRequestDto(USER_ID)));
+        verify(shoppingCartService, never()).clearShoppingCart(cart);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("""
+            placeOrderAsync()
+            - Should store a PENDING order and publish it for assembly
+            """)
+    public void placeOrderAsync_newKey_returnPendingStatus() {
+        User user = createUser(USER_ID);
+        Order acceptedOrder = createAcceptedOrder(user);
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+
+        when(orderRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+        when(orderRepository.save(orderCaptor.capture())).thenReturn(acceptedOrder);
+        OrderStatusDto actualDto = orderService.placeOrderAsync(
+                USER_ID, IDEMPOTENCY_KEY, createPlaceOrderRequestDto(USER_ID));
+
+        assertEquals(new OrderStatusDto(acceptedOrder.getId(), Order.Status.PENDING), actualDto);
+        assertEquals(IDEMPOTENCY_KEY, orderCaptor.getValue().getIdempotencyKey());
+        assertTrue(orderCaptor.getValue().getOrderItems().isEmpty());
+        verify(eventPublisher).publishEvent(new OrderAcceptedEvent(acceptedOrder.getId()));
+    }
+
+    @Test
+    @DisplayName("""
+            placeOrderAsync()
+            - Should return the already accepted order when the key is reused
+            """)
+    public void placeOrderAsync_repeatedKey_returnAcceptedOrderStatus() {
+        Order acceptedOrder = createAcceptedOrder(createUser(USER_ID));
+        acceptedOrder.setStatus(Order.Status.PROCESSING);
+
+        when(orderRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.of(acceptedOrder));
+        OrderStatusDto actualDto = orderService.placeOrderAsync(
+                USER_ID, IDEMPOTENCY_KEY, createPlaceOrderRequestDto(USER_ID));
+
+        assertEquals(new OrderStatusDto(acceptedOrder.getId(), Order.Status.PROCESSING),
+                actualDto);
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("""
+            placeOrderAsync()
+            - Should throw an exception when the key is reused for another order
+            """)
+    public void placeOrderAsync_repeatedKeyOtherAddress_throwsException() {
+        Order acceptedOrder = createAcceptedOrder(createUser(USER_ID));
+
+        when(orderRepository.findByUserIdAndIdempotencyKey(USER_ID, IDEMPOTENCY_KEY))
+                .thenReturn(Optional.of(acceptedOrder));
+
+        assertThrows(OrderProcessingException.class, () -> orderService.placeOrderAsync(
+                USER_ID, IDEMPOTENCY_KEY, new PlaceOrderRequestDto(OTHER_SHIPPING_ADDRESS)));
+    }
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should fill an accepted order from the cart and move it to PROCESSING
+            """)
+    public void completeOrder_acceptedOrder_fillsOrderFromCart() {
+        User user = createUser(USER_ID);
+        Order acceptedOrder = createAcceptedOrder(user);
+        ShoppingCart cart = createCartWithItems(
+                user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID, THIRD_BOOK_ID));
+
+        when(orderRepository.findByIdForUpdate(acceptedOrder.getId()))
+                .thenReturn(Optional.of(acceptedOrder));
+        when(shoppingCartService.findShoppingCart(USER_ID)).thenReturn(cart);
+        orderService.completeOrder(acceptedOrder.getId());
+
+        assertEquals(Order.Status.PROCESSING, acceptedOrder.getStatus());
+        assertEquals(EXPECTED_PRICE, acceptedOrder.getTotal().intValue());
+        assertEquals(3, acceptedOrder.getOrderItems().size());
+        verify(shoppingCartService, times(ONE_INVOCATION)).clearShoppingCart(cart);
+    }
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should take the total of the order from the subtotal stored on a priced cart
+              instead of summing its lines again
+            """)
+    public void completeOrder_pricedCart_usesStoredSubtotal() {
+        User user = createUser(USER_ID);
+        Order acceptedOrder = createAcceptedOrder(user);
+        ShoppingCart cart = createCartWithItems(
+                user, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID, THIRD_BOOK_ID));
+        final BigDecimal storedSubtotal = new BigDecimal("41.50");
+        cart.setSubtotal(storedSubtotal);
+        cart.setPriced(true);
+
+        when(orderRepository.findByIdForUpdate(acceptedOrder.getId()))
+                .thenReturn(Optional.of(acceptedOrder));
+        when(shoppingCartService.findShoppingCart(USER_ID)).thenReturn(cart);
+        orderService.completeOrder(acceptedOrder.getId());
+
+        assertEquals(storedSubtotal, acceptedOrder.getTotal());
+    }
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should mark an accepted order FAILED when the cart is empty
+            """)
+    public void completeOrder_emptyCart_marksOrderFailed() {
+        User user = createUser(USER_ID);
+        Order acceptedOrder = createAcceptedOrder(user);
+
+        when(orderRepository.findByIdForUpdate(acceptedOrder.getId()))
+                .thenReturn(Optional.of(acceptedOrder));
+        when(shoppingCartService.findShoppingCart(USER_ID))
+                .thenReturn(createCartWithItems(user, List.of()));
+        orderService.completeOrder(acceptedOrder.getId());
+
+        assertEquals(Order.Status.FAILED, acceptedOrder.getStatus());
+        verify(shoppingCartService, never()).clearShoppingCart(any(ShoppingCart.class));
+    }
+
+    @Test
+    @DisplayName("""
+            completeOrder()
+            - Should leave an order alone that another worker already assembled
+            """)
+    public void completeOrder_claimedOrder_skipsOrder() {
+        Order acceptedOrder = createAcceptedOrder(createUser(USER_ID));
+        acceptedOrder.setStatus(Order.Status.PROCESSING);
+
+        when(orderRepository.findByIdForUpdate(acceptedOrder.getId()))
+                .thenReturn(Optional.of(acceptedOrder));
+        orderService.completeOrder(acceptedOrder.getId());
+
+        assertEquals(Order.Status.PROCESSING, acceptedOrder.getStatus());
+        verify(shoppingCartService, never()).findShoppingCart(any());
+    }
+
     @Test
     @DisplayName("""
             getAllOrdersByUserId()
@@ -149,14 +388,83 @@ public class OrderServiceTest {
         PageImpl<OrderDto> expectedPage = new PageImpl<>(List.of(orderDto), PAGEABLE, PAGE_SIZE_1);
         Order order = createOrder(
                 createUser(USER_ID), List.of(FIRST_BOOK_ID));
-        Page<Order> orderPage = new PageImpl<>(List.of(order), PAGEABLE, PAGE_SIZE_1);
 
-        when(orderRepository.findAllByUserId(USER_ID, PAGEABLE)).thenReturn(orderPage);
+        when(orderRepository.findByUserId(USER_ID, PAGEABLE)).thenReturn(List.of(order));
+        when(orderItemRepository.findAllByOrderIdIn(List.of(order.getId())))
+                .thenReturn(List.of(createOrderItemLine(order.getId(), FIRST_BOOK_ID)));
         Page<OrderDto> actualPage = orderService.getAllOrdersByUserId(USER_ID, PAGEABLE);
 
         assertEquals(expectedPage, actualPage);
     }
 
+    @Test
+    @DisplayName("""
+            getAllOrdersByUserId()
+            - Should not count the orders when the page tells the total itself
+            """)
+    public void getAllOrdersByUserId_fanOutEnabledPartialPage_doesNotCountOrders() {
+        ReflectionTestUtils.setField(orderService, "lookupFanOut", new LookupFanOut(
+                new TaskExecutorAdapter(new SyncTaskExecutor()),
+                mock(PlatformTransactionManager.class), true, Duration.ofSeconds(1)));
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
+
+        when(orderRepository.findByUserId(USER_ID, PAGEABLE)).thenReturn(List.of(order));
+        when(orderItemRepository.findAllByOrderIdIn(List.of(order.getId())))
+                .thenReturn(List.of(createOrderItemLine(order.getId(), FIRST_BOOK_ID)));
+        Page<OrderDto> actualPage = orderService.getAllOrdersByUserId(USER_ID, PAGEABLE);
+
+        assertEquals(1, actualPage.getTotalElements());
+        verify(orderRepository, never()).countByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("""
+            getAllOrdersByUserId()
+            - Should fork the count before the orders lookup past the first page
+            """)
+    public void getAllOrdersByUserId_fanOutEnabledSecondPage_forksCountUpFront() {
+        ReflectionTestUtils.setField(orderService, "lookupFanOut", new LookupFanOut(
+                new TaskExecutorAdapter(new SyncTaskExecutor()),
+                mock(PlatformTransactionManager.class), true, Duration.ofSeconds(1)));
+        Pageable secondPage = PageRequest.of(1, PAGE_SIZE_1);
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
+
+        when(orderRepository.countByUserId(USER_ID)).thenReturn(3L);
+        when(orderRepository.findByUserId(USER_ID, secondPage)).thenReturn(List.of(order));
+        when(orderItemRepository.findAllByOrderIdIn(List.of(order.getId())))
+                .thenReturn(List.of(createOrderItemLine(order.getId(), FIRST_BOOK_ID)));
+        Page<OrderDto> actualPage = orderService.getAllOrdersByUserId(USER_ID, secondPage);
+
+        assertEquals(3, actualPage.getTotalElements());
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).countByUserId(USER_ID);
+        inOrder.verify(orderRepository).findByUserId(USER_ID, secondPage);
+    }
+
+    @Test
+    @DisplayName("""
+            getAllOrdersByUserId()
+            - Should get the last page of orders by cursor without a next cursor
+            """)
+    public void getAllOrdersByUserId_lastCursorPage_returnOrderDtosWithoutNextCursor() {
+        OrderDto orderDto = createOrderDto(
+                USER_ID, List.of(FIRST_BOOK_ID), Order.Status.PENDING);
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
+        Sort keysetSort = Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by("id"));
+        Window<Order> orders = Window.from(List.of(order),
+                index -> ScrollPosition.forward(Map.of("id", ORDER_ID_1)), false);
+
+        when(orderRepository.findAllByUserId(eq(USER_ID), any(ScrollPosition.class),
+                eq(keysetSort), eq(Limit.of(PAGE_SIZE_1)))).thenReturn(orders);
+        when(orderItemRepository.findAllByOrderIdIn(List.of(order.getId())))
+                .thenReturn(List.of(createOrderItemLine(order.getId(), FIRST_BOOK_ID)));
+        CursorPageDto<OrderDto> actualPage = orderService.getAllOrdersByUserId(USER_ID,
+                new CursorRequestDto(null, PAGE_SIZE_1),
+                Sort.by(Sort.Direction.DESC, "orderDate"));
+
+        assertEquals(new CursorPageDto<>(List.of(orderDto), null), actualPage);
+    }
+
     @Test
     @DisplayName("""
             updateOrderStatus()
@@ -166,31 +474,86 @@ public class OrderServiceTest {
         Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
         Order updatedOrder = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
         updatedOrder.setStatus(Order.Status.PROCESSING);
-        OrderDto expectedDto = createOrderDto(
-                USER_ID, List.of(FIRST_BOOK_ID), Order.Status.PROCESSING);
 
         when(orderRepository.findById(ORDER_ID_1)).thenReturn(Optional.of(order));
         when(orderRepository.save(order)).thenReturn(updatedOrder);
+        when(orderItemRepository.findAllByOrderIdIn(List.of(updatedOrder.getId())))
+                .thenReturn(List.of(createOrderItemLine(updatedOrder.getId(), FIRST_BOOK_ID)));
         OrderDto actualDto = orderService.updateOrderStatus(
                 ORDER_ID_1, createUpdateStatusDto(Order.Status.PROCESSING));
 
+        OrderDto expectedDto = createOrderDto(
+                USER_ID, List.of(FIRST_BOOK_ID), Order.Status.PROCESSING);
         assertEquals(expectedDto, actualDto);
     }
 
+    @Test
+    @DisplayName("""
+            updateOrderStatus()
+            - Should give the stock of a cancelled order back once
+            """)
+    public void updateOrderStatus_cancelledOrder_releasesStock() {
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
+        order.setStatus(Order.Status.PROCESSING);
+        order.getOrderItems().forEach(orderItem -> orderItem.setStockReserved(true));
+
+        when(orderRepository.findById(ORDER_ID_1)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        orderService.updateOrderStatus(ORDER_ID_1, createUpdateStatusDto(Order.Status.CANCELLED));
+        orderService.updateOrderStatus(ORDER_ID_1, createUpdateStatusDto(Order.Status.EXPIRED));
+
+        verify(stockService, times(ONE_INVOCATION))
+                .release(Map.of(FIRST_BOOK_ID, FIRST_BOOK_ID.intValue()));
+    }
+
+    @Test
+    @DisplayName("""
+            updateOrderStatus()
+            - Should give back only the stock the order reserved
+            """)
+    public void updateOrderStatus_orderPlacedBeforeStockTracking_releasesReservedStockOnly() {
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+        order.setStatus(Order.Status.PROCESSING);
+        order.getOrderItems().forEach(orderItem -> orderItem.setStockReserved(
+                orderItem.getBook().getId().equals(SECOND_BOOK_ID)));
+
+        when(orderRepository.findById(ORDER_ID_1)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        orderService.updateOrderStatus(ORDER_ID_1, createUpdateStatusDto(Order.Status.CANCELLED));
+
+        verify(stockService, times(ONE_INVOCATION))
+                .release(Map.of(SECOND_BOOK_ID, SECOND_BOOK_ID.intValue()));
+    }
+
+    @Test
+    @DisplayName("""
+            updateOrderStatus()
+            - Should refuse to move a cancelled order out of the statuses without stock
+            """)
+    public void updateOrderStatus_cancelledOrderToProcessing_throwsException() {
+        Order order = createOrder(createUser(USER_ID), List.of(FIRST_BOOK_ID));
+        order.setStatus(Order.Status.CANCELLED);
+
+        when(orderRepository.findById(ORDER_ID_1)).thenReturn(Optional.of(order));
+
+        assertThrows(OrderProcessingException.class, () -> orderService.updateOrderStatus(
+                ORDER_ID_1, createUpdateStatusDto(Order.Status.PROCESSING)));
+        assertEquals(Order.Status.CANCELLED, order.getStatus());
+        verify(orderRepository, never()).save(order);
+    }
+
     @Test
     @DisplayName("""
             getOrderItemsByOrderId()
             - Should get order items by order ID
             """)
     public void getOrderItemsByOrderId_validRequest_returnPageableOrderItemDto() {
-        OrderItem orderItem = createOrderItem(FIRST_BOOK_ID);
-        PageImpl<OrderItem> orderItems
-                = new PageImpl<>(List.of(orderItem), PAGEABLE, PAGE_SIZE_1);
         OrderItemDto orderItemDto = createOrderItemDto(FIRST_BOOK_ID);
         PageImpl<OrderItemDto> expectedPage
                 = new PageImpl<>(List.of(orderItemDto), PAGEABLE, PAGE_SIZE_1);
 
-        when(orderItemRepository.findAllByOrderId(ORDER_ID_1, PAGEABLE)).thenReturn(orderItems);
+        when(orderItemRepository.findAllByOrderId(ORDER_ID_1, PAGEABLE))
+                .thenReturn(new PageImpl<>(List.of(orderItemDto), PAGEABLE, PAGE_SIZE_1));
         Page<OrderItemDto> actualPage = orderService.getOrderItemsByOrderId(ORDER_ID_1, PAGEABLE);
 
         assertEquals(expectedPage, actualPage);
@@ -203,10 +566,9 @@ public class OrderServiceTest {
             """)
     public void getOrderItem_validRequest_returnOrderItemDto() {
         OrderItemDto orderItemDto = createOrderItemDto(FIRST_BOOK_ID);
-        OrderItem orderItem = createOrderItem(FIRST_BOOK_ID);
 
         when(orderItemRepository.findByIdAndOrderId(ORDER_ITEM_ID_1, ORDER_ID_1))
-                .thenReturn(Optional.of(orderItem));
+                .thenReturn(Optional.of(orderItemDto));
 
         OrderItemDto actualDto = orderService.getOrderItem(ORDER_ID_1, ORDER_ITEM_ID_1);
 
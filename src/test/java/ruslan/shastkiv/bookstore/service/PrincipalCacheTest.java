@@ -0,0 +1,135 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.CUSTOM_EMAIL;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.ROLE_USER_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.model.Role;
+import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.repository.role.RoleRepository;
+import ruslan.shastkiv.bookstore.repository.user.UserRepository;
+import ruslan.shastkiv.bookstore.security.PrincipalCache;
+
+@Sql(scripts = {
+        "classpath:scripts/user/insert_user_to_db.sql",
+        "classpath:scripts/user/insert_users_roles.sql"
+},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = {
+        "classpath:scripts/user/remove_users_roles.sql",
+        "classpath:scripts/user/remove_users.sql"
+},
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+public class PrincipalCacheTest {
+    private static final Long DELETED_USER_ID = 2L;
+    private static final Date ISSUED_AT = new Date(1_700_000_000_000L);
+    private static final Date REISSUED_AT = new Date(1_700_000_060_000L);
+
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AtomicInteger loads;
+    private Function<String, UserDetails> loader;
+
+    @BeforeEach
+    void setUp() {
+        principalCache.invalidateAll();
+        loads = new AtomicInteger();
+        loader = username -> {
+            loads.incrementAndGet();
+            return userDetailsService.loadUserByUsername(username);
+        };
+    }
+
+    @Test
+    @DisplayName("""
+            get()
+            - Should load the principal once per token and again for a newly issued token
+            """)
+    public void get_SameAndReissuedToken_LoadsOncePerToken() {
+        String email = CUSTOM_EMAIL.formatted(USER_ID);
+        final double hitsBefore = cacheHits();
+
+        UserDetails first = principalCache.get(email, ISSUED_AT, loader);
+        UserDetails second = principalCache.get(email, ISSUED_AT, loader);
+        principalCache.get(email, REISSUED_AT, loader);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(hitsBefore + 1, cacheHits(), 0.0);
+    }
+
+    @Test
+    @DisplayName("""
+            evict()
+            - Should drop cached principals when the user's roles change
+            """)
+    public void get_RolesChanged_ReloadsPrincipal() {
+        String email = CUSTOM_EMAIL.formatted(USER_ID);
+        principalCache.get(email, ISSUED_AT, loader);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByEmail(email).orElseThrow();
+            Role role = roleRepository.findAll().stream()
+                    .filter(r -> !r.getId().equals(ROLE_USER_ID))
+                    .findFirst()
+                    .orElseThrow();
+            user.getRoles().add(role);
+        });
+        UserDetails reloaded = principalCache.get(email, ISSUED_AT, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, reloaded.getAuthorities().size());
+    }
+
+    @Test
+    @DisplayName("""
+            evict()
+            - Should drop cached principals when the user is soft-deleted
+            """)
+    public void get_UserDeleted_NoLongerCached() {
+        String email = CUSTOM_EMAIL.formatted(DELETED_USER_ID);
+        principalCache.get(email, ISSUED_AT, loader);
+        long cachedBeforeDelete = principalCache.size();
+
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.deleteById(DELETED_USER_ID));
+
+        assertEquals(cachedBeforeDelete - 1, principalCache.size());
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", PrincipalCache.CACHE_NAME, "result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,182 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.UPDATED_TITLE;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.updateBookRequestDtoById;
+import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.Category;
+import ruslan.shastkiv.bookstore.service.book.BookImportService;
+import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.category.CategoryService;
+
+@Sql(scripts = {
+        "classpath:scripts/book/insert_books_to_db.sql",
+        "classpath:scripts/category/insert_categories_to_db.sql",
+        "classpath:scripts/book/insert_relations_between_book_and_categories.sql",
+},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = {
+        "classpath:scripts/book/remove_relations_between_books_and_categories_from_db.sql",
+        "classpath:scripts/category/remove_categories_from_db.sql",
+        "classpath:scripts/book/remove_test_books_from_db.sql"
+},
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book.import.batch-size=1"
+})
+@AutoConfigureObservability(tracing = false)
+public class SecondLevelCacheTest {
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private BookImportService bookImportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("""
+            findBookById()
+            - Should serve a repeated lookup from the books cache region
+            """)
+    public void findBookById_RepeatedLookup_ServedFromCache() {
+        bookService.findBookById(FIRST_BOOK_ID);
+        bookService.findBookById(FIRST_BOOK_ID);
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Book.CACHE_REGION)
+                .getHitCount());
+        assertTrue(meterRegistry.get("cache.gets")
+                .tag("cache", Book.CACHE_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count() > 0);
+    }
+
+    @Test
+    @Sql(scripts = "classpath:scripts/book/set_book_active_after_delete_method.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("""
+            deleteBook()
+            - Should never serve a soft-deleted book from the cache
+            """)
+    public void deleteBook_CachedBook_NotServedAfterSoftDelete() {
+        bookService.findBookById(SECOND_BOOK_ID);
+        assertTrue(cache.containsEntity(Book.class, SECOND_BOOK_ID));
+        bookService.deleteBook(SECOND_BOOK_ID);
+        long hitsAfterDelete = bookRegionHits();
+
+        assertThrows(EntityNotFoundException.class,
+                () -> bookService.findBookById(SECOND_BOOK_ID));
+        assertEquals(hitsAfterDelete, bookRegionHits());
+    }
+
+    @Test
+    @Sql(scripts = "classpath:scripts/category/set_category_active_after_soft_delete.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("""
+            deleteCategory()
+            - Should not serve a soft-deleted category from cached book categories
+            """)
+    public void deleteCategory_CachedBookCategories_NotServedAfterSoftDelete() {
+        assertEquals(Set.of(FIRST_CATEGORY_ID), loadCategoryIds(FIRST_BOOK_ID));
+        assertTrue(cache.containsCollection(Book.class.getName() + ".categories",
+                FIRST_BOOK_ID));
+
+        categoryService.deleteCategory(FIRST_CATEGORY_ID);
+
+        assertFalse(cache.containsCollection(Book.class.getName() + ".categories",
+                FIRST_BOOK_ID));
+        assertEquals(Set.of(), loadCategoryIds(FIRST_BOOK_ID));
+    }
+
+    @Test
+    @Sql(scripts = "classpath:scripts/book/revert_updated_book.sql",
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("""
+            importJsonLines()
+            - Should drop the cached books of a committed batch even when reading fails later
+            """)
+    public void importJsonLines_ReadFailsAfterBatch_EvictsCommittedBooks() throws Exception {
+        bookService.findBookById(FIRST_BOOK_ID);
+        assertTrue(cache.containsEntity(Book.class, FIRST_BOOK_ID));
+        byte[] firstLine = (objectMapper.writeValueAsString(
+                updateBookRequestDtoById(FIRST_BOOK_ID)) + "\n").getBytes(StandardCharsets.UTF_8);
+        InputStream brokenBody = new SequenceInputStream(new ByteArrayInputStream(firstLine),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+
+        assertThrows(UncheckedIOException.class,
+                () -> bookImportService.importJsonLines(brokenBody));
+
+        assertFalse(cache.containsEntity(Book.class, FIRST_BOOK_ID));
+        assertEquals(UPDATED_TITLE, bookService.findBookById(FIRST_BOOK_ID).getTitle());
+    }
+
+    private long bookRegionHits() {
+        return statistics.getDomainDataRegionStatistics(Book.CACHE_REGION).getHitCount();
+    }
+
+    private Set<Long> loadCategoryIds(Long bookId) {
+        return transactionTemplate.execute(status -> bookService.findBookById(bookId)
+                .getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet()));
+    }
+}
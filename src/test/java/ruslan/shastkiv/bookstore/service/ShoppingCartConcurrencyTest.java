@@ -0,0 +1,121 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql",
+                "classpath:scripts/book/insert_books_to_db.sql",
+                "classpath:scripts/cart/insert_cart_items.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/cart/remove_cart_item_after_create.sql",
+                "classpath:scripts/cart/revert_updated_quantity.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/cart/remove_cart_items.sql",
+                "classpath:scripts/book/remove_test_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest
+public class ShoppingCartConcurrencyTest {
+    private static final String SELECT_QUANTITY =
+            "SELECT quantity FROM cart_items WHERE shopping_cart_id = ? AND book_id = ?";
+    private static final String COUNT_LINES =
+            "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = ? AND book_id = ?";
+    private static final int THREADS = 200;
+    private static final int CLICKS_PER_THREAD = 5;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should keep every click of concurrent users of one cart, in its lines and totals
+            """)
+    public void addBookToCart_ConcurrentClicks_KeepsExactQuantity() throws Exception {
+        final int quantity = selectQuantity(THIRD_BOOK_ID);
+        shoppingCartService.addBookToCart(USER_ID, new CartItemRequestDto(THIRD_BOOK_ID, 1));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> clicks = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                Long bookId = thread % 2 == 0 ? THIRD_BOOK_ID : FIRST_BOOK_ID;
+                clicks.add(executor.submit(() -> {
+                    start.await();
+                    for (int click = 0; click < CLICKS_PER_THREAD; click++) {
+                        shoppingCartService.addBookToCart(
+                                USER_ID, new CartItemRequestDto(bookId, 1));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> click : clicks) {
+                click.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        int thirdBookQuantity = quantity + 1 + THREADS / 2 * CLICKS_PER_THREAD;
+        int firstBookQuantity = THREADS / 2 * CLICKS_PER_THREAD;
+        assertEquals(thirdBookQuantity, selectQuantity(THIRD_BOOK_ID));
+        assertEquals(firstBookQuantity, selectQuantity(FIRST_BOOK_ID));
+        assertEquals(1, countLines(FIRST_BOOK_ID));
+
+        ShoppingCartDto shoppingCartDto = shoppingCartService.getShoppingCart(USER_ID);
+        assertEquals(thirdBookQuantity + firstBookQuantity, shoppingCartDto.itemCount());
+        assertEquals(Money.of(BigDecimal.valueOf(THIRD_BOOK_ID)).times(thirdBookQuantity)
+                .plus(Money.of(BigDecimal.valueOf(FIRST_BOOK_ID)).times(firstBookQuantity))
+                .toBigDecimal(), shoppingCartDto.subtotal());
+    }
+
+    private int selectQuantity(Long bookId) {
+        return jdbcTemplate.queryForObject(SELECT_QUANTITY, Integer.class, USER_ID, bookId);
+    }
+
+    private int countLines(Long bookId) {
+        return jdbcTemplate.queryForObject(COUNT_LINES, Integer.class, USER_ID, bookId);
+    }
+}
@@ -0,0 +1,180 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
+import ruslan.shastkiv.bookstore.model.Book;
+import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
+import ruslan.shastkiv.bookstore.model.ShoppingCart;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
+import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
+
+@Sql(
+        scripts = {
+                "classpath:scripts/user/insert_user_to_db.sql",
+                "classpath:scripts/user/insert_users_roles.sql",
+                "classpath:scripts/cart/insert_shopping_cart.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/order/remove_bulk_orders.sql",
+                "classpath:scripts/book/remove_100k_books_from_db.sql",
+                "classpath:scripts/cart/remove_shopping_cart.sql",
+                "classpath:scripts/user/remove_users_roles.sql",
+                "classpath:scripts/user/remove_users.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest
+public class ShoppingCartQueryCountTest {
+    private static final int FEW_LINES = 2;
+    private static final int MANY_LINES = 30;
+    private static final int ADDED_QUANTITY = 1;
+    /*
+    One read of the stored cart totals and one projection of its items with their titles.
+     */
+    private static final int EXPECTED_CART_SELECTS = 2;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SelectStatementCounter selectStatementCounter;
+
+    private final List<Long> bookIds = new ArrayList<>();
+
+    @Test
+    @DisplayName("""
+            getShoppingCart(), addBookToCart()
+            - Should render the cart with the same number of selects whatever its size
+            """)
+    public void shoppingCart_GrowingCart_KeepsSelectCountConstant() {
+        fillShoppingCart(FEW_LINES);
+        final int fewLinesCartSelects = countSelects(this::getShoppingCart);
+        final int fewLinesAddSelects = countSelects(this::addNewBook);
+
+        fillShoppingCart(MANY_LINES);
+        int manyLinesCartSelects = countSelects(this::getShoppingCart);
+        int manyLinesAddSelects = countSelects(this::addNewBook);
+
+        assertEquals(EXPECTED_CART_SELECTS, fewLinesCartSelects);
+        assertEquals(EXPECTED_CART_SELECTS, manyLinesCartSelects);
+        assertEquals(fewLinesAddSelects, manyLinesAddSelects);
+    }
+
+    private int countSelects(Supplier<ShoppingCartDto> action) {
+        selectStatementCounter.reset();
+        ShoppingCartDto shoppingCartDto = action.get();
+        assertEquals(bookIds.size(), shoppingCartDto.cartItems().size());
+        assertEquals(bookIds.size() * ADDED_QUANTITY, shoppingCartDto.itemCount());
+        return selectStatementCounter.count();
+    }
+
+    private ShoppingCartDto getShoppingCart() {
+        return shoppingCartService.getShoppingCart(USER_ID);
+    }
+
+    private ShoppingCartDto addNewBook() {
+        Long bookId = bookRepository.save(createBulkBook(bookIds.size())).getId();
+        bookIds.add(bookId);
+        return shoppingCartService.addBookToCart(USER_ID,
+                new CartItemRequestDto(bookId, ADDED_QUANTITY));
+    }
+
+    /*
+    Adds the lines the way the service would, keeping the stored totals of the cart priced.
+     */
+    private void fillShoppingCart(int lines) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ShoppingCart shoppingCart = shoppingCartRepository.findById(USER_ID).orElseThrow();
+            for (int i = 0; i < lines; i++) {
+                CartItem cartItem = new CartItem();
+                cartItem.setBook(bookRepository.save(createBulkBook(bookIds.size())));
+                cartItem.setShoppingCart(shoppingCart);
+                cartItem.setQuantity(ADDED_QUANTITY);
+                shoppingCart.getCartItems().add(cartItem);
+                bookIds.add(cartItem.getBook().getId());
+            }
+            shoppingCart.setSubtotal(Money.of(shoppingCart.getSubtotal())
+                    .plus(Money.of(BigDecimal.ONE).times(lines * ADDED_QUANTITY))
+                    .toBigDecimal());
+            shoppingCart.setItemCount(shoppingCart.getItemCount() + lines * ADDED_QUANTITY);
+            shoppingCart.setPriced(true);
+        });
+    }
+
+    private Book createBulkBook(int number) {
+        Book book = new Book();
+        book.setTitle("Bulk_Title_" + number);
+        book.setAuthor("Bulk_Author_" + number);
+        book.setIsbn("978-3-%08d".formatted(number));
+        book.setPrice(BigDecimal.ONE);
+        return book;
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+        @Bean
+        SelectStatementCounter selectStatementCounter() {
+            return new SelectStatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer(SelectStatementCounter counter) {
+            return properties -> properties.put(
+                    "hibernate.session_factory.statement_inspector", counter);
+        }
+    }
+
+    /*
+    Counts the selects Hibernate prepares, leaving out the id generator table,
+    which is only read when a block of ids runs out.
+     */
+    static class SelectStatementCounter implements StatementInspector {
+        private final AtomicInteger statements = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            String statement = sql.toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select") && !statement.contains("id_generators")) {
+                statements.incrementAndGet();
+            }
+            return sql;
+        }
+
+        void reset() {
+            statements.set(0);
+        }
+
+        int count() {
+            return statements.get();
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package ruslan.shastkiv.bookstore.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.FIRST_CATEGORY_ID;
@@ -26,10 +31,13 @@ import static ruslan.shastkiv.bookstore.utils.UserTestUtils.INVALID_USER_ID;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUser;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,26 +45,36 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ruslan.shastkiv.bookstore.dto.cart.ShoppingCartDto;
+import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
 import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
 import ruslan.shastkiv.bookstore.exception.EntityNotFoundException;
-import ruslan.shastkiv.bookstore.mapper.BookMapperImpl;
-import ruslan.shastkiv.bookstore.mapper.CartItemMapperImpl;
-import ruslan.shastkiv.bookstore.mapper.CategoryMapperImpl;
-import ruslan.shastkiv.bookstore.mapper.ShoppingCartMapper;
-import ruslan.shastkiv.bookstore.mapper.ShoppingCartMapperImpl;
 import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
 import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.repository.book.BookRepository;
+import ruslan.shastkiv.bookstore.repository.cart.CartSummary;
 import ruslan.shastkiv.bookstore.repository.cart.ShoppingCartRepository;
 import ruslan.shastkiv.bookstore.repository.item.CartItemRepository;
+import ruslan.shastkiv.bookstore.repository.item.CartTotals;
 import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.cart.CartWriteBehindStore;
 import ruslan.shastkiv.bookstore.service.cart.ShoppingCartServiceImpl;
+import ruslan.shastkiv.bookstore.service.fanout.LookupFanOut;
 
 @ExtendWith(SpringExtension.class)
 public class ShoppingCartServiceTest {
+    private static final int MAX_ATTEMPTS = 3;
+
     @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
     @Mock
@@ -65,9 +83,22 @@ public class ShoppingCartServiceTest {
     private CartItemRepository cartItemRepository;
     @Mock
     private BookService bookService;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private CartWriteBehindStore cartStore;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @Spy
-    private ShoppingCartMapper shoppingCartMapper = new ShoppingCartMapperImpl(
-            new CartItemMapperImpl(new BookMapperImpl(new CategoryMapperImpl())));
+    private LookupFanOut lookupFanOut = new LookupFanOut(null,
+            mock(PlatformTransactionManager.class), false, Duration.ofSeconds(1));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(shoppingCartService, "maxAttempts", MAX_ATTEMPTS);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
 
     @Test
     @DisplayName("""
@@ -91,14 +122,51 @@ public class ShoppingCartServiceTest {
             - Should retrieve the shopping cart by its ID
             """)
     public void getShoppingCart_validId_returnShoppingCartDto() {
-        User user = createUser(USER_ID);
-        ShoppingCart cart = createCart(USER_ID, user, Set.of());
         ShoppingCartDto shoppingCartDto = createShoppingCartDto(USER_ID, List.of());
 
-        when(shoppingCartRepository.findById(USER_ID)).thenReturn(Optional.of(cart));
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, true)));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID)).thenReturn(List.of());
         ShoppingCartDto actualDto = shoppingCartService.getShoppingCart(USER_ID);
 
         assertEquals(shoppingCartDto, actualDto);
+        verify(cartItemRepository, never()).sumTotalsByShoppingCartId(anyLong());
+    }
+
+    @Test
+    @DisplayName("""
+            getShoppingCart()
+            - Should aggregate the totals from the items when the cart is not priced
+            """)
+    public void getShoppingCart_unpricedCart_returnAggregatedTotals() {
+        ShoppingCartDto shoppingCartDto = createShoppingCartDto(
+                USER_ID, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, false)));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID))
+                .thenReturn(List.copyOf(shoppingCartDto.cartItems()));
+        when(cartItemRepository.sumTotalsByShoppingCartId(USER_ID)).thenReturn(new CartTotals(
+                shoppingCartDto.subtotal(), (long) shoppingCartDto.itemCount()));
+        ShoppingCartDto actualDto = shoppingCartService.getShoppingCart(USER_ID);
+
+        assertEquals(shoppingCartDto, actualDto);
+    }
+
+    @Test
+    @DisplayName("""
+            getShoppingCart()
+            - Should throw EntityNotFoundException for an invalid shopping cart ID
+            """)
+    public void getShoppingCart_invalidId_throwException() {
+        when(shoppingCartRepository.findSummaryById(INVALID_USER_ID))
+                .thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.getShoppingCart(INVALID_USER_ID));
+
+        assertEquals("Cant find shopping cart by user id: [" + INVALID_USER_ID + "]",
+                exception.getMessage());
     }
 
     @Test
@@ -112,19 +180,109 @@ public class ShoppingCartServiceTest {
         ShoppingCart cart = createCart(USER_ID, user, Set.of());
         ShoppingCartDto shoppingCartDto = createShoppingCartDto(USER_ID, List.of(FIRST_BOOK_ID));
         Book book = createBookById(FIRST_BOOK_ID, List.of(FIRST_CATEGORY_ID));
-        CartItem cartItem = createCartItem(FIRST_BOOK_ID, cart);
 
-        when(shoppingCartRepository.findById(USER_ID)).thenReturn(Optional.of(cart));
         when(bookService.findBookById(requestDto.bookId())).thenReturn(book);
-        when(cartItemRepository.findByBookIdAndShoppingCartId(FIRST_BOOK_ID, USER_ID))
-                .thenReturn(Optional.of(cartItem));
-        when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(cart);
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt())).thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, false)));
+        when(shoppingCartRepository.findById(USER_ID)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID))
+                .thenReturn(List.copyOf(shoppingCartDto.cartItems()));
+        when(cartItemRepository.sumTotalsByShoppingCartId(USER_ID)).thenReturn(new CartTotals(
+                shoppingCartDto.subtotal(), (long) shoppingCartDto.itemCount()));
+
+        ShoppingCartDto result = shoppingCartService.addBookToCart(USER_ID, requestDto);
+        assertEquals(shoppingCartDto, result);
+        assertTrue(cart.isPriced());
+        verify(cartItemRepository, times(ONE_INVOCATION))
+                .addQuantity(USER_ID, FIRST_BOOK_ID, requestDto.quantity());
+        verify(cartItemRepository, times(ONE_INVOCATION)).findAllByShoppingCartId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should add the price of the new line to the totals of a priced cart
+              without aggregating its items
+            """)
+    public void addBookToCart_pricedCart_addLineToTotals() {
+        CartItemRequestDto requestDto = createCartItemRequestDto(SECOND_BOOK_ID);
+        ShoppingCartDto shoppingCartDto = createShoppingCartDto(
+                USER_ID, List.of(FIRST_BOOK_ID, SECOND_BOOK_ID));
+        BigDecimal lineTotal = Money.of(BigDecimal.valueOf(SECOND_BOOK_ID))
+                .times(requestDto.quantity()).toBigDecimal();
+
+        when(bookService.findBookById(SECOND_BOOK_ID))
+                .thenReturn(createBookById(SECOND_BOOK_ID, List.of()));
+        when(shoppingCartRepository.addToTotals(USER_ID, lineTotal, requestDto.quantity()))
+                .thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID)).thenReturn(Optional.of(
+                new CartSummary(shoppingCartDto.subtotal(), shoppingCartDto.itemCount(), true)));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID))
+                .thenReturn(List.copyOf(shoppingCartDto.cartItems()));
 
         ShoppingCartDto result = shoppingCartService.addBookToCart(USER_ID, requestDto);
-        assertNotNull(result);
-        verify(shoppingCartRepository, times(ONE_INVOCATION)).findById(USER_ID);
-        verify(shoppingCartRepository, times(ONE_INVOCATION)).save(any(ShoppingCart.class));
-        verify(shoppingCartMapper, times(ONE_INVOCATION)).toDto(cart);
+        assertEquals(shoppingCartDto, result);
+        verify(shoppingCartRepository, times(ONE_INVOCATION))
+                .addToTotals(USER_ID, lineTotal, requestDto.quantity());
+        verify(cartItemRepository, never()).sumTotalsByShoppingCartId(anyLong());
+        verify(shoppingCartRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should throw EntityNotFoundException when the user has no shopping cart
+            """)
+    public void addBookToCart_invalidId_throwException() {
+        when(bookService.findBookById(FIRST_BOOK_ID))
+                .thenReturn(createBookById(FIRST_BOOK_ID, List.of()));
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt())).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> shoppingCartService.addBookToCart(
+                INVALID_USER_ID, createCartItemRequestDto(FIRST_BOOK_ID)));
+        verify(cartItemRepository, never()).addQuantity(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should run the write again after it lost a race for the cart
+            """)
+    public void addBookToCart_concurrentChange_retryWrite() {
+        ShoppingCartDto shoppingCartDto = createShoppingCartDto(USER_ID, List.of(FIRST_BOOK_ID));
+        when(bookService.findBookById(FIRST_BOOK_ID))
+                .thenReturn(createBookById(FIRST_BOOK_ID, List.of()));
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt()))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"))
+                .thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID)).thenReturn(Optional.of(
+                new CartSummary(shoppingCartDto.subtotal(), shoppingCartDto.itemCount(), true)));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID))
+                .thenReturn(List.copyOf(shoppingCartDto.cartItems()));
+
+        ShoppingCartDto result = shoppingCartService.addBookToCart(
+                USER_ID, createCartItemRequestDto(FIRST_BOOK_ID));
+        assertEquals(shoppingCartDto, result);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(cartItemRepository, times(ONE_INVOCATION))
+                .addQuantity(USER_ID, FIRST_BOOK_ID, FIRST_BOOK_ID.intValue());
+    }
+
+    @Test
+    @DisplayName("""
+            addBookToCart()
+            - Should give up after cart.write.max-attempts lost races
+            """)
+    public void addBookToCart_alwaysConcurrentChange_throwException() {
+        when(bookService.findBookById(FIRST_BOOK_ID))
+                .thenReturn(createBookById(FIRST_BOOK_ID, List.of()));
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt()))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"));
+
+        assertThrows(ConcurrencyFailureException.class, () -> shoppingCartService.addBookToCart(
+                USER_ID, createCartItemRequestDto(FIRST_BOOK_ID)));
+        verify(transactionTemplate, times(MAX_ATTEMPTS)).execute(any());
     }
 
     @Test
@@ -136,12 +294,43 @@ public class ShoppingCartServiceTest {
         ShoppingCart cart = createCart(USER_ID, createUser(USER_ID), Set.of());
         CartItem cartItem = createCartItem(FIRST_BOOK_ID, cart);
         cart.setCartItems(Set.of(cartItem));
+        BigDecimal lineTotal = Money.of(BigDecimal.valueOf(FIRST_BOOK_ID))
+                .times(-cartItem.getQuantity()).toBigDecimal();
+        when(cartItemRepository.findByIdAndShoppingCartId(FIRST_BOOK_ID, USER_ID))
+                .thenReturn(Optional.of(cartItem));
+        when(bookRepository.findById(FIRST_BOOK_ID)).thenReturn(Optional.of(cartItem.getBook()));
+        when(shoppingCartRepository.addToTotals(USER_ID, lineTotal, -cartItem.getQuantity()))
+                .thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, true)));
+
+        shoppingCartService.removeCartItem(USER_ID, FIRST_BOOK_ID);
+
+        verify(cartItemRepository, times(ONE_INVOCATION)).delete(cartItem);
+        verify(shoppingCartRepository, times(ONE_INVOCATION))
+                .addToTotals(USER_ID, lineTotal, -cartItem.getQuantity());
+    }
+
+    @Test
+    @DisplayName("""
+            removeCartItem()
+            - Should remove an item of a deleted book and change only the item count
+            """)
+    public void removeCartItem_deletedBook_changesOnlyItemCount() {
+        ShoppingCart cart = createCart(USER_ID, createUser(USER_ID), Set.of());
+        CartItem cartItem = createCartItem(FIRST_BOOK_ID, cart);
         when(cartItemRepository.findByIdAndShoppingCartId(FIRST_BOOK_ID, USER_ID))
                 .thenReturn(Optional.of(cartItem));
+        when(bookRepository.findById(FIRST_BOOK_ID)).thenReturn(Optional.empty());
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt())).thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, true)));
 
         shoppingCartService.removeCartItem(USER_ID, FIRST_BOOK_ID);
 
         verify(cartItemRepository, times(ONE_INVOCATION)).delete(cartItem);
+        verify(shoppingCartRepository, times(ONE_INVOCATION))
+                .addToTotals(USER_ID, Money.ZERO.toBigDecimal(), -cartItem.getQuantity());
     }
 
     @Test
@@ -152,16 +341,32 @@ public class ShoppingCartServiceTest {
     public void updateItemQuantity_validRequest_returnShoppingCartDto() {
         ShoppingCart cart = createCartWithItems(createUser(USER_ID), List.of(THIRD_BOOK_ID));
         updateCartItemQuantity(cart, THIRD_BOOK_ID, UPDATED_QUANTITY);
+        CartItem cartItem = createCartItem(THIRD_BOOK_ID, cart);
+        final int difference = UPDATED_QUANTITY - cartItem.getQuantity();
 
         when(cartItemRepository.findByIdAndShoppingCartId(ITEM_ID_3, USER_ID))
-                .thenReturn(Optional.of(createCartItem(THIRD_BOOK_ID, cart)));
-        when(shoppingCartRepository.save(any(ShoppingCart.class))).thenReturn(cart);
+                .thenReturn(Optional.of(cartItem));
+        when(bookRepository.findById(THIRD_BOOK_ID)).thenReturn(Optional.of(cartItem.getBook()));
+        when(shoppingCartRepository.addToTotals(any(), any(), anyInt())).thenReturn(1);
+        when(shoppingCartRepository.findSummaryById(USER_ID))
+                .thenReturn(Optional.of(new CartSummary(BigDecimal.ZERO, 0, false)));
+        when(shoppingCartRepository.findById(USER_ID)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.findAllByShoppingCartId(USER_ID)).thenReturn(List.of(
+                new CartItemDto(ITEM_ID_3, THIRD_BOOK_ID,
+                        CUSTOM_BOOK_TITLE.formatted(THIRD_BOOK_ID), UPDATED_QUANTITY)));
+        when(cartItemRepository.sumTotalsByShoppingCartId(USER_ID)).thenReturn(new CartTotals(
+                BigDecimal.valueOf(THIRD_BOOK_ID * UPDATED_QUANTITY), (long) UPDATED_QUANTITY));
         ShoppingCartDto actualDto = shoppingCartService.updateItemQuantity(
                 USER_ID, ITEM_ID_3, createUpdateCartItemDto(UPDATED_QUANTITY));
 
+        assertEquals(UPDATED_QUANTITY, cartItem.getQuantity());
         assertTrue(actualDto.cartItems().stream()
                 .filter(item -> item.bookId().equals(THIRD_BOOK_ID))
                 .anyMatch(item -> item.quantity() == UPDATED_QUANTITY));
+        assertEquals(UPDATED_QUANTITY, actualDto.itemCount());
+        verify(shoppingCartRepository, times(ONE_INVOCATION)).addToTotals(USER_ID,
+                Money.of(BigDecimal.valueOf(THIRD_BOOK_ID)).times(difference).toBigDecimal(),
+                difference);
     }
 
     @Test
@@ -210,5 +415,8 @@ public class ShoppingCartServiceTest {
 
         verify(shoppingCartRepository, times(ONE_INVOCATION)).save(shoppingCartCaptor.capture());
         assertTrue(shoppingCartCaptor.getValue().getCartItems().isEmpty());
+        assertEquals(0, shoppingCartCaptor.getValue().getItemCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(shoppingCartCaptor.getValue().getSubtotal()));
+        assertTrue(shoppingCartCaptor.getValue().isPriced());
     }
 }
@@ -0,0 +1,234 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.FIRST_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.SECOND_BOOK_ID;
+import static ruslan.shastkiv.bookstore.utils.BookTestUtils.THIRD_BOOK_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ruslan.shastkiv.bookstore.dto.stock.UpdateBookStockRequestDto;
+import ruslan.shastkiv.bookstore.exception.OrderProcessingException;
+import ruslan.shastkiv.bookstore.repository.stock.BookStockRepository;
+import ruslan.shastkiv.bookstore.service.book.BookService;
+import ruslan.shastkiv.bookstore.service.stock.StockServiceImpl;
+
+/*
+Runs in its own application context (see the properties), so the stock counters it
+leaves behind are not seen by the order tests.
+ */
+@Sql(
+        scripts = "classpath:scripts/book/insert_books_to_db.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS
+)
+@Sql(
+        scripts = {
+                "classpath:scripts/stock/remove_book_stocks.sql",
+                "classpath:scripts/book/remove_test_books_from_db.sql"
+        },
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS
+)
+@SpringBootTest(properties = {
+        "stock.flush-interval=PT1H",
+        "stock.counter-stripes=8",
+        "stock.quota-size=10"
+})
+public class StockServiceTest {
+    private static final String SELECT_QUANTITY =
+            "SELECT quantity FROM book_stocks WHERE book_id = ?";
+    private static final String SELECT_ALLOCATED =
+            "SELECT allocated FROM book_stocks WHERE book_id = ?";
+    private static final int STOCK = 100;
+    private static final int STRIPES = 8;
+    private static final int QUOTA_SIZE = 10;
+    private static final int THREADS = 200;
+
+    @Autowired
+    private StockServiceImpl stockService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookStockRepository bookStockRepository;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("""
+            updateStock()
+            - Should start tracking the stock of a book that had none
+            """)
+    public void updateStock_UntrackedBook_StoresQuantity() {
+        assertNull(stockService.getStock(THIRD_BOOK_ID).quantity());
+
+        stockService.updateStock(THIRD_BOOK_ID, new UpdateBookStockRequestDto(STOCK));
+
+        assertEquals(STOCK, stockService.getStock(THIRD_BOOK_ID).quantity());
+        assertEquals(STOCK, selectQuantity(THIRD_BOOK_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            reserve()
+            - Should claim a slice of the stock and give its unsold rest back on flush
+            """)
+    public void reserve_TrackedBook_ClaimsSliceAndSettlesOnFlush() {
+        setStock(FIRST_BOOK_ID, STOCK);
+
+        stockService.reserve(Map.of(FIRST_BOOK_ID, 2));
+
+        assertEquals(STOCK - 2, stockService.getStock(FIRST_BOOK_ID).quantity());
+        assertEquals(STOCK - QUOTA_SIZE, selectQuantity(FIRST_BOOK_ID));
+        assertEquals(QUOTA_SIZE, selectAllocated(FIRST_BOOK_ID));
+        stockService.flush();
+        assertEquals(STOCK - 2, selectQuantity(FIRST_BOOK_ID));
+        assertEquals(0, selectAllocated(FIRST_BOOK_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            reserve()
+            - Should give the quantity back when the transaction rolls back
+            """)
+    public void reserve_RolledBackTransaction_GivesQuantityBack() {
+        setStock(FIRST_BOOK_ID, STOCK);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockService.reserve(Map.of(FIRST_BOOK_ID, 2));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(STOCK, stockService.getStock(FIRST_BOOK_ID).quantity());
+    }
+
+    @Test
+    @DisplayName("""
+            reserve()
+            - Should take none of the books when one of them is sold out
+            """)
+    public void reserve_SoldOutBook_ThrowsExceptionAndTakesNothing() {
+        setStock(FIRST_BOOK_ID, STOCK);
+        setStock(SECOND_BOOK_ID, 1);
+
+        assertThrows(OrderProcessingException.class, () -> stockService.reserve(
+                Map.of(FIRST_BOOK_ID, 1, SECOND_BOOK_ID, 2)));
+
+        assertEquals(STOCK, stockService.getStock(FIRST_BOOK_ID).quantity());
+        assertEquals(1, stockService.getStock(SECOND_BOOK_ID).quantity());
+    }
+
+    @Test
+    @DisplayName("""
+            reserve()
+            - Should sell exactly the stock to concurrent checkouts of one book
+            """)
+    public void reserve_ConcurrentCheckouts_NeverOversells() throws Exception {
+        setStock(SECOND_BOOK_ID, STOCK);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> checkouts = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockService.reserve(Map.of(SECOND_BOOK_ID, 1));
+                        sold.incrementAndGet();
+                    } catch (OrderProcessingException e) {
+                        // sold out
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> checkout : checkouts) {
+                checkout.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertEquals(STOCK, sold.get());
+        stockService.flush();
+        assertEquals(0, selectQuantity(SECOND_BOOK_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            reserve()
+            - Should sell exactly the stock to checkouts spread over two instances
+            """)
+    public void reserve_CheckoutsOnTwoInstances_NeverOversells() throws Exception {
+        StockServiceImpl otherInstance = new StockServiceImpl(bookStockRepository, bookService,
+                transactionManager, STRIPES, QUOTA_SIZE);
+        setStock(FIRST_BOOK_ID, STOCK);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> checkouts = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                StockServiceImpl instance = thread % 2 == 0 ? stockService : otherInstance;
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        instance.reserve(Map.of(FIRST_BOOK_ID, 1));
+                        sold.incrementAndGet();
+                    } catch (OrderProcessingException e) {
+                        // sold out
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> checkout : checkouts) {
+                checkout.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertEquals(STOCK, sold.get());
+        stockService.flush();
+        otherInstance.flush();
+        assertEquals(0, selectQuantity(FIRST_BOOK_ID));
+        assertEquals(0, selectAllocated(FIRST_BOOK_ID));
+    }
+
+    private void setStock(Long bookId, int quantity) {
+        stockService.updateStock(bookId, new UpdateBookStockRequestDto(quantity));
+        stockService.flush();
+    }
+
+    private int selectQuantity(Long bookId) {
+        return jdbcTemplate.queryForObject(SELECT_QUANTITY, Integer.class, bookId);
+    }
+
+    private int selectAllocated(Long bookId) {
+        return jdbcTemplate.queryForObject(SELECT_ALLOCATED, Integer.class, bookId);
+    }
+}
@@ -0,0 +1,100 @@
+package ruslan.shastkiv.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ruslan.shastkiv.bookstore.service.stock.StripedCounter;
+
+public class StripedCounterTest {
+    private static final int STRIPES = 8;
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 64;
+    private static final int TAKES_PER_THREAD = 50;
+
+    @Test
+    @DisplayName("""
+            tryTake()
+            - Should take a quantity spread over several stripes
+            """)
+    public void tryTake_QuantityAcrossStripes_TakesAll() {
+        StripedCounter counter = new StripedCounter(STRIPES, 10);
+
+        assertTrue(counter.tryTake(10));
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryTake(1));
+    }
+
+    @Test
+    @DisplayName("""
+            tryTake()
+            - Should take nothing when the quantity is more than the count
+            """)
+    public void tryTake_MoreThanCount_KeepsCount() {
+        StripedCounter counter = new StripedCounter(STRIPES, 10);
+
+        assertFalse(counter.tryTake(11));
+        assertEquals(10, counter.sum());
+    }
+
+    @Test
+    @DisplayName("""
+            replace()
+            - Should return the emptied count and hold only the new one
+            """)
+    public void replace_TakenCounter_ReturnsRemainingCount() {
+        StripedCounter counter = new StripedCounter(STRIPES, 10);
+        counter.tryTake(4);
+
+        assertEquals(6, counter.replace(3));
+        assertEquals(3, counter.sum());
+        assertFalse(counter.tryTake(4));
+    }
+
+    @Test
+    @DisplayName("""
+            tryTake()
+            - Should let concurrent takers take exactly the count, never more
+            """)
+    public void tryTake_ConcurrentTakers_NeverOversells() throws Exception {
+        StripedCounter counter = new StripedCounter(STRIPES, STOCK);
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> takers = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int amount = thread % 3 + 1;
+                takers.add(executor.submit(() -> {
+                    start.await();
+                    for (int take = 0; take < TAKES_PER_THREAD; take++) {
+                        if (counter.tryTake(amount)) {
+                            taken.addAndGet(amount);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> taker : takers) {
+                taker.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertEquals(STOCK, taken.get() + counter.sum());
+        assertTrue(counter.sum() >= 0);
+    }
+}
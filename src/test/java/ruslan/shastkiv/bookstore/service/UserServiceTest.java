@@ -9,6 +9,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ruslan.shastkiv.bookstore.utils.CategoryTestUtils.ONE_INVOCATION;
+import static ruslan.shastkiv.bookstore.utils.UserTestUtils.CUSTOM_EMAIL;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.ENCODED_PASSWORD;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.ROLE_USER_ID;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.USER_ID;
@@ -18,6 +19,7 @@ import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUserDto;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.createUserRegisterDto;
 import static ruslan.shastkiv.bookstore.utils.UserTestUtils.getAuthentication;
 
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ruslan.shastkiv.bookstore.dto.user.UserDto;
@@ -37,6 +40,7 @@ import ruslan.shastkiv.bookstore.model.Role;
 import ruslan.shastkiv.bookstore.model.User;
 import ruslan.shastkiv.bookstore.repository.role.RoleRepository;
 import ruslan.shastkiv.bookstore.repository.user.UserRepository;
+import ruslan.shastkiv.bookstore.security.TokenPrincipal;
 import ruslan.shastkiv.bookstore.service.cart.ShoppingCartService;
 import ruslan.shastkiv.bookstore.service.user.UserServiceImpl;
 
@@ -103,4 +107,18 @@ public class UserServiceTest {
 
         assertEquals(USER_ID, actualId);
     }
+
+    @Test
+    @DisplayName("""
+            getUserId()
+            - Should retrieve user ID from a principal built from token claims
+            """)
+    public void getUserId_fromTokenPrincipal_returnUserId() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                new TokenPrincipal(USER_ID, CUSTOM_EMAIL.formatted(USER_ID)), null, List.of());
+
+        Long actualId = userService.getUserId(authentication);
+
+        assertEquals(USER_ID, actualId);
+    }
 }
@@ -13,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.web.servlet.MvcResult;
 import ruslan.shastkiv.bookstore.dto.book.BookDto;
 import ruslan.shastkiv.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import ruslan.shastkiv.bookstore.dto.book.BookExportDto;
 import ruslan.shastkiv.bookstore.dto.book.BookSearchParametersDto;
 import ruslan.shastkiv.bookstore.dto.book.CreateBookRequestDto;
 import ruslan.shastkiv.bookstore.model.Book;
@@ -27,10 +28,13 @@ public class BookTestUtils {
     public static final Long SECOND_BOOK_ID = 2L;
     public static final Long THIRD_BOOK_ID = 3L;
     public static final Long FOURTH_BOOK_ID = 4L;
+    public static final Long FIFTH_BOOK_ID = 5L;
+    public static final Long SIXTH_BOOK_ID = 6L;
     public static final Long INVALID_BOOK_ID = 100L;
 
     public static final String UPDATED_TITLE = "Updated_title_1";
     public static final String NON_EXISTING_TITLE = "Non_existing_title_1";
+    public static final String INVALID_ISBN = "Invalid_isbn";
 
     public static final String CUSTOM_BOOK_TITLE = "Title_%s";
     public static final String CUSTOM_BOOK_AUTHOR = "Author_%s";
@@ -43,6 +47,8 @@ public class BookTestUtils {
     public static final String BOOK_URL_WITH_FIRST_BOOK_ID = "/books/1";
     public static final String BOOK_URL_WITH_SECOND_BOOK_ID = "/books/2";
     public static final String SEARCH_BOOK_URL = "/books/search";
+    public static final String IMPORT_BOOK_URL = "/books/import";
+    public static final String EXPORT_BOOK_URL = "/books/export";
 
     public static CreateBookRequestDto createBookRequestDtoById(Long id) {
         CreateBookRequestDto requestDto = new CreateBookRequestDto();
@@ -67,7 +73,8 @@ public class BookTestUtils {
                 new String[]{CUSTOM_BOOK_AUTHOR.formatted(FIRST_BOOK_ID)},
                 new String[]{CUSTOM_BOOK_TITLE.formatted(FIRST_BOOK_ID)},
                 new String[]{},
-                new String[]{}
+                new String[]{},
+                null
                 );
     }
 
@@ -116,6 +123,36 @@ public class BookTestUtils {
         return bookDto;
     }
 
+    public static BookDto createBookDtoWithoutId(Long id, List<Long> categoryIds) {
+        BookDto bookDto = createBookDtoById(id, categoryIds);
+        bookDto.setId(null);
+        return bookDto;
+    }
+
+    public static BookExportDto createBookExportDtoById(Long id, List<Long> categoryIds) {
+        return new BookExportDto(id,
+                CUSTOM_BOOK_TITLE.formatted(id),
+                CUSTOM_BOOK_AUTHOR.formatted(id),
+                CUSTOM_BOOK_ISBN.formatted(id),
+                BigDecimal.valueOf(id),
+                CUSTOM_BOOK_DESCRIPTION.formatted(id),
+                CUSTOM_BOOK_COVER_IMAGE.formatted(id),
+                categoryIds
+        );
+    }
+
+    public static String createBookCsvRowById(Long id, String categoryIds) {
+        return String.join(",",
+                CUSTOM_BOOK_TITLE.formatted(id),
+                CUSTOM_BOOK_AUTHOR.formatted(id),
+                CUSTOM_BOOK_ISBN.formatted(id),
+                id.toString(),
+                CUSTOM_BOOK_DESCRIPTION.formatted(id),
+                CUSTOM_BOOK_COVER_IMAGE.formatted(id),
+                categoryIds
+        );
+    }
+
     public static List<BookDto> getBookDtosFromMvcResult(
             MvcResult result,
             ObjectMapper objectMapper) throws Exception {
@@ -19,12 +19,17 @@ import ruslan.shastkiv.bookstore.model.Book;
 import ruslan.shastkiv.bookstore.model.Order;
 import ruslan.shastkiv.bookstore.model.OrderItem;
 import ruslan.shastkiv.bookstore.model.User;
+import ruslan.shastkiv.bookstore.repository.order.OrderItemLine;
 
 public class OrderTestUtils {
     public static final String ORDER_URL = "/orders";
     public static final String ORDER_URL_WITH_ID_1 = "/orders/1";
     public static final String ORDER_ITEMS_URL = "/items";
     public static final String ORDER_ITEMS_URL_WiTH_ID_1 = "/items/1";
+    public static final String ASYNC_ORDER_URL = "/orders/async";
+    public static final String ORDER_STATUS_URL = "/orders/%s/status";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENCY_KEY = "checkout-3-1";
 
     public static final Long ORDER_ID_1 = 1L;
     public static final Long NOT_EXISTED_ORDER_ID = 100L;
@@ -43,6 +48,13 @@ public class OrderTestUtils {
         );
     }
 
+    public static Order createAcceptedOrder(User user) {
+        Order order = createOrder(user, List.of());
+        order.setTotal(BigDecimal.ZERO);
+        order.setIdempotencyKey(IDEMPOTENCY_KEY);
+        return order;
+    }
+
     public static UpdateOrderStatusRequestDto createUpdateStatusDto(Order.Status status) {
         return new UpdateOrderStatusRequestDto(status);
     }
@@ -71,6 +83,15 @@ public class OrderTestUtils {
         );
     }
 
+    public static OrderItemLine createOrderItemLine(Long orderId, Long bookId) {
+        return new OrderItemLine(
+                orderId,
+                bookId,
+                bookId,
+                bookId.intValue()
+        );
+    }
+
     public static OrderDto createOrderDto(Long userId,
                                           List<Long> itemIds,
                                           Order.Status status) {
@@ -3,6 +3,7 @@ package ruslan.shastkiv.bookstore.utils;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.CUSTOM_BOOK_TITLE;
 import static ruslan.shastkiv.bookstore.utils.BookTestUtils.createBookById;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -11,6 +12,7 @@ import ruslan.shastkiv.bookstore.dto.item.CartItemDto;
 import ruslan.shastkiv.bookstore.dto.item.CartItemRequestDto;
 import ruslan.shastkiv.bookstore.dto.item.UpdateCartItemRequestDto;
 import ruslan.shastkiv.bookstore.model.CartItem;
+import ruslan.shastkiv.bookstore.model.Money;
 import ruslan.shastkiv.bookstore.model.ShoppingCart;
 import ruslan.shastkiv.bookstore.model.User;
 
@@ -47,11 +49,14 @@ public class ShoppingCartTestUtils {
     }
 
     public static ShoppingCartDto createShoppingCartDto(Long userId, List<Long> cartItemIds) {
+        Set<CartItemDto> cartItems = cartItemIds.stream()
+                .map(ShoppingCartTestUtils::createCartItemDto)
+                .collect(Collectors.toSet());
         return new ShoppingCartDto(
                 userId,
-                cartItemIds.stream()
-                        .map(ShoppingCartTestUtils::createCartItemDto)
-                        .collect(Collectors.toSet())
+                cartItems,
+                calculateSubtotal(cartItems),
+                cartItems.stream().mapToInt(CartItemDto::quantity).sum()
         );
     }
 
@@ -74,7 +79,18 @@ public class ShoppingCartTestUtils {
                 CUSTOM_BOOK_TITLE.formatted(itemId),
                 quantity);
 
-        return new ShoppingCartDto(userId, Set.of(cartItemDto));
+        return new ShoppingCartDto(userId, Set.of(cartItemDto),
+                calculateSubtotal(Set.of(cartItemDto)), quantity);
+    }
+
+    /*
+    Test books cost as much as their id.
+     */
+    public static BigDecimal calculateSubtotal(Set<CartItemDto> cartItems) {
+        return cartItems.stream()
+                .map(item -> Money.of(BigDecimal.valueOf(item.bookId())).times(item.quantity()))
+                .reduce(Money.ZERO, Money::plus)
+                .toBigDecimal();
     }
 
     public static void updateCartItemQuantity(ShoppingCart cart, Long bookId, int newQuantity) {
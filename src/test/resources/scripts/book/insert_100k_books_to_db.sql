@@ -0,0 +1,16 @@
+SET SESSION cte_max_recursion_depth = 100000;
+
+INSERT INTO books (is_deleted, title, author, isbn, price, description, cover_image)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 100000
+)
+SELECT 0,
+       CONCAT('Bulk_Title_', n),
+       CONCAT('Bulk_Author_', n),
+       CONCAT('978-0-', LPAD(n, 8, '0')),
+       n % 100,
+       CONCAT('Bulk_Description_', n),
+       CONCAT('https://bulk_cover_image_', n, '.jpg')
+FROM seq;
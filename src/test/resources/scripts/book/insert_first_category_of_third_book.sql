@@ -0,0 +1 @@
+INSERT INTO books_categories (book_id, category_id) VALUES (3, 1);
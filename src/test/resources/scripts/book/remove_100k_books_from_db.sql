@@ -0,0 +1 @@
+DELETE FROM books WHERE title LIKE 'Bulk_Title_%';
@@ -0,0 +1 @@
+UPDATE books SET is_deleted = FALSE WHERE id = 3;
@@ -1,3 +1,4 @@
 INSERT INTO cart_items(id, shopping_cart_id, book_id, quantity)
 VALUES
     (3, 3, 3, 3);
+UPDATE shopping_carts SET is_priced = FALSE WHERE id = 3;
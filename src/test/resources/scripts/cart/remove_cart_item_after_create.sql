@@ -1 +1,2 @@
-DELETE FROM cart_items WHERE id = 4;
+DELETE FROM cart_items WHERE id > 3;
+UPDATE shopping_carts SET is_priced = FALSE WHERE id = 3;
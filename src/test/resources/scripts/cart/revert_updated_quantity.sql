@@ -1 +1,2 @@
 UPDATE cart_items SET quantity = 3 WHERE id = 3;
+UPDATE shopping_carts SET is_priced = FALSE WHERE id = 3;
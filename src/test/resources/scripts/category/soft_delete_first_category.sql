@@ -0,0 +1 @@
+UPDATE categories SET is_deleted = TRUE WHERE id = 1;
@@ -0,0 +1,5 @@
+INSERT INTO order_items(id, order_id, book_id, quantity, price)
+VALUES
+    (5000, 1, 1, 1, 1),
+    (5001, 1, 2, 2, 2);
+UPDATE id_generators SET next_val = 5002 WHERE sequence_name = 'order_items';
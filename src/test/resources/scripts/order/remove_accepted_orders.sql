@@ -0,0 +1,2 @@
+DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE idempotency_key IS NOT NULL);
+DELETE FROM orders WHERE idempotency_key IS NOT NULL;
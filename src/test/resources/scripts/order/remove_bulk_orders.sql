@@ -0,0 +1,3 @@
+DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE user_id = 3);
+DELETE FROM orders WHERE user_id = 3;
+DELETE FROM cart_items WHERE shopping_cart_id = 3;
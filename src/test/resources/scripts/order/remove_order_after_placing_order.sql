@@ -1 +1 @@
-DELETE FROM orders WHERE id = 2;
+DELETE FROM orders WHERE id > 1;
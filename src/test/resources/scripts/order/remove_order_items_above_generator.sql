@@ -0,0 +1 @@
+DELETE FROM order_items WHERE id IN (5000, 5001);
@@ -1 +1 @@
-DELETE FROM order_items WHERE order_id = 2;
\ No newline at end of file
+DELETE FROM order_items WHERE order_id > 1;
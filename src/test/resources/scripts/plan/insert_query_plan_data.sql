@@ -0,0 +1,85 @@
+SET SESSION cte_max_recursion_depth = 10000;
+
+INSERT INTO books (is_deleted, title, author, isbn, price, description, cover_image)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 10000
+)
+SELECT 0,
+       CONCAT('Plan_Title_', n),
+       CONCAT('Plan_Author_', n),
+       CONCAT('979-0-', LPAD(n, 8, '0')),
+       n % 100,
+       CONCAT('Plan_Description_', n),
+       CONCAT('https://plan_cover_image_', n, '.jpg')
+FROM seq;
+
+SET @first_book_id = (SELECT MIN(id) FROM books WHERE title LIKE 'Plan_Title_%');
+
+INSERT INTO categories (id, name, description)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 10
+)
+SELECT 1000 + n, CONCAT('Plan_Category_', n), CONCAT('Plan_Description_', n)
+FROM seq;
+
+INSERT INTO books_categories (book_id, category_id)
+SELECT id, 1001 + (id - @first_book_id) % 10
+FROM books
+WHERE title LIKE 'Plan_Title_%';
+
+INSERT INTO users (id, email, password, first_name, last_name, shipping_address)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 200
+)
+SELECT 1000 + n,
+       CONCAT('plan_user_', n, '@mail.com'),
+       CONCAT('Password_', n),
+       CONCAT('First_name_', n),
+       CONCAT('Last_name_', n),
+       CONCAT('Shipping_address_', n)
+FROM seq;
+
+INSERT INTO shopping_carts (id)
+SELECT id FROM users WHERE id BETWEEN 1001 AND 1200;
+
+INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 2000
+)
+SELECT 1000000 + n, 1001 + (n - 1) % 200, @first_book_id + n - 1, 1
+FROM seq;
+
+INSERT INTO orders (id, user_id, status, total, order_date, shipping_address, idempotency_key)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 2000
+)
+SELECT 1000 + n,
+       1001 + (n - 1) % 200,
+       IF(n % 100 = 0, 'PENDING', 'DELIVERED'),
+       n,
+       TIMESTAMP('2024-01-01') + INTERVAL n HOUR,
+       CONCAT('Shipping_address_', n),
+       IF(n % 100 = 0, CONCAT('plan-key-', n), NULL)
+FROM seq;
+
+INSERT INTO order_items (id, order_id, book_id, quantity, price)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 6000
+)
+SELECT 1000000 + n, 1001 + (n - 1) % 2000, @first_book_id + (n - 1) % 10000, 1, 1
+FROM seq;
+
+ANALYZE TABLE books, categories, books_categories, users, shopping_carts, cart_items,
+    orders, order_items;
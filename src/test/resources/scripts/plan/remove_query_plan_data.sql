@@ -0,0 +1,8 @@
+DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE user_id BETWEEN 1001 AND 1200);
+DELETE FROM orders WHERE user_id BETWEEN 1001 AND 1200;
+DELETE FROM cart_items WHERE shopping_cart_id BETWEEN 1001 AND 1200;
+DELETE FROM shopping_carts WHERE id BETWEEN 1001 AND 1200;
+DELETE FROM users WHERE id BETWEEN 1001 AND 1200;
+DELETE FROM books_categories WHERE category_id BETWEEN 1001 AND 1010;
+DELETE FROM categories WHERE id BETWEEN 1001 AND 1010;
+DELETE FROM books WHERE title LIKE 'Plan_Title_%';
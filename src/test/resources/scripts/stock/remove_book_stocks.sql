@@ -0,0 +1 @@
+DELETE FROM book_stocks;